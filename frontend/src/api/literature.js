@@ -49,6 +49,44 @@ export const literatureApi = {
     })
   },
 
+  // 获取分面统计（分类/标签/年份数量）
+  getFacets: (category, description, readingGuide, tags) => {
+    return api.get('/literature/facets', {
+      params: {
+        category,
+        description,
+        readingGuide,
+        tags
+      }
+    })
+  },
+
+  // 输入联想
+  suggest: (q, limit = 10) => {
+    return api.get('/literature/suggest', {
+      params: { q, limit }
+    })
+  },
+
+  // 语义检索
+  semanticSearch: (q, k, category, tags) => {
+    return api.get('/literature/semantic-search', {
+      params: {
+        q,
+        k,
+        category,
+        tags
+      }
+    })
+  },
+
+  // 相似文献
+  getSimilarLiterature: (id, k) => {
+    return api.get(`/literature/${id}/similar`, {
+      params: { k }
+    })
+  },
+
   // 上传文献
   uploadLiterature: (formData) => {
     return api.post('/literature/upload', formData, {
@@ -58,6 +96,45 @@ export const literatureApi = {
     })
   },
 
+  // 取消正在处理的单文件上传
+  cancelSingleUpload: (requestId) => {
+    return api.post(`/literature/upload/${requestId}/cancel`)
+  },
+
+  // 分片上传：创建会话
+  createUpload: (fileName, size, sha256) => {
+    return api.post('/literature/uploads', null, {
+      params: { fileName, size, sha256 }
+    })
+  },
+
+  // 分片上传：查询已接收的分片
+  getUploadStatus: (uploadId) => {
+    return api.get(`/literature/uploads/${uploadId}`)
+  },
+
+  // 分片上传：上传单个分片
+  uploadChunk: (uploadId, index, blob) => {
+    return api.put(`/literature/uploads/${uploadId}/chunks/${index}`, blob, {
+      headers: {
+        'Content-Type': 'application/octet-stream'
+      },
+      timeout: 0
+    })
+  },
+
+  // 分片上传：完成并生成文献
+  completeUpload: (uploadId) => {
+    return api.post(`/literature/uploads/${uploadId}/complete`, null, {
+      timeout: 0
+    })
+  },
+
+  // 分片上传：取消
+  cancelUpload: (uploadId) => {
+    return api.delete(`/literature/uploads/${uploadId}`)
+  },
+
   // 批量导入
   startBatchImport: (formData) => {
     return api.post('/literature/batch-import/start', formData, {
@@ -67,6 +144,27 @@ export const literatureApi = {
     })
   },
 
+  // 取消批量导入，已导入的文献保留
+  cancelBatchImport: (importId) => {
+    return api.post(`/literature/batch-import/${importId}/cancel`)
+  },
+
+  // 创建压缩包导入任务
+  startArchiveImport: () => {
+    return api.post('/literature/archive-import/start')
+  },
+
+  // 上传压缩包（ZIP 或 tar/tar.gz），请求体直接为文件内容
+  uploadArchive: (importId, file, onUploadProgress) => {
+    return api.put(`/literature/archive-import/${importId}`, file, {
+      headers: {
+        'Content-Type': 'application/octet-stream'
+      },
+      timeout: 0,
+      onUploadProgress
+    })
+  },
+
   // 下载文献
   downloadLiterature: (id) => {
     return api.get(`/literature/download/${id}`, {
@@ -74,9 +172,42 @@ export const literatureApi = {
     })
   },
 
+  // 批量导出地址；压缩包可能很大，由浏览器直接下载而不是读入内存
+  getExportUrl: ({ ids, category, description, readingGuide, tags, includeGuide = true, includeManifest = true } = {}) => {
+    return api.getUri({
+      url: '/literature/export',
+      params: {
+        ids: ids && ids.length ? ids.join(',') : undefined,
+        category,
+        description,
+        readingGuide,
+        tags,
+        includeGuide,
+        includeManifest
+      }
+    })
+  },
+
+  // PDF 页面预览图地址，由 <img> 直接加载并利用浏览器缓存
+  getPreviewUrl: (id, { page = 1, size = 'small', format = 'jpeg' } = {}) => {
+    return api.getUri({
+      url: `/literature/${id}/preview`,
+      params: { page, size, format }
+    })
+  },
+
   // 获取文献详情
-  getLiteratureDetail: (id) => {
-    return api.get(`/literature/${id}`)
+  getLiteratureDetail: (id, includeGuide = true) => {
+    return api.get(`/literature/${id}`, {
+      params: { includeGuide }
+    })
+  },
+
+  // 获取阅读指南（Markdown），浏览器自动解码压缩传输的内容
+  getReadingGuide: (id) => {
+    return api.get(`/literature/${id}/guide`, {
+      responseType: 'text'
+    })
   },
 
   // 删除文献
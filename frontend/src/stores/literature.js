@@ -3,6 +3,8 @@ import { ref } from 'vue'
 import { literatureApi } from '@/api/literature'
 import { useBatchImportProgress } from '@/utils/sse'
 
+const PENDING_IMPORT_KEY = 'pendingBatchImportId'
+
 export const useLiteratureStore = defineStore('literature', () => {
   // 状态
   const literatureList = ref([])
@@ -11,6 +13,10 @@ export const useLiteratureStore = defineStore('literature', () => {
   const pageSize = ref(10)
   const loading = ref(false)
   const error = ref(null)
+
+  // 正在处理的单文件上传请求ID与批量导入任务ID，用于取消
+  const currentUploadId = ref(null)
+  const currentImportId = ref(null)
   
   // 筛选条件
   const filters = ref({
@@ -84,8 +90,11 @@ export const useLiteratureStore = defineStore('literature', () => {
     error.value = null
     
     try {
+      const requestId = crypto.randomUUID()
+      currentUploadId.value = requestId
       const formData = new FormData()
       formData.append('file', file)
+      formData.append('requestId', requestId)
       
       const response = await literatureApi.uploadLiterature(formData)
       await fetchLiteratureList(currentPage.value, pageSize.value)
@@ -95,10 +104,37 @@ export const useLiteratureStore = defineStore('literature', () => {
       console.error('文献上传失败:', err)
       throw err
     } finally {
+      currentUploadId.value = null
       loading.value = false
     }
   }
 
+  // 取消正在处理的单文件上传，服务端中止解析与AI调用
+  const cancelUpload = async () => {
+    const requestId = currentUploadId.value
+    if (!requestId) {
+      return
+    }
+    try {
+      await literatureApi.cancelSingleUpload(requestId)
+    } catch (err) {
+      console.error('取消上传失败:', err)
+    }
+  }
+
+  // 取消正在进行的批量导入，已导入的文献保留
+  const cancelBatchImport = async () => {
+    const importId = currentImportId.value
+    if (!importId) {
+      return
+    }
+    try {
+      await literatureApi.cancelBatchImport(importId)
+    } catch (err) {
+      console.error('取消批量导入失败:', err)
+    }
+  }
+
   // 批量导入
   const batchImportLiterature = async (files, onProgress) => {
     loading.value = true
@@ -107,52 +143,13 @@ export const useLiteratureStore = defineStore('literature', () => {
     try {
       const formData = new FormData()
       files.forEach(file => formData.append('files', file))
-      // 创建批量导入任务，获得任务ID
-      const { importId } = await literatureApi.startBatchImport(formData)
-
-      // 连接SSE获取进度
-      const {
-        connectBatchImport,
-        onProgressUpdate,
-        onFileComplete,
-        onFileError,
-        onComplete,
-        onError
-      } = useBatchImportProgress()
-
-      if (onProgress) {
-        onProgressUpdate((payload) => {
-          const current = payload?.current || 0
-          const total = payload?.total || files.length
-          const percent = total > 0 ? Math.round((current * 100) / total) : 0
-          onProgress(percent)
-        })
-      }
-
-      onFileComplete(() => {
-        // 可扩展：收集完成的文件信息
-      })
-
-      onFileError((payload) => {
-        console.error('批量导入文件错误:', payload)
-      })
+      // 创建批量导入任务，服务端立即开始导入
+      const { data } = await literatureApi.startBatchImport(formData)
+      const importId = data.importId
+      localStorage.setItem(PENDING_IMPORT_KEY, importId)
 
-      await new Promise((resolve, reject) => {
-        onComplete(async () => {
-          try {
-            await fetchLiteratureList(currentPage.value, pageSize.value)
-            resolve()
-          } catch (e) {
-            reject(e)
-          }
-        })
-        onError((err) => {
-          reject(err)
-        })
-        connectBatchImport(importId)
-      })
-      
-      return { importId }
+      const result = await watchBatchImport(importId, onProgress)
+      return { importId, ...result }
     } catch (err) {
       error.value = err.response?.data?.message || '批量导入失败'
       console.error('批量导入失败:', err)
@@ -162,6 +159,81 @@ export const useLiteratureStore = defineStore('literature', () => {
     }
   }
 
+  // 重新打开页面时继续查看未完成的批量导入
+  const resumeBatchImport = async (onProgress) => {
+    const importId = localStorage.getItem(PENDING_IMPORT_KEY)
+    if (!importId) {
+      return
+    }
+    try {
+      await watchBatchImport(importId, onProgress)
+    } catch (err) {
+      console.error('批量导入失败:', err)
+    }
+  }
+
+  // 连接SSE获取进度，导入完成后刷新列表
+  const watchBatchImport = (importId, onProgress) => {
+    const {
+      connectBatchImport,
+      disconnect,
+      onProgressUpdate,
+      onFileComplete,
+      onFileError,
+      onComplete,
+      onError,
+      onCancelled
+    } = useBatchImportProgress()
+
+    if (onProgress) {
+      onProgressUpdate((payload) => {
+        const current = payload?.current || 0
+        const total = payload?.total || 0
+        const percent = total > 0 ? Math.round((current * 100) / total) : 0
+        // 第二个参数带有排队位置与预计剩余秒数（position、eta）
+        onProgress(percent, payload)
+      })
+    }
+
+    onFileComplete(() => {
+      // 可扩展：收集完成的文件信息
+    })
+
+    onFileError((payload) => {
+      console.error('批量导入文件错误:', payload)
+    })
+
+    currentImportId.value = importId
+    return new Promise((resolve, reject) => {
+      onComplete(async () => {
+        try {
+          await fetchLiteratureList(currentPage.value, pageSize.value)
+          resolve({ cancelled: false })
+        } catch (e) {
+          reject(e)
+        }
+      })
+      // 取消前已导入的文献保留，同样刷新列表
+      onCancelled(async (payload) => {
+        try {
+          await fetchLiteratureList(currentPage.value, pageSize.value)
+          resolve({ cancelled: true, ...payload })
+        } catch (e) {
+          reject(e)
+        }
+      })
+      onError((err) => {
+        reject(err)
+      })
+      connectBatchImport(importId)
+    }).finally(() => {
+      // 服务端结束连接后浏览器会自动重连，收到结束事件后主动关闭
+      disconnect()
+      currentImportId.value = null
+      localStorage.removeItem(PENDING_IMPORT_KEY)
+    })
+  }
+
   // 下载文献
   const downloadLiterature = async (id) => {
     try {
@@ -177,8 +249,11 @@ export const useLiteratureStore = defineStore('literature', () => {
       const contentDisposition = response.headers['content-disposition']
       let fileName = 'document'
       if (contentDisposition) {
-        const fileNameMatch = contentDisposition.match(/filename="?(.+)"?/)
-        if (fileNameMatch && fileNameMatch[1]) {
+        const encodedMatch = contentDisposition.match(/filename\*=UTF-8''([^;]+)/i)
+        const fileNameMatch = contentDisposition.match(/filename="?([^";]+)"?/)
+        if (encodedMatch && encodedMatch[1]) {
+          fileName = decodeURIComponent(encodedMatch[1])
+        } else if (fileNameMatch && fileNameMatch[1]) {
           fileName = fileNameMatch[1]
         }
       }
@@ -196,12 +271,12 @@ export const useLiteratureStore = defineStore('literature', () => {
   }
 
   // 获取文献详情
-  const getLiteratureDetail = async (id) => {
+  const getLiteratureDetail = async (id, includeGuide = true) => {
     loading.value = true
     error.value = null
     
     try {
-      const response = await literatureApi.getLiteratureDetail(id)
+      const response = await literatureApi.getLiteratureDetail(id, includeGuide)
       return response.data
     } catch (err) {
       error.value = err.response?.data?.message || '获取文献详情失败'
@@ -227,6 +302,9 @@ export const useLiteratureStore = defineStore('literature', () => {
     resetFilters,
     uploadLiterature,
     batchImportLiterature,
+    resumeBatchImport,
+    cancelUpload,
+    cancelBatchImport,
     downloadLiterature,
     getLiteratureDetail
   }
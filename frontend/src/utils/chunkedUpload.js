@@ -0,0 +1,50 @@
+import { literatureApi } from '@/api/literature'
+
+// 分片上传：并行上传缺失的分片，失败的分片单独重试；传入已有 uploadId 时从断点继续
+export const chunkedUpload = async (file, { uploadId, concurrency = 3, retries = 3, onProgress } = {}) => {
+  let status
+  if (uploadId) {
+    status = (await literatureApi.getUploadStatus(uploadId)).data.data
+  } else {
+    status = (await literatureApi.createUpload(file.name, file.size)).data.data
+  }
+
+  const { chunkSize, chunkCount } = status
+  const received = new Set(status.receivedChunks)
+  const pending = []
+  for (let i = 0; i < chunkCount; i++) {
+    if (!received.has(i)) {
+      pending.push(i)
+    }
+  }
+
+  let uploadedBytes = status.receivedBytes
+  const report = () => onProgress && onProgress(Math.round((uploadedBytes / file.size) * 100), status.uploadId)
+
+  const uploadOne = async (index) => {
+    const blob = file.slice(index * chunkSize, Math.min(file.size, (index + 1) * chunkSize))
+    for (let attempt = 1; ; attempt++) {
+      try {
+        await literatureApi.uploadChunk(status.uploadId, index, blob)
+        uploadedBytes += blob.size
+        report()
+        return
+      } catch (err) {
+        if (attempt >= retries) {
+          throw err
+        }
+        await new Promise(resolve => setTimeout(resolve, 1000 * attempt))
+      }
+    }
+  }
+
+  const workers = Array.from({ length: Math.min(concurrency, pending.length) }, async () => {
+    while (pending.length > 0) {
+      await uploadOne(pending.shift())
+    }
+  })
+  await Promise.all(workers)
+
+  const response = await literatureApi.completeUpload(status.uploadId)
+  return response.data.data
+}
@@ -3,49 +3,58 @@ class SSEManager {
   constructor() {
     this.eventSource = null
     this.callbacks = new Map()
+    this.lastEventId = null
   }
 
-  // 创建SSE连接
+  // 创建SSE连接；连接断开时浏览器会自动重连并携带 Last-Event-ID，服务端补发错过的事件
   connect(url, options = {}) {
-    this.disconnect()
+    if (this.eventSource) {
+      this.eventSource.close()
+    }
 
     this.eventSource = new EventSource(url, options)
-
-    // 监听消息事件
-    this.eventSource.onmessage = (event) => {
-      this.handleMessage(event)
-    }
+    this.callbacks.forEach((_, type) => this.listen(type))
 
     // 监听错误事件
     this.eventSource.onerror = (error) => {
-      console.error('SSE连接错误:', error)
-      this.disconnect()
+      if (this.eventSource && this.eventSource.readyState === EventSource.CLOSED) {
+        console.error('SSE连接错误:', error)
+      }
     }
 
     return this.eventSource
   }
 
+  // 服务端发送的是具名事件，需要按事件名监听
+  listen(type) {
+    this.eventSource.addEventListener(type, (event) => {
+      this.handleMessage(type, event)
+    })
+  }
+
   // 处理消息
-  handleMessage(event) {
+  handleMessage(type, event) {
+    if (event.lastEventId) {
+      this.lastEventId = event.lastEventId
+    }
+    let payload = event.data
     try {
-      const data = JSON.parse(event.data)
-      const { type, payload } = data
-
-      // 触发对应的回调函数
-      if (this.callbacks.has(type)) {
-        this.callbacks.get(type).forEach(callback => {
-          callback(payload)
-        })
-      }
+      payload = JSON.parse(event.data)
     } catch (error) {
-      console.error('SSE消息解析错误:', error)
+      // 纯文本数据
     }
+    this.callbacks.get(type)?.forEach(callback => {
+      callback(payload)
+    })
   }
 
   // 注册事件监听器
   on(eventType, callback) {
     if (!this.callbacks.has(eventType)) {
       this.callbacks.set(eventType, [])
+      if (this.eventSource) {
+        this.listen(eventType)
+      }
     }
     this.callbacks.get(eventType).push(callback)
   }
@@ -68,6 +77,7 @@ class SSEManager {
       this.eventSource = null
     }
     this.callbacks.clear()
+    this.lastEventId = null
   }
 
   // 获取连接状态
@@ -81,13 +91,15 @@ export const sseManager = new SSEManager()
 
 // 批量导入进度监听
 export const useBatchImportProgress = () => {
-  const connectBatchImport = (importId) => {
-    const url = `/api/literature/batch-import/progress/${importId}`
+  // 导入在后台进行，关闭页面后可凭任务ID重新连接，服务端会从头补发进度
+  const connectBatchImport = (importId, lastEventId) => {
+    const query = lastEventId ? `?lastEventId=${lastEventId}` : ''
+    const url = `/api/literature/batch-import/progress/${importId}${query}`
     return sseManager.connect(url)
   }
 
   const onProgressUpdate = (callback) => {
-    sseManager.on('progress', callback)
+    sseManager.on('progress_update', callback)
   }
 
   const onFileComplete = (callback) => {
@@ -106,13 +118,23 @@ export const useBatchImportProgress = () => {
     sseManager.on('error', callback)
   }
 
+  const onCancelled = (callback) => {
+    sseManager.on('cancelled', callback)
+  }
+
+  const disconnect = () => {
+    sseManager.disconnect()
+  }
+
   return {
     connectBatchImport,
+    disconnect,
     onProgressUpdate,
     onFileComplete,
     onFileError,
     onComplete,
-    onError
+    onError,
+    onCancelled
   }
 }
 
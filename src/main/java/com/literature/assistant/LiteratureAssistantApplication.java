@@ -3,9 +3,11 @@ package com.literature.assistant;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.mybatis.spring.annotation.MapperScan;
 
 @EnableAsync
+@EnableScheduling
 @SpringBootApplication
 @MapperScan("com.literature.assistant.mapper")
 public class LiteratureAssistantApplication {
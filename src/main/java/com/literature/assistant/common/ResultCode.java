@@ -13,9 +13,11 @@ public enum ResultCode {
     FORBIDDEN(403, "禁止访问"),
     NOT_FOUND(404, "资源不存在"),
     METHOD_NOT_ALLOWED(405, "请求方法不支持"),
+    CONFLICT(409, "资源状态冲突"),
     FILE_TOO_LARGE(413, "文件过大"),
     UNSUPPORTED_MEDIA_TYPE(415, "不支持的媒体类型"),
     TOO_MANY_REQUESTS(429, "请求过于频繁"),
+    SERVICE_UNAVAILABLE(503, "服务繁忙"),
 
     // 业务异常
     FILE_UPLOAD_FAILED(1001, "文件上传失败"),
@@ -23,7 +25,8 @@ public enum ResultCode {
     AI_SERVICE_ERROR(1003, "AI服务调用失败"),
     INVALID_API_KEY(1004, "无效的API密钥"),
     LITERATURE_NOT_FOUND(1005, "文献不存在"),
-    BATCH_IMPORT_LIMIT(1006, "批量导入数量超过限制");
+    BATCH_IMPORT_LIMIT(1006, "批量导入数量超过限制"),
+    TASK_CANCELLED(1007, "任务已取消");
 
     private final Integer code;
     private final String message;
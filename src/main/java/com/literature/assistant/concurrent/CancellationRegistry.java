@@ -0,0 +1,74 @@
+package com.literature.assistant.concurrent;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 本节点正在执行、可按业务键取消的任务
+ * <p>
+ * 执行导入子任务、单文件上传或批量重处理的线程以任务ID或上传请求ID登记取消令牌，取消请求按同一个键取消本节点上的全部令牌。
+ * 跨节点的取消由 {@link com.literature.assistant.queue.IngestionEventRelay} 广播后在各节点调用 {@link #cancel}。
+ */
+@Component
+public class CancellationRegistry {
+
+    private static final String JOB_PREFIX = "job:";
+
+    private final ConcurrentMap<String, Set<CancellationToken>> tokens = new ConcurrentHashMap<>();
+
+    public static String jobKey(String jobId) {
+        return JOB_PREFIX + jobId;
+    }
+
+    /**
+     * 由取消键取回导入任务ID，不是导入任务的键时返回空
+     */
+    public static String jobId(String key) {
+        return key.startsWith(JOB_PREFIX) ? key.substring(JOB_PREFIX.length()) : null;
+    }
+
+    public static String uploadKey(String requestId) {
+        return "upload:" + requestId;
+    }
+
+    public static String backfillKey(String backfillId) {
+        return "backfill:" + backfillId;
+    }
+
+    /**
+     * 登记一个新令牌，执行结束后须调用 {@link #unregister}
+     */
+    public CancellationToken register(String key) {
+        CancellationToken token = new CancellationToken();
+        tokens.compute(key, (k, set) -> {
+            Set<CancellationToken> result = set == null ? ConcurrentHashMap.newKeySet() : set;
+            result.add(token);
+            return result;
+        });
+        return token;
+    }
+
+    public void unregister(String key, CancellationToken token) {
+        tokens.computeIfPresent(key, (k, set) -> {
+            set.remove(token);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    /**
+     * 取消键下的全部令牌
+     *
+     * @return 本节点上被取消的令牌数
+     */
+    public int cancel(String key) {
+        Set<CancellationToken> cancelled = tokens.remove(key);
+        if (cancelled == null) {
+            return 0;
+        }
+        cancelled.forEach(CancellationToken::cancel);
+        return cancelled.size();
+    }
+}
@@ -0,0 +1,118 @@
+package com.literature.assistant.concurrent;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+/**
+ * 取消信号
+ * <p>
+ * 执行任务的线程通过 {@link #bind()} 绑定令牌，任务内部用 {@link #current()} 取得令牌，
+ * 检查是否已取消，或注册取消时的回调（如中止 HTTP 请求）。取消只发生一次，之后注册的回调立即执行。
+ * 线程未绑定令牌时得到一个永不取消的空令牌。
+ */
+@Slf4j
+public class CancellationToken {
+
+    private static final ThreadLocal<CancellationToken> CURRENT = new ThreadLocal<>();
+
+    private static final CancellationToken NONE = new CancellationToken() {
+        @Override
+        public Registration onCancel(Runnable callback) {
+            return () -> {
+            };
+        }
+
+        @Override
+        public void cancel() {
+            // 空令牌不可取消
+        }
+    };
+
+    private final List<Runnable> callbacks = new ArrayList<>();
+    private volatile boolean cancelled;
+
+    /**
+     * 可关闭的注册，关闭时撤销，不抛出受检异常
+     */
+    @FunctionalInterface
+    public interface Registration extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    /**
+     * 当前线程绑定的令牌，未绑定时返回永不取消的空令牌
+     */
+    public static CancellationToken current() {
+        CancellationToken token = CURRENT.get();
+        return token == null ? NONE : token;
+    }
+
+    /**
+     * 把令牌绑定到当前线程，关闭返回值时恢复原来的绑定
+     */
+    public Registration bind() {
+        CancellationToken previous = CURRENT.get();
+        CURRENT.set(this);
+        return () -> {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        };
+    }
+
+    /**
+     * 注册取消时执行的回调；已取消时立即执行
+     */
+    public Registration onCancel(Runnable callback) {
+        synchronized (callbacks) {
+            if (!cancelled) {
+                callbacks.add(callback);
+                return () -> {
+                    synchronized (callbacks) {
+                        callbacks.remove(callback);
+                    }
+                };
+            }
+        }
+        run(callback);
+        return () -> {
+        };
+    }
+
+    public void cancel() {
+        List<Runnable> pending;
+        synchronized (callbacks) {
+            if (cancelled) {
+                return;
+            }
+            cancelled = true;
+            pending = new ArrayList<>(callbacks);
+            callbacks.clear();
+        }
+        pending.forEach(CancellationToken::run);
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public void throwIfCancelled() {
+        if (cancelled) {
+            throw new CancellationException("任务已取消");
+        }
+    }
+
+    private static void run(Runnable callback) {
+        try {
+            callback.run();
+        } catch (Exception e) {
+            log.warn("执行取消回调失败", e);
+        }
+    }
+}
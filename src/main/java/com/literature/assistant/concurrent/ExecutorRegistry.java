@@ -0,0 +1,234 @@
+package com.literature.assistant.concurrent;
+
+import com.literature.assistant.dto.ExecutorStats;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.ConcurrentTaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 应用内所有线程池的统一入口
+ * <p>
+ * 只有三类线程池：按 CPU 核数固定大小、队列有界的平台线程池，执行文件解析、预览渲染、导出压缩等 CPU 密集任务；
+ * 按用途命名的虚拟线程池，由信号量限制并发，执行 AI 调用、数据库访问等以等待为主的任务；
+ * 以及执行 {@code @Scheduled} 定时任务的调度线程池。租约续期使用单独的单线程调度器，不会被耗时的定时任务拖过租约期限。
+ * 停机时先停调度，再等待各线程池的在途任务完成。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ExecutorRegistry {
+
+    public static final String KIND_CPU = "cpu";
+    public static final String KIND_IO = "io";
+    public static final String KIND_SCHEDULER = "scheduler";
+    private static final String LEASE_SCHEDULER = "lease";
+
+    /**
+     * 当前线程是否为 CPU 线程池的工作线程，用于避免在池内提交并等待新任务造成死锁
+     */
+    private static final ThreadLocal<Boolean> CPU_WORKER = ThreadLocal.withInitial(() -> false);
+
+    private final Environment environment;
+
+    @Value("${executor.cpu.threads:0}")
+    private int cpuThreads;
+
+    @Value("${executor.cpu.queue-capacity:500}")
+    private int cpuQueueCapacity;
+
+    @Value("${executor.io.default-permits:32}")
+    private int defaultPermits;
+
+    @Value("${executor.scheduler.threads:2}")
+    private int schedulerThreads;
+
+    @Value("${executor.shutdown-timeout:30000}")
+    private long shutdownTimeout;
+
+    private InstrumentedExecutor cpu;
+    private InstrumentedScheduler scheduledExecutor;
+    private TaskScheduler scheduler;
+    private InstrumentedScheduler leaseExecutor;
+    private TaskScheduler leaseScheduler;
+    private final ConcurrentMap<String, InstrumentedExecutor> ioExecutors = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        int threads = cpuThreads > 0 ? cpuThreads : Runtime.getRuntime().availableProcessors();
+        ThreadPoolExecutor cpuPool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(cpuQueueCapacity), cpuThreadFactory());
+        cpu = new InstrumentedExecutor(KIND_CPU, KIND_CPU, cpuPool, null, threads);
+
+        scheduledExecutor = new InstrumentedScheduler(KIND_SCHEDULER, schedulerThreads);
+        scheduler = new ConcurrentTaskScheduler(scheduledExecutor);
+        leaseExecutor = new InstrumentedScheduler(LEASE_SCHEDULER, 1);
+        leaseScheduler = new ConcurrentTaskScheduler(leaseExecutor);
+        log.info("线程池已创建: cpu={} 线程，队列 {}；调度 {} 线程", threads, cpuQueueCapacity, schedulerThreads);
+    }
+
+    /**
+     * CPU 密集任务线程池；排队已满时 execute/submit 抛出 RejectedExecutionException
+     */
+    public InstrumentedExecutor cpu() {
+        return cpu;
+    }
+
+    /**
+     * 按用途获取 I/O 线程池，并发上限取 executor.io.permits.&lt;name&gt;，未配置时取默认值
+     */
+    public InstrumentedExecutor io(String name) {
+        return ioExecutors.computeIfAbsent(name, key -> {
+            int permits = environment.getProperty("executor.io.permits." + key, Integer.class, defaultPermits);
+            ThreadFactory factory = Thread.ofVirtual().name("io-" + key + "-", 0).factory();
+            return new InstrumentedExecutor(key, KIND_IO, Executors.newThreadPerTaskExecutor(factory),
+                    new Semaphore(permits), permits);
+        });
+    }
+
+    /**
+     * 提前停止指定的 I/O 线程池并等待在途任务完成，供需要在停机清理前排空任务的组件调用
+     */
+    public boolean drain(String name) {
+        return io(name).drain(shutdownTimeout);
+    }
+
+    public TaskScheduler scheduler() {
+        return scheduler;
+    }
+
+    /**
+     * 租约续期专用的调度器，只应提交短小的续期任务
+     */
+    public TaskScheduler leaseScheduler() {
+        return leaseScheduler;
+    }
+
+    /**
+     * 在 CPU 线程池中执行并等待结果；调用方已是 CPU 工作线程时直接执行。
+     * 任务抛出的异常包装在 ExecutionException 中；调用方的取消令牌被取消时中断任务并抛出 CancellationException
+     */
+    public <T> T callOnCpu(Callable<T> task) throws ExecutionException, InterruptedException {
+        if (CPU_WORKER.get()) {
+            try {
+                return task.call();
+            } catch (Exception e) {
+                throw new ExecutionException(e);
+            }
+        }
+        Future<T> future = cpu.submit(task);
+        try (CancellationToken.Registration ignored = CancellationToken.current().onCancel(() -> future.cancel(true))) {
+            return future.get();
+        }
+    }
+
+    public List<ExecutorStats> stats() {
+        List<ExecutorStats> stats = new ArrayList<>();
+        stats.add(cpu.stats());
+        ioExecutors.values().stream()
+                .sorted(Comparator.comparing(InstrumentedExecutor::getName))
+                .forEach(executor -> stats.add(executor.stats()));
+        stats.add(scheduledExecutor.stats());
+        stats.add(leaseExecutor.stats());
+        return stats;
+    }
+
+    /**
+     * 先停止调度，不再产生新任务；再让各线程池在共同的期限内完成在途任务，超时的中断
+     */
+    @PreDestroy
+    public void shutdown() {
+        long deadline = System.currentTimeMillis() + shutdownTimeout;
+        scheduledExecutor.shutdown();
+        leaseExecutor.shutdown();
+        cpu.shutdown();
+        ioExecutors.values().forEach(InstrumentedExecutor::shutdown);
+        try {
+            scheduledExecutor.awaitTermination(remaining(deadline), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        scheduledExecutor.shutdownNow();
+        leaseExecutor.shutdownNow();
+        cpu.drain(remaining(deadline));
+        ioExecutors.values().forEach(executor -> executor.drain(remaining(deadline)));
+    }
+
+    private static long remaining(long deadline) {
+        return Math.max(0, deadline - System.currentTimeMillis());
+    }
+
+    private static ThreadFactory cpuThreadFactory() {
+        AtomicInteger sequence = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(() -> {
+                CPU_WORKER.set(true);
+                runnable.run();
+            }, "cpu-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * 统计执行耗时的调度线程池
+     */
+    private static class InstrumentedScheduler extends ScheduledThreadPoolExecutor {
+
+        private final TaskMetrics metrics = new TaskMetrics();
+        private final ThreadLocal<Long> startNanos = new ThreadLocal<>();
+        private final String name;
+        private final int threads;
+
+        InstrumentedScheduler(String name, int threads) {
+            super(threads, Thread.ofPlatform().name(name + "-", 1).daemon(true).factory());
+            this.name = name;
+            this.threads = threads;
+            setRemoveOnCancelPolicy(true);
+            setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+            setContinueExistingPeriodicTasksAfterShutdownPolicy(false);
+        }
+
+        @Override
+        protected void beforeExecute(Thread thread, Runnable task) {
+            startNanos.set(metrics.started());
+        }
+
+        @Override
+        protected void afterExecute(Runnable task, Throwable error) {
+            metrics.finished(startNanos.get(), error == null);
+            startNanos.remove();
+        }
+
+        ExecutorStats stats() {
+            return metrics.snapshot()
+                    .name(name)
+                    .kind(KIND_SCHEDULER)
+                    .maxConcurrency(threads)
+                    .queued(getQueue().size())
+                    .build();
+        }
+    }
+}
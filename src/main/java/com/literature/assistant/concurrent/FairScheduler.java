@@ -0,0 +1,352 @@
+package com.literature.assistant.concurrent;
+
+import com.literature.assistant.dto.SchedulerStats;
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 文献解析与 AI 调用的准入调度，本节点同时处理的文献数不超过槽位数
+ * <p>
+ * 等待者按优先级分为交互上传、批量导入、后台回填三类，类别之间按权重做加权公平排队（起始时间公平排队，
+ * 权重越大分得的槽位越多，低权重类别不会被饿死）；同一类别内按流（如导入任务ID）轮转，
+ * 一个大批量导入不会挤占其他导入。部分槽位只留给交互上传，大批量导入进行时交互上传仍能立即开始；
+ * 等待超过上限的请求不再按权重排序，优先获得槽位。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FairScheduler {
+
+    /**
+     * 优先级类别
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public enum Priority {
+        INTERACTIVE("interactive", 8),
+        BATCH("batch", 2),
+        BACKFILL("backfill", 1);
+
+        private final String key;
+        private final int defaultWeight;
+    }
+
+    /**
+     * 交互上传共用的流，按到达顺序处理
+     */
+    public static final String UPLOAD_FLOW = "upload";
+
+    /**
+     * 已获得的槽位，关闭时归还
+     */
+    @FunctionalInterface
+    public interface Permit extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private final Environment environment;
+
+    @Value("${fair-scheduler.slots:6}")
+    private int slots;
+
+    @Value("${fair-scheduler.reserved-interactive:2}")
+    private int reservedInteractive;
+
+    @Value("${fair-scheduler.max-wait:60000}")
+    private long maxWaitMillis;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<Priority, ClassQueue> queues = new EnumMap<>(Priority.class);
+    private int inUse;
+    private int nonInteractiveInUse;
+
+    /**
+     * 系统虚拟时间：最近一次授予的起始标签
+     */
+    private double virtualTime;
+
+    /**
+     * 槽位平均占用时长（毫秒）的指数加权平均
+     */
+    private double avgHoldMillis;
+    private long granted;
+
+    @PostConstruct
+    public void init() {
+        reservedInteractive = Math.max(0, Math.min(reservedInteractive, slots - 1));
+        for (Priority priority : Priority.values()) {
+            int weight = environment.getProperty("fair-scheduler.weights." + priority.getKey(), Integer.class,
+                    priority.getDefaultWeight());
+            queues.put(priority, new ClassQueue(Math.max(1, weight)));
+        }
+        log.info("准入调度: {} 个槽位，其中 {} 个保留给交互上传", slots, reservedInteractive);
+    }
+
+    /**
+     * 等待槽位；当前线程绑定的取消令牌被取消或线程被中断时放弃等待并抛出 CancellationException
+     *
+     * @param flow 公平排队的流，同类别中不同的流轮流获得槽位
+     */
+    public Permit acquire(Priority priority, String flow) {
+        Waiter waiter;
+        lock.lock();
+        try {
+            waiter = new Waiter(priority, flow, lock.newCondition());
+            queues.get(priority).add(waiter);
+            dispatch();
+        } finally {
+            lock.unlock();
+        }
+        try (CancellationToken.Registration ignored = CancellationToken.current().onCancel(() -> abandon(waiter))) {
+            lock.lock();
+            try {
+                while (!waiter.granted && !waiter.abandoned) {
+                    waiter.condition.await(1, TimeUnit.SECONDS);
+                    // 等待期间可能有其他等待者超过等待上限
+                    dispatch();
+                }
+                if (!waiter.granted) {
+                    throw new CancellationException("任务已取消");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                if (!waiter.granted) {
+                    queues.get(priority).remove(waiter);
+                    throw new CancellationException("等待处理时被中断");
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        long grantNanos = System.nanoTime();
+        return new Permit() {
+            private boolean released;
+
+            @Override
+            public void close() {
+                if (!released) {
+                    released = true;
+                    release(priority, grantNanos);
+                }
+            }
+        };
+    }
+
+    public int weight(Priority priority) {
+        return queues.get(priority).weight;
+    }
+
+    public SchedulerStats stats() {
+        lock.lock();
+        try {
+            Map<String, Integer> waiting = new LinkedHashMap<>();
+            Map<String, Integer> weights = new LinkedHashMap<>();
+            queues.forEach((priority, queue) -> {
+                waiting.put(priority.getKey(), queue.size);
+                weights.put(priority.getKey(), queue.weight);
+            });
+            return SchedulerStats.builder()
+                    .slots(slots)
+                    .reservedInteractive(reservedInteractive)
+                    .inUse(inUse)
+                    .waiting(waiting)
+                    .weights(weights)
+                    .granted(granted)
+                    .avgHoldMillis(avgHoldMillis)
+                    .build();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void abandon(Waiter waiter) {
+        lock.lock();
+        try {
+            if (!waiter.granted && queues.get(waiter.priority).remove(waiter)) {
+                waiter.abandoned = true;
+                waiter.condition.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release(Priority priority, long grantNanos) {
+        lock.lock();
+        try {
+            inUse--;
+            if (priority != Priority.INTERACTIVE) {
+                nonInteractiveInUse--;
+            }
+            double held = (System.nanoTime() - grantNanos) / 1_000_000.0;
+            avgHoldMillis = avgHoldMillis == 0 ? held : avgHoldMillis * 0.9 + held * 0.1;
+            dispatch();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 在有空闲槽位时依次授予：先授予等待超过上限的请求，其余按起始标签最小的类别授予；须持有锁
+     */
+    private void dispatch() {
+        while (inUse < slots) {
+            Priority next = selectStarved();
+            boolean starved = next != null;
+            if (!starved) {
+                next = selectFair();
+            }
+            if (next == null) {
+                return;
+            }
+            ClassQueue queue = queues.get(next);
+            double start = Math.max(virtualTime, queue.lastFinish);
+            virtualTime = start;
+            queue.lastFinish = start + 1.0 / queue.weight;
+
+            Waiter waiter;
+            if (starved) {
+                waiter = queue.oldest();
+                queue.remove(waiter);
+            } else {
+                waiter = queue.poll();
+            }
+            waiter.granted = true;
+            inUse++;
+            if (next != Priority.INTERACTIVE) {
+                nonInteractiveInUse++;
+            }
+            granted++;
+            waiter.condition.signal();
+        }
+    }
+
+    private Priority selectStarved() {
+        long threshold = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+        Priority oldest = null;
+        long oldestNanos = threshold;
+        for (Map.Entry<Priority, ClassQueue> entry : queues.entrySet()) {
+            Waiter head = entry.getValue().oldest();
+            if (head != null && head.enqueueNanos < oldestNanos && eligible(entry.getKey())) {
+                oldest = entry.getKey();
+                oldestNanos = head.enqueueNanos;
+            }
+        }
+        return oldest;
+    }
+
+    private Priority selectFair() {
+        Priority best = null;
+        double bestStart = Double.MAX_VALUE;
+        for (Map.Entry<Priority, ClassQueue> entry : queues.entrySet()) {
+            ClassQueue queue = entry.getValue();
+            if (queue.size == 0 || !eligible(entry.getKey())) {
+                continue;
+            }
+            double start = Math.max(virtualTime, queue.lastFinish);
+            if (start < bestStart) {
+                best = entry.getKey();
+                bestStart = start;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * 非交互请求不能占用保留槽位
+     */
+    private boolean eligible(Priority priority) {
+        return priority == Priority.INTERACTIVE || nonInteractiveInUse < slots - reservedInteractive;
+    }
+
+    private static final class Waiter {
+        private final Priority priority;
+        private final String flow;
+        private final Condition condition;
+        private final long enqueueNanos = System.nanoTime();
+        private boolean granted;
+        private boolean abandoned;
+
+        private Waiter(Priority priority, String flow, Condition condition) {
+            this.priority = priority;
+            this.flow = flow;
+            this.condition = condition;
+        }
+    }
+
+    /**
+     * 一个类别的等待队列：按流分组，流之间轮转，流内先到先得
+     */
+    private static final class ClassQueue {
+        private final int weight;
+        private final LinkedHashMap<String, ArrayDeque<Waiter>> flows = new LinkedHashMap<>();
+        private double lastFinish;
+        private int size;
+
+        private ClassQueue(int weight) {
+            this.weight = weight;
+        }
+
+        void add(Waiter waiter) {
+            flows.computeIfAbsent(waiter.flow, key -> new ArrayDeque<>()).add(waiter);
+            size++;
+        }
+
+        /**
+         * 取出队首流的第一个等待者，该流若还有等待者则移到末尾
+         */
+        Waiter poll() {
+            Iterator<Map.Entry<String, ArrayDeque<Waiter>>> iterator = flows.entrySet().iterator();
+            Map.Entry<String, ArrayDeque<Waiter>> first = iterator.next();
+            Waiter waiter = first.getValue().poll();
+            iterator.remove();
+            if (!first.getValue().isEmpty()) {
+                flows.put(first.getKey(), first.getValue());
+            }
+            size--;
+            return waiter;
+        }
+
+        boolean remove(Waiter waiter) {
+            ArrayDeque<Waiter> queue = flows.get(waiter.flow);
+            if (queue == null || !queue.remove(waiter)) {
+                return false;
+            }
+            if (queue.isEmpty()) {
+                flows.remove(waiter.flow);
+            }
+            size--;
+            return true;
+        }
+
+        /**
+         * 各流队首中等待最久的一个
+         */
+        Waiter oldest() {
+            Waiter oldest = null;
+            for (ArrayDeque<Waiter> queue : flows.values()) {
+                Waiter head = queue.peek();
+                if (head != null && (oldest == null || head.enqueueNanos < oldest.enqueueNanos)) {
+                    oldest = head;
+                }
+            }
+            return oldest;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.literature.assistant.concurrent;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * 组提交：把多个线程各自提交的写入合并成批处理，提交方阻塞到所在批次处理完毕并取得自己的结果
+ * <p>
+ * 后台循环取出第一个待处理项后，最多再等待 maxDelay 收集后续提交，凑满 maxBatch 即提前处理；
+ * 处理一批期间到达的提交组成下一批，负载越高批次越大。处理函数按输入顺序返回每项的结果；
+ * 整批失败时逐项重新处理，一项异常数据不会连累同批的其他提交。
+ */
+@Slf4j
+public class GroupCommitter<T, R> implements AutoCloseable {
+
+    private final String name;
+    private final int maxBatch;
+    private final long maxDelayNanos;
+    private final Function<List<T>, List<R>> handler;
+
+    private final LinkedBlockingQueue<Pending<T, R>> queue = new LinkedBlockingQueue<>();
+    private final CountDownLatch stoppedLatch = new CountDownLatch(1);
+    private volatile boolean closed;
+    private volatile boolean stopped;
+
+    public GroupCommitter(String name, int maxBatch, long maxDelayMillis, Function<List<T>, List<R>> handler) {
+        this.name = name;
+        this.maxBatch = Math.max(1, maxBatch);
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, maxDelayMillis));
+        this.handler = handler;
+    }
+
+    /**
+     * 在指定线程池中启动后台循环，循环占用一个线程直到关闭
+     */
+    public void start(Executor executor) {
+        executor.execute(this::loop);
+    }
+
+    /**
+     * 提交一项并等待所在批次处理完毕；已关闭时在当前线程单独处理
+     *
+     * @throws CancellationException 等待期间线程被中断，此时该项仍可能已被处理
+     */
+    public R submit(T item) {
+        Pending<T, R> pending = new Pending<>(item);
+        queue.add(pending);
+        if (stopped && queue.remove(pending)) {
+            process(List.of(pending));
+        }
+        try {
+            return pending.future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("等待写入时被中断");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    public int pendingCount() {
+        return queue.size();
+    }
+
+    /**
+     * 停止接收新批次，处理完已提交的项后返回
+     */
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            stoppedLatch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void loop() {
+        try {
+            while (!closed || !queue.isEmpty()) {
+                Pending<T, R> first = queue.poll(1, TimeUnit.SECONDS);
+                if (first != null) {
+                    process(collect(first));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            stopped = true;
+            // 停止前最后到达的提交
+            List<Pending<T, R>> rest = new ArrayList<>();
+            queue.drainTo(rest);
+            if (!rest.isEmpty()) {
+                process(rest);
+            }
+            stoppedLatch.countDown();
+        }
+    }
+
+    private List<Pending<T, R>> collect(Pending<T, R> first) throws InterruptedException {
+        List<Pending<T, R>> batch = new ArrayList<>(maxBatch);
+        batch.add(first);
+        long deadline = System.nanoTime() + maxDelayNanos;
+        while (batch.size() < maxBatch) {
+            queue.drainTo(batch, maxBatch - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= maxBatch || remaining <= 0 || closed) {
+                break;
+            }
+            Pending<T, R> next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+        return batch;
+    }
+
+    private void process(List<Pending<T, R>> batch) {
+        try {
+            List<R> results = handler.apply(batch.stream().map(pending -> pending.item).toList());
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).future.complete(results.get(i));
+            }
+        } catch (Exception e) {
+            if (batch.size() == 1) {
+                batch.get(0).future.completeExceptionally(e);
+                return;
+            }
+            log.warn("{} 批量写入失败，改为逐项写入: {}", name, e.getMessage());
+            batch.forEach(pending -> process(List.of(pending)));
+        }
+    }
+
+    private static final class Pending<T, R> {
+        private final T item;
+        private final CompletableFuture<R> future = new CompletableFuture<>();
+
+        private Pending(T item) {
+            this.item = item;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.literature.assistant.concurrent;
+
+import com.literature.assistant.dto.ExecutorStats;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 带统计的线程池，由 {@link ExecutorRegistry} 创建
+ * <p>
+ * CPU 线程池直接委托固定大小的平台线程池；I/O 线程池每个任务一个虚拟线程，开始执行前先获取信号量，
+ * 等待信号量的任务计为排队。
+ */
+@Slf4j
+public class InstrumentedExecutor extends AbstractExecutorService {
+
+    @Getter
+    private final String name;
+
+    @Getter
+    private final String kind;
+
+    private final ExecutorService delegate;
+
+    /**
+     * I/O 线程池的并发上限，CPU 线程池为空
+     */
+    private final Semaphore permits;
+
+    private final int maxConcurrency;
+
+    private final TaskMetrics metrics = new TaskMetrics();
+
+    InstrumentedExecutor(String name, String kind, ExecutorService delegate, Semaphore permits, int maxConcurrency) {
+        this.name = name;
+        this.kind = kind;
+        this.delegate = delegate;
+        this.permits = permits;
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        long submitNanos = System.nanoTime();
+        metrics.submitted();
+        try {
+            delegate.execute(() -> run(command, submitNanos));
+        } catch (RejectedExecutionException e) {
+            metrics.rejected();
+            throw e;
+        }
+    }
+
+    private void run(Runnable command, long submitNanos) {
+        if (permits != null) {
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                metrics.dropped();
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        long start = metrics.started(submitNanos);
+        boolean success = false;
+        try {
+            command.run();
+            success = true;
+        } finally {
+            metrics.finished(start, success);
+            if (permits != null) {
+                permits.release();
+            }
+        }
+    }
+
+    /**
+     * 停止接收新任务，等待在途任务完成，超时后中断剩余任务
+     *
+     * @return 是否在超时前全部完成
+     */
+    public boolean drain(long timeoutMillis) {
+        shutdown();
+        try {
+            if (awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<Runnable> pending = shutdownNow();
+        log.warn("线程池 {} 停止超时，中断执行中的任务，丢弃排队任务 {} 个", name, pending.size());
+        return false;
+    }
+
+    public ExecutorStats stats() {
+        return metrics.snapshot()
+                .name(name)
+                .kind(kind)
+                .maxConcurrency(maxConcurrency)
+                .build();
+    }
+
+    @Override
+    public void shutdown() {
+        delegate.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        return delegate.shutdownNow();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return delegate.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return delegate.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return delegate.awaitTermination(timeout, unit);
+    }
+}
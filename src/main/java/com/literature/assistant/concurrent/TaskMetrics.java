@@ -0,0 +1,82 @@
+package com.literature.assistant.concurrent;
+
+import com.literature.assistant.dto.ExecutorStats;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 一个线程池的任务计数与耗时统计
+ */
+class TaskMetrics {
+
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final LongAdder runNanos = new LongAdder();
+    private final AtomicLong maxRunNanos = new AtomicLong();
+
+    void submitted() {
+        queued.incrementAndGet();
+    }
+
+    void rejected() {
+        queued.decrementAndGet();
+        rejected.increment();
+    }
+
+    /**
+     * 排队中的任务未执行即被取消（停机中断）
+     */
+    void dropped() {
+        queued.decrementAndGet();
+    }
+
+    /**
+     * @return 开始执行的时间，传给 {@link #finished}
+     */
+    long started(long submitNanos) {
+        long now = System.nanoTime();
+        queued.decrementAndGet();
+        active.incrementAndGet();
+        waitNanos.add(now - submitNanos);
+        return now;
+    }
+
+    /**
+     * 定时任务没有排队阶段
+     */
+    long started() {
+        active.incrementAndGet();
+        return System.nanoTime();
+    }
+
+    void finished(long startNanos, boolean success) {
+        long elapsed = System.nanoTime() - startNanos;
+        active.decrementAndGet();
+        runNanos.add(elapsed);
+        maxRunNanos.accumulateAndGet(elapsed, Math::max);
+        if (success) {
+            completed.increment();
+        } else {
+            failed.increment();
+        }
+    }
+
+    ExecutorStats.ExecutorStatsBuilder snapshot() {
+        long done = completed.sum() + failed.sum();
+        return ExecutorStats.builder()
+                .queued(queued.get())
+                .active(active.get())
+                .completed(completed.sum())
+                .failed(failed.sum())
+                .rejected(rejected.sum())
+                .avgWaitMillis(done == 0 ? 0 : waitNanos.sum() / 1e6 / done)
+                .avgRunMillis(done == 0 ? 0 : runNanos.sum() / 1e6 / done)
+                .maxRunMillis(maxRunNanos.get() / 1e6);
+    }
+}
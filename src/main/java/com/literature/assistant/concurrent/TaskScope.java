@@ -0,0 +1,249 @@
+package com.literature.assistant.concurrent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * 一组并行子任务的结构化作用域，任一子任务失败即取消其余子任务
+ * <p>
+ * 语义同 JDK 的 {@code StructuredTaskScope.ShutdownOnFailure}（Java 21 中仍为预览特性）：
+ * 子任务在指定线程池中执行并绑定作用域的取消令牌；作用域被关闭、首个子任务失败或创建作用域的线程所绑定的令牌被取消时，
+ * 取消令牌（触发子任务中注册的回调，如中止 HTTP 请求）并中断执行中的子任务。
+ * 用法：fork 子任务 → join → 读取结果，在 try-with-resources 中使用，关闭时等待所有子任务结束。
+ */
+public class TaskScope implements AutoCloseable {
+
+    private final ExecutorService executor;
+    private final CancellationToken token = new CancellationToken();
+    private final CancellationToken.Registration parentRegistration;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private final List<Subtask<?>> subtasks = new ArrayList<>();
+    private int running;
+    private Throwable failure;
+    private boolean shutdown;
+    private boolean closed;
+
+    public TaskScope(ExecutorService executor) {
+        this.executor = executor;
+        this.parentRegistration = CancellationToken.current().onCancel(this::shutdown);
+    }
+
+    /**
+     * 提交子任务；作用域已取消时子任务不再执行
+     */
+    public <T> Subtask<T> fork(Callable<? extends T> task) {
+        Subtask<T> subtask = new Subtask<>(task);
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("任务作用域已关闭");
+            }
+            if (shutdown) {
+                subtask.state.set(Subtask.CANCELLED);
+                return subtask;
+            }
+            subtasks.add(subtask);
+            running++;
+        } finally {
+            lock.unlock();
+        }
+        try {
+            executor.execute(subtask::run);
+        } catch (RejectedExecutionException e) {
+            if (subtask.state.compareAndSet(Subtask.UNSTARTED, Subtask.RUNNING)) {
+                subtask.complete(null, e);
+            }
+        }
+        return subtask;
+    }
+
+    /**
+     * 等待所有子任务完成，或首个子任务失败，或作用域被取消
+     *
+     * @throws ExecutionException    有子任务失败，cause 为首个失败的异常
+     * @throws CancellationException 作用域被取消
+     */
+    public void join() throws InterruptedException, ExecutionException {
+        lock.lock();
+        try {
+            while (running > 0 && !shutdown) {
+                changed.await();
+            }
+        } catch (InterruptedException e) {
+            lock.unlock();
+            shutdown();
+            throw e;
+        }
+        try {
+            if (failure != null) {
+                throw new ExecutionException(failure);
+            }
+            if (shutdown) {
+                throw new CancellationException("任务已取消");
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 取消作用域：触发令牌上的回调，尚未开始的子任务不再执行，执行中的子任务被中断
+     */
+    public void shutdown() {
+        List<Subtask<?>> active;
+        lock.lock();
+        try {
+            if (shutdown) {
+                return;
+            }
+            shutdown = true;
+            active = new ArrayList<>(subtasks);
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        token.cancel();
+        active.forEach(Subtask::cancel);
+    }
+
+    public boolean isShutdown() {
+        lock.lock();
+        try {
+            return shutdown;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 取消仍未结束的子任务并等待其结束；线程池已终止时不再等待
+     */
+    @Override
+    public void close() {
+        parentRegistration.close();
+        boolean unfinished;
+        lock.lock();
+        try {
+            closed = true;
+            unfinished = running > 0;
+        } finally {
+            lock.unlock();
+        }
+        if (!unfinished) {
+            return;
+        }
+        shutdown();
+        boolean interrupted = false;
+        lock.lock();
+        try {
+            while (running > 0 && !executor.isTerminated()) {
+                try {
+                    changed.await(1, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 子任务结束；作用域未取消时首个失败会取消整个作用域
+     */
+    private void finished(Throwable error) {
+        boolean fail = false;
+        lock.lock();
+        try {
+            running--;
+            if (error != null && failure == null && !shutdown) {
+                failure = error;
+                fail = true;
+            }
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        if (fail) {
+            shutdown();
+        }
+    }
+
+    /**
+     * 子任务的句柄，{@link #join()} 成功返回后通过 {@link #get()} 读取结果
+     */
+    public final class Subtask<T> implements Supplier<T> {
+
+        private static final int UNSTARTED = 0;
+        private static final int RUNNING = 1;
+        private static final int SUCCEEDED = 2;
+        private static final int FAILED = 3;
+        private static final int CANCELLED = 4;
+
+        private final Callable<? extends T> task;
+        private final AtomicInteger state = new AtomicInteger(UNSTARTED);
+        private volatile Thread thread;
+        private volatile T result;
+
+        private Subtask(Callable<? extends T> task) {
+            this.task = task;
+        }
+
+        @Override
+        public T get() {
+            if (state.get() != SUCCEEDED) {
+                throw new IllegalStateException("子任务未成功完成");
+            }
+            return result;
+        }
+
+        private void run() {
+            if (!state.compareAndSet(UNSTARTED, RUNNING)) {
+                return;
+            }
+            thread = Thread.currentThread();
+            T value = null;
+            Throwable error = null;
+            try (CancellationToken.Registration ignored = token.bind()) {
+                value = task.call();
+            } catch (Throwable e) {
+                error = e;
+            } finally {
+                thread = null;
+            }
+            complete(value, error);
+        }
+
+        private void complete(T value, Throwable error) {
+            result = value;
+            state.set(error == null ? SUCCEEDED : FAILED);
+            finished(error);
+        }
+
+        private void cancel() {
+            if (state.compareAndSet(UNSTARTED, CANCELLED)) {
+                finished(null);
+                return;
+            }
+            Thread current = thread;
+            if (current != null) {
+                current.interrupt();
+            }
+        }
+    }
+}
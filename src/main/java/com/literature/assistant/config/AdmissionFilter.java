@@ -0,0 +1,97 @@
+package com.literature.assistant.config;
+
+import cn.hutool.crypto.digest.DigestUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.literature.assistant.common.Result;
+import com.literature.assistant.dto.AdmissionDecision;
+import com.literature.assistant.service.AdmissionService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 上传与导入入口的准入检查
+ * <p>
+ * 以 Servlet 过滤器实现，在 DispatcherServlet 解析 multipart 之前执行，被拒绝的请求不会读取和缓存请求体。
+ * 拒绝时返回 429（客户端超过限流）或 503（处理队列积压），并在 Retry-After 中给出建议的重试等待秒数。
+ * 客户端按 X-API-Key 请求头识别，只认可配置中列出的 Key，其余按客户端 IP 识别，随意填写的 Key 不能绕过限流。
+ */
+@Component
+@RequiredArgsConstructor
+public class AdmissionFilter extends OncePerRequestFilter {
+
+    private static final String API_KEY_HEADER = "X-API-Key";
+
+    /**
+     * 请求方法与路径（不含 context-path） -> 准入类别
+     */
+    private static final Map<String, String> OPERATIONS = Map.of(
+            "POST /literature/upload", AdmissionService.UPLOAD,
+            "POST /literature/uploads", AdmissionService.UPLOAD,
+            "POST /literature/batch-import/start", AdmissionService.IMPORT,
+            "POST /literature/archive-import/start", AdmissionService.IMPORT);
+
+    private final AdmissionService admissionService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${admission.enabled:true}")
+    private boolean enabled;
+
+    @Value("${admission.api-keys:}")
+    private List<String> apiKeys;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || operation(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        AdmissionDecision decision = admissionService.admit(operation(request), client(request));
+        if (decision.isAllowed()) {
+            chain.doFilter(request, response);
+            return;
+        }
+        response.setStatus(decision.getReason().getCode());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(decision.getRetryAfterSeconds()));
+        // 请求体未读取，关闭连接避免服务端继续接收被拒绝的上传内容
+        response.setHeader(HttpHeaders.CONNECTION, "close");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        objectMapper.writeValue(response.getOutputStream(),
+                Result.error(decision.getReason().getCode(), decision.getMessage()));
+    }
+
+    private static String operation(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (path.length() > 1 && path.endsWith("/")) {
+            path = path.substring(0, path.length() - 1);
+        }
+        return OPERATIONS.get(request.getMethod() + " " + path);
+    }
+
+    /**
+     * 经反向代理访问时需配置 server.forward-headers-strategy，getRemoteAddr 才是真实客户端地址
+     */
+    private String client(HttpServletRequest request) {
+        String apiKey = request.getHeader(API_KEY_HEADER);
+        if (apiKey != null && apiKeys.contains(apiKey)) {
+            // 日志与 Redis 键中不出现 Key 原文
+            return "key:" + DigestUtil.sha256Hex(apiKey).substring(0, 16);
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+}
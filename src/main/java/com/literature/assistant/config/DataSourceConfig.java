@@ -0,0 +1,78 @@
+package com.literature.assistant.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.Data;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 数据源配置：spring.datasource 为主库，datasource.replicas 为从库列表，各自使用独立的 Hikari 连接池，
+ * 连接池参数共用 spring.datasource.hikari；未配置从库时所有查询走主库
+ */
+@Configuration
+public class DataSourceConfig {
+
+    @Value("${datasource.replica.max-lag:5}")
+    private long maxLagSeconds;
+
+    @Bean(destroyMethod = "close")
+    public ReadWriteRoutingDataSource routingDataSource(DataSourceProperties properties, Environment environment) {
+        Binder binder = Binder.get(environment);
+        HikariDataSource primary = createPool(binder, "primary", properties.determineDriverClassName(),
+                properties.determineUrl(), properties.determineUsername(), properties.determinePassword());
+
+        List<ReplicaProperties> configured = binder.bind("datasource.replicas", Bindable.listOf(ReplicaProperties.class))
+                .orElse(List.of());
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < configured.size(); i++) {
+            ReplicaProperties replica = configured.get(i);
+            replicas.add(createPool(binder, "replica-" + (i + 1), properties.determineDriverClassName(),
+                    replica.getUrl(),
+                    replica.getUsername() != null ? replica.getUsername() : properties.determineUsername(),
+                    replica.getPassword() != null ? replica.getPassword() : properties.determinePassword()));
+        }
+        return new ReadWriteRoutingDataSource(primary, replicas, maxLagSeconds);
+    }
+
+    /**
+     * 连接在第一条语句时才获取，路由时已能判断事务是否只读
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    private static HikariDataSource createPool(Binder binder, String name, String driverClassName,
+                                               String url, String username, String password) {
+        HikariDataSource dataSource = new HikariDataSource();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(dataSource));
+        dataSource.setPoolName(name);
+        dataSource.setDriverClassName(driverClassName);
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(username);
+        dataSource.setPassword(password);
+        return dataSource;
+    }
+
+    /**
+     * 从库连接信息，用户名与密码未填时与主库相同
+     */
+    @Data
+    public static class ReplicaProperties {
+        private String url;
+        private String username;
+        private String password;
+    }
+}
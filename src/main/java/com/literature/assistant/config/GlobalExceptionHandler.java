@@ -16,6 +16,7 @@ import org.springframework.web.multipart.MaxUploadSizeExceededException;
 import jakarta.validation.ConstraintViolationException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CancellationException;
 
 @Slf4j
 @RestControllerAdvice
@@ -62,6 +63,12 @@ public class GlobalExceptionHandler {
         return Result.error(ResultCode.BAD_REQUEST.getCode(), e.getMessage());
     }
 
+    @ExceptionHandler(CancellationException.class)
+    public Result<?> handleCancellationException(CancellationException e) {
+        log.info("请求处理已取消: {}", e.getMessage());
+        return Result.error(ResultCode.TASK_CANCELLED);
+    }
+
     @ExceptionHandler(Exception.class)
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public Result<?> handleException(Exception e) {
@@ -0,0 +1,141 @@
+package com.literature.assistant.config;
+
+import com.literature.assistant.dto.ReplicaStatus;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 读写分离数据源：只读事务中的查询轮流发往健康的从库，其余发往主库
+ * <p>
+ * 须包在 {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy} 中使用，
+ * 连接在事务的第一条语句时才获取，此时已能判断事务是否只读；不在事务中的查询一律走主库。
+ * 定时检查各从库的复制延迟，延迟超过上限、复制中断或无法连接的从库移出轮询，恢复后自动加回；没有可用从库时读主库。
+ * 从库在首次检查通过前不参与轮询，应用就绪时先检查一次。
+ * 当前线程被 {@link #pinPrimary()} 固定到主库时（如用户刚写入数据），只读事务也读主库。
+ */
+@Slf4j
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private static final String PRIMARY = "primary";
+
+    private static final ThreadLocal<Boolean> PINNED = new ThreadLocal<>();
+
+    private final HikariDataSource primary;
+    private final List<Replica> replicas;
+    private final long maxLagSeconds;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReadWriteRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicas, long maxLagSeconds) {
+        this.primary = primary;
+        this.replicas = replicas.stream().map(Replica::new).toList();
+        this.maxLagSeconds = maxLagSeconds;
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        this.replicas.forEach(replica -> targets.put(replica.name, replica.dataSource));
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    /**
+     * 当前线程之后的只读事务也读主库，直到 {@link #unpin()}
+     */
+    public static void pinPrimary() {
+        PINNED.set(Boolean.TRUE);
+    }
+
+    public static void unpin() {
+        PINNED.remove();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (PINNED.get() != null || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+        List<Replica> healthy = replicas.stream().filter(replica -> replica.healthy).toList();
+        if (healthy.isEmpty()) {
+            return PRIMARY;
+        }
+        return healthy.get(Math.floorMod(next.getAndIncrement(), healthy.size())).name;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        checkReplicas();
+    }
+
+    /**
+     * 检查各从库的复制延迟；未配置复制的实例（如只读代理）视为无延迟
+     */
+    @Scheduled(fixedDelayString = "${datasource.replica.check-interval:5000}")
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            boolean healthy;
+            try {
+                List<Long> lags = new JdbcTemplate(replica.dataSource).query("SHOW REPLICA STATUS",
+                        (rs, rowNum) -> {
+                            long lag = rs.getLong("Seconds_Behind_Source");
+                            return rs.wasNull() ? null : lag;
+                        });
+                replica.lagSeconds = lags.isEmpty() ? Long.valueOf(0) : lags.get(0);
+                replica.lastError = replica.lagSeconds == null ? "复制已中断" : null;
+                healthy = replica.lagSeconds != null && replica.lagSeconds <= maxLagSeconds;
+            } catch (Exception e) {
+                replica.lagSeconds = null;
+                replica.lastError = e.getMessage();
+                healthy = false;
+            }
+            if (healthy != replica.healthy) {
+                if (healthy) {
+                    log.info("从库恢复，加入读轮询: {}", replica.name);
+                } else {
+                    log.warn("从库移出读轮询: {}，延迟 {} 秒 {}", replica.name, replica.lagSeconds,
+                            replica.lastError == null ? "" : replica.lastError);
+                }
+                replica.healthy = healthy;
+            }
+        }
+    }
+
+    public boolean hasReplicas() {
+        return !replicas.isEmpty();
+    }
+
+    public List<ReplicaStatus> status() {
+        return replicas.stream()
+                .map(replica -> new ReplicaStatus(replica.name, replica.healthy, replica.lagSeconds, replica.lastError,
+                        replica.dataSource.getHikariPoolMXBean() == null ? 0
+                                : replica.dataSource.getHikariPoolMXBean().getActiveConnections()))
+                .toList();
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(replica -> replica.dataSource.close());
+        primary.close();
+    }
+
+    private static final class Replica {
+        private final String name;
+        private final HikariDataSource dataSource;
+        private volatile boolean healthy;
+        private volatile Long lagSeconds;
+        private volatile String lastError;
+
+        private Replica(HikariDataSource dataSource) {
+            this.name = dataSource.getPoolName();
+            this.dataSource = dataSource;
+        }
+    }
+}
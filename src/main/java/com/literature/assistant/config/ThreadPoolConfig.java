@@ -1,21 +1,22 @@
 package com.literature.assistant.config;
 
-import org.springframework.context.annotation.Bean;
+import com.literature.assistant.concurrent.ExecutorRegistry;
+import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
 
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-
+/**
+ * 定时任务使用 {@link ExecutorRegistry} 的调度线程池，其他线程池也统一由其创建
+ */
 @Configuration
-public class ThreadPoolConfig {
+@RequiredArgsConstructor
+public class ThreadPoolConfig implements SchedulingConfigurer {
 
-    @Bean
-    public ExecutorService virtualThreadExecutor() {
-        return Executors.newVirtualThreadPerTaskExecutor();
-    }
+    private final ExecutorRegistry executorRegistry;
 
-    @Bean
-    public ExecutorService fixedThreadPool() {
-        return Executors.newFixedThreadPool(16);
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar registrar) {
+        registrar.setTaskScheduler(executorRegistry.scheduler());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,68 @@
+package com.literature.assistant.controller;
+
+import com.literature.assistant.common.Result;
+import com.literature.assistant.dto.BackfillRequest;
+import com.literature.assistant.entity.BackfillJob;
+import com.literature.assistant.service.BackfillService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/backfill")
+@RequiredArgsConstructor
+@Tag(name = "批量重处理", description = "提示词或模型变更后重新生成阅读指南与分类")
+public class BackfillController {
+
+    private final BackfillService backfillService;
+
+    @PostMapping
+    @Operation(summary = "创建重处理任务", description = "按ID顺序限速处理满足筛选条件的文献，中断后从检查点继续")
+    public Result<BackfillJob> create(@RequestBody BackfillRequest request) {
+        return Result.success(backfillService.create(request));
+    }
+
+    @GetMapping
+    @Operation(summary = "最近的重处理任务")
+    public Result<List<BackfillJob>> list(
+            @Parameter(description = "返回数量") @RequestParam(defaultValue = "20") Integer limit) {
+        return Result.success(backfillService.listRecent(limit));
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "重处理任务进度", description = "已处理数、失败数与检查点")
+    public Result<BackfillJob> get(@PathVariable String id) {
+        return Result.success(backfillService.get(id));
+    }
+
+    @PostMapping("/{id}/pause")
+    @Operation(summary = "暂停重处理任务", description = "正在处理的文献完成后停止")
+    public Result<Void> pause(@PathVariable String id) {
+        backfillService.pause(id);
+        return Result.success();
+    }
+
+    @PostMapping("/{id}/resume")
+    @Operation(summary = "继续重处理任务", description = "从检查点继续")
+    public Result<Void> resume(@PathVariable String id) {
+        backfillService.resume(id);
+        return Result.success();
+    }
+
+    @PostMapping("/{id}/cancel")
+    @Operation(summary = "取消重处理任务", description = "中止正在处理的文献，已写入的结果保留")
+    public Result<Void> cancel(@PathVariable String id) {
+        backfillService.cancel(id);
+        return Result.success();
+    }
+}
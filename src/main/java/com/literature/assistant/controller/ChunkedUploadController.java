@@ -0,0 +1,69 @@
+package com.literature.assistant.controller;
+
+import com.literature.assistant.common.Result;
+import com.literature.assistant.dto.UploadStatus;
+import com.literature.assistant.entity.Literature;
+import com.literature.assistant.exception.BusinessException;
+import com.literature.assistant.service.ChunkedUploadService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+
+@Slf4j
+@RestController
+@RequestMapping("/literature/uploads")
+@RequiredArgsConstructor
+@Tag(name = "分片上传", description = "大文件断点续传：创建会话、并行上传分片、完成后生成文献")
+public class ChunkedUploadController {
+
+    private final ChunkedUploadService chunkedUploadService;
+
+    @PostMapping
+    @Operation(summary = "创建上传会话", description = "返回会话ID与服务端分片大小")
+    public Result<UploadStatus> createSession(
+            @Parameter(description = "文件名") @RequestParam String fileName,
+            @Parameter(description = "文件字节数") @RequestParam Long size,
+            @Parameter(description = "整个文件的SHA-256，可选") @RequestParam(required = false) String sha256) {
+        return Result.success(chunkedUploadService.createSession(fileName, size, sha256));
+    }
+
+    @GetMapping("/{uploadId}")
+    @Operation(summary = "查询上传进度", description = "断线重连后据此补传缺失的分片")
+    public Result<UploadStatus> getStatus(@PathVariable String uploadId) {
+        return Result.success(chunkedUploadService.getStatus(uploadId));
+    }
+
+    @PutMapping("/{uploadId}/chunks/{index}")
+    @Operation(summary = "上传分片", description = "请求体为分片原始字节；分片可并行、乱序上传，已接收的分片重复上传时忽略")
+    public Result<UploadStatus> writeChunk(
+            @PathVariable String uploadId,
+            @PathVariable Integer index,
+            @Parameter(description = "分片的SHA-256，可选") @RequestHeader(value = "X-Chunk-Sha256", required = false) String chunkSha256,
+            HttpServletRequest request) {
+        try {
+            return Result.success(chunkedUploadService.writeChunk(uploadId, index, request.getInputStream(), chunkSha256));
+        } catch (IOException e) {
+            log.warn("读取分片失败: {} #{}", uploadId, index);
+            throw new BusinessException("读取分片失败");
+        }
+    }
+
+    @PostMapping("/{uploadId}/complete")
+    @Operation(summary = "完成上传", description = "校验文件完整性后生成文献与阅读指南")
+    public Result<Literature> complete(@PathVariable String uploadId) {
+        return Result.success("文献上传成功", chunkedUploadService.complete(uploadId));
+    }
+
+    @DeleteMapping("/{uploadId}")
+    @Operation(summary = "取消上传", description = "删除会话及已上传的分片")
+    public Result<Void> cancel(@PathVariable String uploadId) {
+        chunkedUploadService.cancel(uploadId);
+        return Result.success();
+    }
+}
@@ -3,28 +3,58 @@ package com.literature.assistant.controller;
 import cn.hutool.core.util.StrUtil;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.literature.assistant.common.Result;
+import com.literature.assistant.common.ResultCode;
+import com.literature.assistant.dto.ExportRequest;
+import com.literature.assistant.dto.FacetCounts;
+import com.literature.assistant.dto.SemanticHit;
+import com.literature.assistant.dto.Suggestion;
 import com.literature.assistant.entity.Literature;
+import com.literature.assistant.exception.BusinessException;
+import com.literature.assistant.metrics.LiteratureMetrics;
 import com.literature.assistant.service.LiteratureService;
 import com.literature.assistant.service.SSEHandler;
 import com.literature.assistant.service.BatchImportService;
+import com.literature.assistant.service.ExportService;
+import com.literature.assistant.service.FacetService;
+import com.literature.assistant.service.PreviewService;
+import com.literature.assistant.service.SemanticSearchService;
+import com.literature.assistant.service.SuggestService;
+import com.literature.assistant.service.VersionService;
+import com.literature.assistant.storage.StorageBackend;
+import com.literature.assistant.util.CompressUtil;
+import com.literature.assistant.util.DownloadUtil;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import cn.hutool.json.JSONUtil;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @RestController
@@ -33,20 +63,32 @@ import java.util.concurrent.Executors;
 @Tag(name = "文献管理", description = "文献上传、查询、下载等接口")
 public class LiteratureController {
 
+    private static final DateTimeFormatter EXPORT_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+
+    private static final MediaType MARKDOWN = new MediaType("text", "markdown", StandardCharsets.UTF_8);
+
     private final LiteratureService literatureService;
     private final BatchImportService batchImportService;
-    private final ExecutorService sseExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final FacetService facetService;
+    private final SemanticSearchService semanticSearchService;
+    private final SuggestService suggestService;
+    private final StorageBackend storageBackend;
+    private final ExportService exportService;
+    private final PreviewService previewService;
+    private final VersionService versionService;
+    private final LiteratureMetrics metrics;
 
     @PostMapping("/upload")
     @Operation(summary = "上传文献文件", description = "上传单个文献文件并生成阅读指南")
     public Result<Literature> uploadLiterature(
-            @Parameter(description = "文献文件") @RequestParam("file") MultipartFile file) {
+            @Parameter(description = "文献文件") @RequestParam("file") MultipartFile file,
+            @Parameter(description = "客户端生成的请求ID，用于取消处理") @RequestParam(required = false) String requestId) {
         if (file.isEmpty()) {
             return Result.error("文件不能为空");
         }
 
         try {
-            Literature literature = literatureService.uploadLiterature(file);
+            Literature literature = literatureService.uploadLiterature(file, requestId);
             return Result.success("文献上传成功", literature);
         } catch (Exception e) {
             log.error("文献上传失败", e);
@@ -54,8 +96,15 @@ public class LiteratureController {
         }
     }
 
+    @PostMapping("/upload/{requestId}/cancel")
+    @Operation(summary = "取消上传", description = "中止正在解析或生成阅读指南的单文件上传，不保存文献")
+    public Result<Void> cancelUpload(@PathVariable String requestId) {
+        literatureService.cancelUpload(requestId);
+        return Result.success();
+    }
+
     @PostMapping("/batch-import/start")
-    @Operation(summary = "创建批量导入任务", description = "创建批量导入任务，返回任务ID")
+    @Operation(summary = "创建批量导入任务", description = "保存文件并在后台开始导入，返回任务ID；进度通过SSE查看")
     public java.util.Map<String, String> startBatchImport(
             @Parameter(description = "文献文件数组") @RequestParam("files") MultipartFile[] files) {
         String importId = batchImportService.startImport(files);
@@ -63,9 +112,43 @@ public class LiteratureController {
     }
 
     @GetMapping(value = "/batch-import/progress/{id}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
-    @Operation(summary = "批量导入进度SSE", description = "根据任务ID连接SSE获取批量导入进度")
-    public SseEmitter batchImportProgress(@PathVariable("id") String importId) {
-        return batchImportService.connectProgress(importId);
+    @Operation(summary = "批量导入进度SSE", description = "根据任务ID连接SSE获取导入进度；先补发错过的事件再推送新事件，断开不影响导入")
+    public SseEmitter batchImportProgress(
+            @PathVariable("id") String importId,
+            @Parameter(description = "浏览器自动重连时携带的最后事件序号") @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventIdHeader,
+            @Parameter(description = "最后收到的事件序号，重新打开页面时使用") @RequestParam(required = false) Long lastEventId) {
+        return batchImportService.connectProgress(importId, lastEventIdHeader != null ? lastEventIdHeader : lastEventId);
+    }
+
+    @PostMapping("/batch-import/{id}/cancel")
+    @Operation(summary = "取消导入任务", description = "未处理的文件不再导入，正在处理的文件立即中止，已导入的文献保留")
+    public Result<Void> cancelBatchImport(@PathVariable("id") String importId) {
+        batchImportService.cancel(importId);
+        return Result.success();
+    }
+
+    @PostMapping("/archive-import/start")
+    @Operation(summary = "创建压缩包导入任务", description = "创建压缩包导入任务，返回任务ID；随后连接进度SSE并上传压缩包")
+    public java.util.Map<String, String> startArchiveImport() {
+        String importId = batchImportService.startArchiveImport();
+        return java.util.Collections.singletonMap("importId", importId);
+    }
+
+    @PutMapping("/archive-import/{id}")
+    @Operation(summary = "上传压缩包", description = "请求体为 ZIP 或 tar(.gz) 压缩包，服务端边读取边导入，全部处理完成后返回")
+    public Result<java.util.Map<String, Integer>> uploadArchive(@PathVariable("id") String importId,
+                                                                HttpServletRequest request) {
+        try {
+            int queued = batchImportService.importArchive(importId, request.getInputStream());
+            return Result.success(java.util.Collections.singletonMap("queued", queued));
+        } catch (BusinessException e) {
+            return Result.error(e.getMessage());
+        } catch (CancellationException e) {
+            return Result.error(ResultCode.TASK_CANCELLED);
+        } catch (Exception e) {
+            log.error("压缩包导入失败", e);
+            return Result.error("压缩包导入失败: " + e.getMessage());
+        }
     }
 
     @GetMapping("/list")
@@ -76,8 +159,12 @@ public class LiteratureController {
             @Parameter(description = "分类") @RequestParam(required = false) String category,
             @Parameter(description = "描述关键词") @RequestParam(required = false) String description,
             @Parameter(description = "指南关键词") @RequestParam(required = false) String readingGuide,
-            @Parameter(description = "标签") @RequestParam(required = false) String tags) {
-
+            @Parameter(description = "标签") @RequestParam(required = false) String tags,
+            ServletWebRequest webRequest) {
+        // 集合未变化时直接返回 304，不查询数据库
+        if (checkNotModified(webRequest, versionService.collectionTag())) {
+            return null;
+        }
         try {
             IPage<Literature> result = literatureService.getLiteraturePage(page, size, category, description, readingGuide, tags);
             return Result.success(result);
@@ -87,11 +174,74 @@ public class LiteratureController {
         }
     }
 
+    @GetMapping("/facets")
+    @Operation(summary = "分面统计", description = "获取分类、标签、出版年份的文献数量，支持与列表相同的筛选条件")
+    public Result<FacetCounts> getFacets(
+            @Parameter(description = "分类") @RequestParam(required = false) String category,
+            @Parameter(description = "描述关键词") @RequestParam(required = false) String description,
+            @Parameter(description = "指南关键词") @RequestParam(required = false) String readingGuide,
+            @Parameter(description = "标签") @RequestParam(required = false) String tags) {
+
+        try {
+            return Result.success(facetService.getFacetCounts(category, description, readingGuide, tags));
+        } catch (Exception e) {
+            log.error("查询分面统计失败", e);
+            return Result.error("查询失败: " + e.getMessage());
+        }
+    }
+
+    @GetMapping("/suggest")
+    @Operation(summary = "输入联想", description = "根据输入前缀联想标题、标签、分类和作者，支持拼音首字母")
+    public Result<List<Suggestion>> suggest(
+            @Parameter(description = "输入前缀") @RequestParam("q") String query,
+            @Parameter(description = "返回数量") @RequestParam(defaultValue = "10") Integer limit) {
+        return Result.success(suggestService.suggest(query, Math.min(limit, 50)));
+    }
+
+    @GetMapping("/semantic-search")
+    @Operation(summary = "语义检索", description = "根据自然语言描述检索语义相近的文献，可按分类、标签过滤")
+    public Result<List<SemanticHit>> semanticSearch(
+            @Parameter(description = "检索内容") @RequestParam("q") String query,
+            @Parameter(description = "返回数量") @RequestParam(defaultValue = "10") Integer k,
+            @Parameter(description = "分类") @RequestParam(required = false) String category,
+            @Parameter(description = "标签，多个用逗号分隔") @RequestParam(required = false) String tags) {
+
+        try {
+            return Result.success(semanticSearchService.search(query, Math.min(k, 100), category, tags));
+        } catch (Exception e) {
+            log.error("语义检索失败", e);
+            return Result.error("检索失败: " + e.getMessage());
+        }
+    }
+
+    @GetMapping("/{id}/similar")
+    @Operation(summary = "相似文献", description = "查找与指定文献内容相近的文献")
+    public Result<List<SemanticHit>> similarLiterature(
+            @PathVariable Long id,
+            @Parameter(description = "返回数量") @RequestParam(defaultValue = "10") Integer k,
+            @Parameter(description = "分类") @RequestParam(required = false) String category,
+            @Parameter(description = "标签，多个用逗号分隔") @RequestParam(required = false) String tags) {
+
+        try {
+            return Result.success(semanticSearchService.findSimilar(id, Math.min(k, 100), category, tags));
+        } catch (Exception e) {
+            log.error("查找相似文献失败", e);
+            return Result.error("查询失败: " + e.getMessage());
+        }
+    }
+
     @GetMapping("/{id}")
-    @Operation(summary = "获取文献详情", description = "根据ID获取文献详细信息")
-    public Result<Literature> getLiteratureDetail(@PathVariable Long id) {
+    @Operation(summary = "获取文献详情", description = "根据ID获取文献详细信息，支持 If-None-Match 条件请求")
+    public Result<Literature> getLiteratureDetail(
+            @PathVariable Long id,
+            @Parameter(description = "是否包含阅读指南正文，不包含时返回指南原文长度 guideLength") @RequestParam(defaultValue = "true") boolean includeGuide,
+            ServletWebRequest webRequest) {
+        // 304 只是缓存重新验证，不计为访问
+        if (checkNotModified(webRequest, versionService.literatureTag(id))) {
+            return null;
+        }
         try {
-            Literature literature = literatureService.getLiteratureDetail(id);
+            Literature literature = literatureService.getLiteratureDetail(id, includeGuide);
             if (literature == null) {
                 return Result.error("文献不存在");
             }
@@ -102,27 +252,256 @@ public class LiteratureController {
         }
     }
 
-    @GetMapping("/download/{id}")
-    @Operation(summary = "下载文献文件", description = "根据ID下载文献原始文件")
-    public ResponseEntity<byte[]> downloadLiterature(@PathVariable Long id) {
+    @GetMapping("/{id}/guide")
+    @Operation(summary = "获取阅读指南", description = "返回Markdown格式的阅读指南；客户端接受deflate编码时直接返回压缩存储的内容，不经解压")
+    public ResponseEntity<byte[]> getReadingGuide(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            ServletWebRequest webRequest) {
+        String etag = versionService.literatureTag(id);
+        if (checkNotModified(webRequest, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).varyBy(HttpHeaders.ACCEPT_ENCODING).build();
+        }
+        byte[] stored = literatureService.getCompressedGuide(id);
+        if (stored == null || stored.length == 0) {
+            return ResponseEntity.notFound().build();
+        }
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(MARKDOWN)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .cacheControl(CacheControl.noCache());
+        if (CompressUtil.isCompressed(stored) && acceptsDeflate(acceptEncoding)) {
+            return builder.header(HttpHeaders.CONTENT_ENCODING, "deflate").body(CompressUtil.deflateStream(stored));
+        }
+        return builder.body(CompressUtil.decompress(stored).getBytes(StandardCharsets.UTF_8));
+    }
+
+    @DeleteMapping("/{id}")
+    @Operation(summary = "删除文献", description = "根据ID逻辑删除文献")
+    public Result<Void> deleteLiterature(@PathVariable Long id) {
         try {
-            Literature literature = literatureService.getLiteratureDetail(id);
-            if (literature == null) {
-                return ResponseEntity.notFound().build();
+            literatureService.deleteLiterature(id);
+            return Result.success("文献删除成功", null);
+        } catch (Exception e) {
+            log.error("删除文献失败", e);
+            return Result.error("删除失败: " + e.getMessage());
+        }
+    }
+
+    @RequestMapping(value = "/download/{id}", method = {RequestMethod.GET, RequestMethod.HEAD})
+    @Operation(summary = "下载文献文件", description = "根据ID下载文献原始文件，支持断点续传与条件请求")
+    public void downloadLiterature(@PathVariable Long id, HttpServletRequest request, HttpServletResponse response) {
+        try {
+            Literature literature = literatureService.prepareDownload(id);
+            sendFile(literature, request, response);
+        } catch (NoSuchFileException e) {
+            log.error("文献文件不存在: {}", e.getMessage());
+            sendError(response, HttpServletResponse.SC_NOT_FOUND);
+        } catch (BusinessException e) {
+            log.warn("下载文献失败: {}", e.getMessage());
+            sendError(response, HttpServletResponse.SC_NOT_FOUND);
+        } catch (Exception e) {
+            log.error("下载文献失败", e);
+            sendError(response, HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * 发送文献文件并记录下载字节数与耗时；304、HEAD 等未发送内容的请求不计入
+     */
+    private void sendFile(Literature literature, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        long start = System.nanoTime();
+        try {
+            long bytes = DownloadUtil.sendFile(request, response, storageBackend, literature.getFilePath(),
+                    literature.getContentHash(), getContentType(literature.getFileType()),
+                    literature.getOriginalFileName());
+            if (bytes > 0) {
+                metrics.recordTransfer(LiteratureMetrics.DIRECTION_DOWNLOAD, literature.getFileType(),
+                        LiteratureMetrics.OUTCOME_SUCCESS, bytes, System.nanoTime() - start);
+            }
+        } catch (IOException | RuntimeException e) {
+            metrics.recordTransfer(LiteratureMetrics.DIRECTION_DOWNLOAD, literature.getFileType(),
+                    LiteratureMetrics.outcome(e), 0, System.nanoTime() - start);
+            throw e;
+        }
+    }
+
+    @GetMapping("/{id}/preview")
+    @Operation(summary = "页面预览图", description = "将PDF指定页渲染为图片，首次请求时生成并缓存；内容不变时地址不变，可长期缓存")
+    public ResponseEntity<Resource> previewLiterature(
+            @PathVariable Long id,
+            @Parameter(description = "页码，从1开始") @RequestParam(defaultValue = "1") Integer page,
+            @Parameter(description = "尺寸：small、medium、large") @RequestParam(defaultValue = "small") String size,
+            @Parameter(description = "格式：jpeg、png") @RequestParam(defaultValue = "jpeg") String format,
+            WebRequest webRequest) {
+        try {
+            Literature literature = literatureService.prepareDownload(id);
+            String key = previewService.previewKey(literature, page, size, format);
+            String etag = "\"" + key + "\"";
+            CacheControl cacheControl = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable();
+            // 先比对 ETag，浏览器已有缓存时无需渲染
+            if (webRequest.checkNotModified(etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build();
             }
 
-            byte[] fileContent = literatureService.downloadLiterature(id);
-            
+            Path file = previewService.getPreview(literature, page, size, format);
             return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_DISPOSITION, 
-                            "attachment; filename=\"" + literature.getOriginalFileName() + "\"")
-                    .header(HttpHeaders.CONTENT_TYPE, getContentType(literature.getFileType()))
-                    .body(fileContent);
-                    
+                    .eTag(etag)
+                    .cacheControl(cacheControl)
+                    .contentType(MediaTypeFactory.getMediaType(key).orElse(MediaType.APPLICATION_OCTET_STREAM))
+                    .body(new FileSystemResource(file));
+        } catch (BusinessException e) {
+            log.warn("获取预览失败: {} 第{}页, {}", id, page, e.getMessage());
+            return ResponseEntity.status(httpStatus(e)).build();
+        }
+    }
+
+    @GetMapping("/export")
+    @Operation(summary = "批量导出文献", description = "将选中或满足筛选条件的文献打包为ZIP流式下载，可附带阅读指南和元数据清单")
+    public void exportLiterature(
+            @Parameter(description = "文献ID列表") @RequestParam(required = false) List<Long> ids,
+            @Parameter(description = "分类") @RequestParam(required = false) String category,
+            @Parameter(description = "描述关键词") @RequestParam(required = false) String description,
+            @Parameter(description = "指南关键词") @RequestParam(required = false) String readingGuide,
+            @Parameter(description = "标签") @RequestParam(required = false) String tags,
+            @Parameter(description = "是否附带阅读指南") @RequestParam(defaultValue = "true") boolean includeGuide,
+            @Parameter(description = "是否附带元数据清单") @RequestParam(defaultValue = "true") boolean includeManifest,
+            HttpServletResponse response) {
+        ExportRequest request = new ExportRequest();
+        request.setIds(ids);
+        request.setCategory(category);
+        request.setDescription(description);
+        request.setReadingGuide(readingGuide);
+        request.setTags(tags);
+        request.setIncludeGuide(includeGuide);
+        request.setIncludeManifest(includeManifest);
+
+        String fileName = "literature-export-" + LocalDateTime.now().format(EXPORT_TIME_FORMATTER) + ".zip";
+        response.setContentType("application/zip");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(fileName, StandardCharsets.UTF_8).build().toString());
+        try {
+            exportService.exportZip(request, response.getOutputStream());
+        } catch (BusinessException e) {
+            log.warn("批量导出失败: {}", e.getMessage());
+            response.setContentType(null);
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, null);
+            sendError(response, httpStatus(e).value());
+        } catch (IOException e) {
+            log.warn("批量导出中断: {}", e.getMessage());
         } catch (Exception e) {
-            log.error("下载文献失败", e);
-            return ResponseEntity.internalServerError().build();
+            log.error("批量导出失败", e);
+            sendError(response, HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    @GetMapping("/export/ndjson")
+    @Operation(summary = "流式导出文献目录", description = "按ID顺序以NDJSON逐行输出满足筛选条件的文献元数据，中断后以最后收到的ID作为afterId续传")
+    public void exportCatalog(
+            @Parameter(description = "分类") @RequestParam(required = false) String category,
+            @Parameter(description = "描述关键词") @RequestParam(required = false) String description,
+            @Parameter(description = "指南关键词") @RequestParam(required = false) String readingGuide,
+            @Parameter(description = "标签") @RequestParam(required = false) String tags,
+            @Parameter(description = "是否附带阅读指南") @RequestParam(defaultValue = "false") boolean includeGuide,
+            @Parameter(description = "只导出ID大于该值的文献") @RequestParam(defaultValue = "0") long afterId,
+            HttpServletResponse response) {
+        ExportRequest request = new ExportRequest();
+        request.setCategory(category);
+        request.setDescription(description);
+        request.setReadingGuide(readingGuide);
+        request.setTags(tags);
+        request.setIncludeGuide(includeGuide);
+
+        String fileName = "literature-catalog-" + LocalDateTime.now().format(EXPORT_TIME_FORMATTER) + ".ndjson";
+        response.setContentType("application/x-ndjson;charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(fileName, StandardCharsets.UTF_8).build().toString());
+        try {
+            exportService.exportNdjson(request, afterId, response.getOutputStream());
+        } catch (BusinessException e) {
+            log.warn("目录导出失败: {}", e.getMessage());
+            response.setContentType(null);
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, null);
+            sendError(response, httpStatus(e).value());
+        } catch (IOException e) {
+            log.warn("目录导出中断: {}", e.getMessage());
+        } catch (Exception e) {
+            log.error("目录导出失败", e);
+            sendError(response, HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * 按版本 ETag 判断条件请求，未修改时已设置 304 状态；ETag 为空时不做判断。
+     * 响应设置 no-cache，浏览器每次携带 If-None-Match 重新验证
+     */
+    private boolean checkNotModified(ServletWebRequest webRequest, String etag) {
+        if (etag == null) {
+            return false;
+        }
+        HttpServletResponse response = webRequest.getResponse();
+        if (response != null) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+        }
+        boolean notModified = webRequest.checkNotModified(etag);
+        // 只统计携带 If-None-Match 的条件请求
+        if (webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            metrics.recordCache("etag", notModified);
+        }
+        return notModified;
+    }
+
+    /**
+     * 业务异常的错误码本身是 HTTP 状态码时直接使用，文献不存在对应 404，其余业务错误为 500
+     */
+    private static HttpStatus httpStatus(BusinessException e) {
+        HttpStatus status = HttpStatus.resolve(e.getCode());
+        if (status != null && status.isError()) {
+            return status;
+        }
+        return e.getCode().equals(ResultCode.LITERATURE_NOT_FOUND.getCode())
+                ? HttpStatus.NOT_FOUND : HttpStatus.INTERNAL_SERVER_ERROR;
+    }
+
+    private void sendError(HttpServletResponse response, int status) {
+        if (response.isCommitted()) {
+            return;
+        }
+        try {
+            response.sendError(status);
+        } catch (IOException ignored) {
+            // 客户端已断开
+        }
+    }
+
+    /**
+     * Accept-Encoding 是否接受 deflate（显式列出或 *，且 q 不为 0）
+     */
+    private static boolean acceptsDeflate(String acceptEncoding) {
+        if (StrUtil.isBlank(acceptEncoding)) {
+            return false;
+        }
+        for (String part : acceptEncoding.split(",")) {
+            String[] params = part.trim().split(";");
+            String coding = params[0].trim();
+            if (!"deflate".equalsIgnoreCase(coding) && !"*".equals(coding)) {
+                continue;
+            }
+            boolean rejected = false;
+            for (int i = 1; i < params.length; i++) {
+                String param = params[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        rejected = Double.parseDouble(param.substring(2)) <= 0;
+                    } catch (NumberFormatException e) {
+                        rejected = true;
+                    }
+                }
+            }
+            return !rejected;
         }
+        return false;
     }
 
     private String getContentType(String fileType) {
@@ -0,0 +1,46 @@
+package com.literature.assistant.controller;
+
+import com.literature.assistant.common.Result;
+import com.literature.assistant.concurrent.ExecutorRegistry;
+import com.literature.assistant.concurrent.FairScheduler;
+import com.literature.assistant.config.ReadWriteRoutingDataSource;
+import com.literature.assistant.dto.ExecutorStats;
+import com.literature.assistant.dto.ReplicaStatus;
+import com.literature.assistant.dto.SchedulerStats;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/system")
+@RequiredArgsConstructor
+@Tag(name = "系统状态", description = "线程池、准入调度、从库等运行状态")
+public class SystemController {
+
+    private final ExecutorRegistry executorRegistry;
+    private final FairScheduler fairScheduler;
+    private final ReadWriteRoutingDataSource routingDataSource;
+
+    @GetMapping("/executors")
+    @Operation(summary = "线程池状态", description = "各线程池的排队数、执行中任务数、完成数与平均排队/执行耗时")
+    public Result<List<ExecutorStats>> getExecutors() {
+        return Result.success(executorRegistry.stats());
+    }
+
+    @GetMapping("/replicas")
+    @Operation(summary = "从库状态", description = "各从库是否在读轮询中、复制延迟与连接池占用")
+    public Result<List<ReplicaStatus>> getReplicas() {
+        return Result.success(routingDataSource.status());
+    }
+
+    @GetMapping("/scheduler")
+    @Operation(summary = "准入调度状态", description = "解析与AI调用的槽位占用、各优先级的排队数与权重")
+    public Result<SchedulerStats> getScheduler() {
+        return Result.success(fairScheduler.stats());
+    }
+}
@@ -0,0 +1,37 @@
+package com.literature.assistant.dto;
+
+import com.literature.assistant.common.ResultCode;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * 上传与导入请求的准入结果
+ */
+@Data
+@AllArgsConstructor
+public class AdmissionDecision {
+
+    private static final AdmissionDecision ALLOWED = new AdmissionDecision(true, null, 0, null);
+
+    private boolean allowed;
+
+    /**
+     * 拒绝原因：TOO_MANY_REQUESTS 为客户端超过限流，SERVICE_UNAVAILABLE 为队列积压超过上限
+     */
+    private ResultCode reason;
+
+    /**
+     * 建议的重试等待秒数
+     */
+    private long retryAfterSeconds;
+
+    private String message;
+
+    public static AdmissionDecision allow() {
+        return ALLOWED;
+    }
+
+    public static AdmissionDecision reject(ResultCode reason, long retryAfterSeconds, String message) {
+        return new AdmissionDecision(false, reason, Math.max(1, retryAfterSeconds), message);
+    }
+}
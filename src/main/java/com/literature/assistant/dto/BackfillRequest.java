@@ -0,0 +1,26 @@
+package com.literature.assistant.dto;
+
+import lombok.Data;
+
+/**
+ * 批量重处理条件：筛选条件与列表查询相同，均为空时处理全部文献
+ */
+@Data
+public class BackfillRequest {
+
+    /**
+     * 处理内容：GUIDE 阅读指南，CLASSIFY 分类，ALL 两者
+     */
+    private String operation;
+
+    private String category;
+
+    private String description;
+
+    private String tags;
+
+    /**
+     * 每秒最多处理的文献数，为空时取默认值；不得低于 4 / 租约时长
+     */
+    private Double rate;
+}
@@ -0,0 +1,29 @@
+package com.literature.assistant.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 近似重复检测结果
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DuplicateMatch {
+
+    /**
+     * 最相似的已有文献ID
+     */
+    private Long literatureId;
+
+    /**
+     * 估算的 Jaccard 相似度
+     */
+    private Double similarity;
+
+    /**
+     * 相似度达到复用阈值，可直接复用原文献的阅读指南
+     */
+    private boolean reusable;
+}
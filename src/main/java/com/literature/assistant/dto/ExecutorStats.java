@@ -0,0 +1,58 @@
+package com.literature.assistant.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * 线程池运行状态
+ */
+@Data
+@Builder
+public class ExecutorStats {
+
+    private String name;
+
+    /**
+     * 线程池类型（cpu/io/scheduler）
+     */
+    private String kind;
+
+    /**
+     * 同时执行的任务数上限
+     */
+    private int maxConcurrency;
+
+    /**
+     * 已提交、尚未开始执行的任务数；定时线程池为已登记的定时任务数
+     */
+    private int queued;
+
+    /**
+     * 正在执行的任务数
+     */
+    private int active;
+
+    private long completed;
+
+    private long failed;
+
+    /**
+     * 因排队已满或已停止而拒绝的任务数
+     */
+    private long rejected;
+
+    /**
+     * 平均排队时间（毫秒）
+     */
+    private double avgWaitMillis;
+
+    /**
+     * 平均执行时间（毫秒）
+     */
+    private double avgRunMillis;
+
+    /**
+     * 最长执行时间（毫秒）
+     */
+    private double maxRunMillis;
+}
@@ -0,0 +1,32 @@
+package com.literature.assistant.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 批量导出条件：指定 ID 时只导出这些文献，筛选条件与列表查询相同，可同时使用
+ */
+@Data
+public class ExportRequest {
+
+    private List<Long> ids;
+
+    private String category;
+
+    private String description;
+
+    private String readingGuide;
+
+    private String tags;
+
+    /**
+     * 是否附带阅读指南（guides/ 目录下的 Markdown 文件）
+     */
+    private boolean includeGuide = true;
+
+    /**
+     * 是否附带元数据清单（manifest.ndjson，每行一篇文献）
+     */
+    private boolean includeManifest = true;
+}
@@ -0,0 +1,14 @@
+package com.literature.assistant.dto;
+
+import lombok.Data;
+
+/**
+ * GROUP BY 查询的单个分组结果
+ */
+@Data
+public class FacetBucket {
+
+    private String value;
+
+    private Long count;
+}
@@ -0,0 +1,33 @@
+package com.literature.assistant.dto;
+
+import lombok.Data;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 分面统计结果（分类、标签、出版年份），按数量降序排列
+ */
+@Data
+public class FacetCounts {
+
+    /**
+     * 满足条件的文献总数
+     */
+    private Long total;
+
+    /**
+     * 分类 -> 文献数
+     */
+    private Map<String, Long> categories = new LinkedHashMap<>();
+
+    /**
+     * 标签 -> 文献数
+     */
+    private Map<String, Long> tags = new LinkedHashMap<>();
+
+    /**
+     * 出版年份 -> 文献数
+     */
+    private Map<Integer, Long> years = new LinkedHashMap<>();
+}
@@ -0,0 +1,19 @@
+package com.literature.assistant.dto;
+
+import lombok.Data;
+
+/**
+ * 一个流（导入任务，或没有所属导入任务的同类任务）待执行的任务数
+ */
+@Data
+public class FlowBacklog {
+
+    /**
+     * 导入任务ID，没有所属导入任务时为任务类型
+     */
+    private String flow;
+
+    private String type;
+
+    private Integer pending;
+}
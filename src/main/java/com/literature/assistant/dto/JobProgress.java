@@ -0,0 +1,28 @@
+package com.literature.assistant.dto;
+
+import lombok.Data;
+
+/**
+ * 导入任务的处理进度，由子任务状态统计得出
+ */
+@Data
+public class JobProgress {
+
+    /**
+     * 文件总数；压缩包未读取完时为已提交的文件数
+     */
+    private Integer total;
+
+    private Integer succeeded;
+
+    private Integer failed;
+
+    /**
+     * 本次统计时任务恰好全部完成
+     */
+    private boolean completed;
+
+    public int getFinished() {
+        return succeeded + failed;
+    }
+}
@@ -0,0 +1,27 @@
+package com.literature.assistant.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * 导入任务在全局队列中的位置估计
+ */
+@Data
+@AllArgsConstructor
+public class QueueStatus {
+
+    /**
+     * 本任务的下一个文件开始处理前，排在前面的其他任务的文件数
+     */
+    private int position;
+
+    /**
+     * 本任务尚未开始处理的文件数
+     */
+    private int pending;
+
+    /**
+     * 预计全部处理完的剩余秒数，近期没有完成的任务无法估计时为空
+     */
+    private Long etaSeconds;
+}
@@ -0,0 +1,31 @@
+package com.literature.assistant.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * 从库状态
+ */
+@Data
+@AllArgsConstructor
+public class ReplicaStatus {
+
+    private String name;
+
+    /**
+     * 是否在读轮询中
+     */
+    private boolean healthy;
+
+    /**
+     * 复制延迟（秒），无法获取时为空
+     */
+    private Long lagSeconds;
+
+    private String lastError;
+
+    /**
+     * 连接池中正在使用的连接数
+     */
+    private int activeConnections;
+}
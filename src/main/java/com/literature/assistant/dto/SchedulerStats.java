@@ -0,0 +1,46 @@
+package com.literature.assistant.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.Map;
+
+/**
+ * 准入调度的运行状态
+ */
+@Data
+@Builder
+public class SchedulerStats {
+
+    /**
+     * 本节点同时处理的文献数上限
+     */
+    private int slots;
+
+    /**
+     * 只留给交互上传的槽位数
+     */
+    private int reservedInteractive;
+
+    private int inUse;
+
+    /**
+     * 优先级类别 -> 排队等待数
+     */
+    private Map<String, Integer> waiting;
+
+    /**
+     * 优先级类别 -> 权重
+     */
+    private Map<String, Integer> weights;
+
+    /**
+     * 已授予的槽位总数
+     */
+    private long granted;
+
+    /**
+     * 槽位平均占用时长（毫秒）
+     */
+    private double avgHoldMillis;
+}
@@ -0,0 +1,22 @@
+package com.literature.assistant.dto;
+
+import com.literature.assistant.entity.Literature;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 语义检索命中结果
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SemanticHit {
+
+    private Literature literature;
+
+    /**
+     * 余弦相似度
+     */
+    private Float score;
+}
@@ -0,0 +1,29 @@
+package com.literature.assistant.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 输入联想条目
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Suggestion {
+
+    /**
+     * 联想文本
+     */
+    private String text;
+
+    /**
+     * 类型：title / tag / category / author
+     */
+    private String type;
+
+    /**
+     * 类型为 title 时对应的文献ID
+     */
+    private Long literatureId;
+}
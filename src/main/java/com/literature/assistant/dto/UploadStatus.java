@@ -0,0 +1,40 @@
+package com.literature.assistant.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 分片上传会话状态；客户端断线重连后据此只补传缺失的分片
+ */
+@Data
+public class UploadStatus {
+
+    private String uploadId;
+
+    private String fileName;
+
+    /**
+     * 文件总字节数
+     */
+    private Long size;
+
+    /**
+     * 分片大小，最后一片可能较小
+     */
+    private Integer chunkSize;
+
+    private Integer chunkCount;
+
+    /**
+     * 已接收的分片序号（从 0 开始）
+     */
+    private List<Integer> receivedChunks;
+
+    private Long receivedBytes;
+
+    /**
+     * 是否已接收全部分片
+     */
+    private Boolean complete;
+}
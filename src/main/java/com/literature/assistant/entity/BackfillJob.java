@@ -0,0 +1,82 @@
+package com.literature.assistant.entity;
+
+import com.baomidou.mybatisplus.annotation.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 批量重处理任务：提示词或模型变更后，对满足筛选条件的文献按 ID 顺序重新生成阅读指南和/或分类
+ */
+@Data
+@TableName("backfill_job")
+public class BackfillJob {
+
+    public static final String OPERATION_GUIDE = "GUIDE";
+    public static final String OPERATION_CLASSIFY = "CLASSIFY";
+    public static final String OPERATION_ALL = "ALL";
+
+    public static final String STATUS_RUNNING = "RUNNING";
+    public static final String STATUS_PAUSED = "PAUSED";
+    public static final String STATUS_COMPLETED = "COMPLETED";
+    public static final String STATUS_CANCELLED = "CANCELLED";
+
+    @TableId(type = IdType.INPUT)
+    private String id;
+
+    /**
+     * 处理内容（GUIDE/CLASSIFY/ALL）
+     */
+    private String operation;
+
+    /**
+     * 任务状态（RUNNING/PAUSED/COMPLETED/CANCELLED）
+     */
+    private String status;
+
+    /**
+     * 筛选条件，与列表查询相同
+     */
+    private String category;
+
+    private String description;
+
+    private String tags;
+
+    /**
+     * 每秒最多处理的文献数
+     */
+    private Double rate;
+
+    /**
+     * 检查点：已处理到的文献ID，恢复时从其后继续
+     */
+    private Long lastId;
+
+    private Integer processed;
+
+    private Integer failed;
+
+    private String lastError;
+
+    /**
+     * 正在执行的节点，租约到期后由其他节点接手
+     */
+    private String leaseOwner;
+
+    private LocalDateTime leaseExpireTime;
+
+    @TableField(fill = FieldFill.INSERT)
+    private LocalDateTime createTime;
+
+    @TableField(fill = FieldFill.INSERT_UPDATE)
+    private LocalDateTime updateTime;
+
+    public boolean isGuide() {
+        return OPERATION_GUIDE.equals(operation) || OPERATION_ALL.equals(operation);
+    }
+
+    public boolean isClassify() {
+        return OPERATION_CLASSIFY.equals(operation) || OPERATION_ALL.equals(operation);
+    }
+}
@@ -0,0 +1,58 @@
+package com.literature.assistant.entity;
+
+import com.baomidou.mybatisplus.annotation.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 导入任务：一次批量导入或压缩包导入，包含若干个入库子任务
+ */
+@Data
+@TableName("ingestion_job")
+public class IngestionJob {
+
+    public static final String TYPE_BATCH = "BATCH";
+    public static final String TYPE_ARCHIVE = "ARCHIVE";
+
+    public static final String STATUS_RUNNING = "RUNNING";
+    public static final String STATUS_COMPLETED = "COMPLETED";
+    public static final String STATUS_CANCELLED = "CANCELLED";
+
+    /**
+     * 任务ID，即导入ID
+     */
+    @TableId(type = IdType.INPUT)
+    private String id;
+
+    /**
+     * 任务类型（BATCH/ARCHIVE）
+     */
+    private String type;
+
+    /**
+     * 任务状态（RUNNING/COMPLETED/CANCELLED）
+     */
+    private String status;
+
+    /**
+     * 文件总数；压缩包未读取完时为空
+     */
+    private Integer total;
+
+    /**
+     * 成功入库的文件数，任务完成时写入
+     */
+    private Integer succeeded;
+
+    /**
+     * 失败的文件数，任务完成时写入
+     */
+    private Integer failed;
+
+    @TableField(fill = FieldFill.INSERT)
+    private LocalDateTime createTime;
+
+    @TableField(fill = FieldFill.INSERT_UPDATE)
+    private LocalDateTime updateTime;
+}
@@ -0,0 +1,103 @@
+package com.literature.assistant.entity;
+
+import com.baomidou.mybatisplus.annotation.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 入库子任务：解析一个已保存的文件并生成阅读指南（INGEST），或为已入库的文献生成分类（CLASSIFY）
+ * <p>
+ * 执行节点通过租约领取任务，并在执行期间续约；节点宕机后租约过期，任务由其他节点重新领取。
+ */
+@Data
+@TableName("ingestion_task")
+public class IngestionTask {
+
+    public static final String TYPE_INGEST = "INGEST";
+    public static final String TYPE_CLASSIFY = "CLASSIFY";
+
+    public static final String STATUS_PENDING = "PENDING";
+    public static final String STATUS_RUNNING = "RUNNING";
+    public static final String STATUS_SUCCEEDED = "SUCCEEDED";
+    public static final String STATUS_FAILED = "FAILED";
+
+    @TableId(type = IdType.AUTO)
+    private Long id;
+
+    /**
+     * 所属导入任务ID，分类任务为空
+     */
+    private String jobId;
+
+    /**
+     * 任务类型（INGEST/CLASSIFY）
+     */
+    private String type;
+
+    /**
+     * 任务状态（PENDING/RUNNING/SUCCEEDED/FAILED）
+     */
+    private String status;
+
+    /**
+     * 原始文件名
+     */
+    private String fileName;
+
+    /**
+     * 文件存储键
+     */
+    private String filePath;
+
+    /**
+     * 文件大小（字节）
+     */
+    private Long fileSize;
+
+    /**
+     * 文件内容 SHA-256
+     */
+    private String contentHash;
+
+    /**
+     * 入库后的文献ID；分类任务为待分类的文献ID
+     */
+    private Long literatureId;
+
+    /**
+     * 已领取执行的次数
+     */
+    private Integer attempts;
+
+    /**
+     * 持有租约的节点
+     */
+    private String leaseOwner;
+
+    /**
+     * 租约到期时间，过期未续约的任务会被重新领取
+     */
+    private LocalDateTime leaseExpireTime;
+
+    /**
+     * 最早可执行时间，失败重试时延后
+     */
+    private LocalDateTime nextRunTime;
+
+    /**
+     * 最近一次投递到消息流的时间，为空表示待投递
+     */
+    private LocalDateTime dispatchTime;
+
+    /**
+     * 最近一次失败原因
+     */
+    private String lastError;
+
+    @TableField(fill = FieldFill.INSERT)
+    private LocalDateTime createTime;
+
+    @TableField(fill = FieldFill.INSERT_UPDATE)
+    private LocalDateTime updateTime;
+}
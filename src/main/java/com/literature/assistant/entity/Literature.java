@@ -1,11 +1,13 @@
 package com.literature.assistant.entity;
 
 import com.baomidou.mybatisplus.annotation.*;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.literature.assistant.handler.CompressedTextTypeHandler;
 import lombok.Data;
 import java.time.LocalDateTime;
 
 @Data
-@TableName("literature")
+@TableName(value = "literature", autoResultMap = true)
 public class Literature {
     
     @TableId(type = IdType.AUTO)
@@ -17,7 +19,7 @@ public class Literature {
     private String title;
     
     /**
-     * 文献存储路径
+     * 文件存储键（升级前的数据为本地文件路径）
      */
     private String filePath;
     
@@ -35,6 +37,11 @@ public class Literature {
      * 文件类型（pdf/doc/docx/md/txt）
      */
     private String fileType;
+
+    /**
+     * 文件内容 SHA-256
+     */
+    private String contentHash;
     
     /**
      * 文献标签，多个用逗号分隔
@@ -47,9 +54,16 @@ public class Literature {
     private String description;
     
     /**
-     * AI生成的阅读指南
+     * AI生成的阅读指南，压缩存储
      */
+    @TableField(typeHandler = CompressedTextTypeHandler.class)
     private String readingGuide;
+
+    /**
+     * 阅读指南原文长度（字节），详情不含指南正文时据此判断是否有指南
+     */
+    @TableField(exist = false)
+    private Integer guideLength;
     
     /**
      * 文献分类
@@ -66,6 +80,18 @@ public class Literature {
      */
     private Integer publishYear;
     
+    /**
+     * 内容 MinHash 签名，用于近似重复检测
+     */
+    @JsonIgnore
+    @TableField(select = false)
+    private byte[] contentSignature;
+
+    /**
+     * 近似重复的原文献ID
+     */
+    private Long duplicateOf;
+
     /**
      * 创建时间
      */
@@ -0,0 +1,356 @@
+package com.literature.assistant.index;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntPredicate;
+
+/**
+ * HNSW（分层可导航小世界图）近似最近邻索引
+ * <p>
+ * 节点编号即 {@link MmapVectorStore} 的槽位，向量本身不复制到堆内；要求写入的向量已做 L2 归一化，
+ * 距离取 1 - 内积（余弦距离）。已删除的槽位仍参与图遍历，但不会出现在结果中。
+ */
+public class HnswIndex {
+
+    private static final int SNAPSHOT_MAGIC = 0x484E5357;
+    private static final int SNAPSHOT_VERSION = 1;
+
+    public record Hit(int slot, float score) {
+    }
+
+    private record Candidate(int slot, float distance) {
+    }
+
+    private static final Comparator<Candidate> NEAREST_FIRST = Comparator.comparingDouble(Candidate::distance);
+    private static final Comparator<Candidate> FURTHEST_FIRST = NEAREST_FIRST.reversed();
+
+    private final MmapVectorStore store;
+    private final int m;
+    private final int maxM0;
+    private final int efConstruction;
+    private final double levelMultiplier;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * links[slot][level] = [邻居数, 邻居1, 邻居2, ...]；未入图的槽位为 null
+     */
+    private int[][][] links = new int[1024][][];
+    private int slotLimit;
+    private int nodeCount;
+    private int entryPoint = -1;
+    private int maxLevel = -1;
+
+    public HnswIndex(MmapVectorStore store, int m, int efConstruction) {
+        this.store = store;
+        this.m = m;
+        this.maxM0 = m * 2;
+        this.efConstruction = efConstruction;
+        this.levelMultiplier = 1 / Math.log(m);
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return nodeCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean contains(int slot) {
+        lock.readLock().lock();
+        try {
+            return slot < slotLimit && links[slot] != null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 将向量存储中指定槽位加入图
+     */
+    public void add(int slot) {
+        float[] vector = store.read(slot);
+        int level = randomLevel();
+
+        lock.writeLock().lock();
+        try {
+            if (slot < slotLimit && links[slot] != null) {
+                return;
+            }
+            ensureCapacity(slot);
+            int[][] nodeLinks = new int[level + 1][];
+            for (int l = 0; l <= level; l++) {
+                nodeLinks[l] = new int[1 + (l == 0 ? maxM0 : m)];
+            }
+            links[slot] = nodeLinks;
+            nodeCount++;
+
+            if (entryPoint < 0) {
+                entryPoint = slot;
+                maxLevel = level;
+                return;
+            }
+
+            int ep = entryPoint;
+            for (int l = maxLevel; l > level; l--) {
+                ep = greedyClosest(vector, ep, l);
+            }
+            for (int l = Math.min(level, maxLevel); l >= 0; l--) {
+                List<Candidate> found = searchLayer(vector, ep, efConstruction, l, null);
+                List<Candidate> selected = selectNeighbors(found, m);
+                for (Candidate neighbor : selected) {
+                    appendLink(slot, neighbor.slot(), l);
+                    connect(neighbor.slot(), slot, l);
+                }
+                ep = found.get(0).slot();
+            }
+
+            if (level > maxLevel) {
+                maxLevel = level;
+                entryPoint = slot;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 查询最相近的 k 个槽位，filter 为 null 时不过滤；结果按相似度降序
+     */
+    public List<Hit> search(float[] query, int k, int ef, IntPredicate filter) {
+        lock.readLock().lock();
+        try {
+            if (entryPoint < 0) {
+                return List.of();
+            }
+            int ep = entryPoint;
+            for (int l = maxLevel; l > 0; l--) {
+                ep = greedyClosest(query, ep, l);
+            }
+            IntPredicate accept = slot -> !store.isDeleted(slot) && (filter == null || filter.test(slot));
+            List<Candidate> found = searchLayer(query, ep, Math.max(ef, k), 0, accept);
+
+            List<Hit> hits = new ArrayList<>(Math.min(k, found.size()));
+            for (int i = 0; i < found.size() && i < k; i++) {
+                hits.add(new Hit(found.get(i).slot(), 1 - found.get(i).distance()));
+            }
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 在指定层上做束搜索，返回满足 accept 条件的候选（按距离升序）
+     */
+    private List<Candidate> searchLayer(float[] query, int ep, int ef, int level, IntPredicate accept) {
+        BitSet visited = new BitSet(slotLimit);
+        PriorityQueue<Candidate> candidates = new PriorityQueue<>(NEAREST_FIRST);
+        PriorityQueue<Candidate> results = new PriorityQueue<>(FURTHEST_FIRST);
+
+        Candidate start = new Candidate(ep, distance(query, ep));
+        visited.set(ep);
+        candidates.add(start);
+        if (accept == null || accept.test(ep)) {
+            results.add(start);
+        }
+
+        while (!candidates.isEmpty()) {
+            Candidate current = candidates.poll();
+            if (results.size() >= ef && current.distance() > results.peek().distance()) {
+                break;
+            }
+            int[] neighbors = links[current.slot()][level];
+            for (int i = 1; i <= neighbors[0]; i++) {
+                int neighbor = neighbors[i];
+                if (visited.get(neighbor)) {
+                    continue;
+                }
+                visited.set(neighbor);
+                float d = distance(query, neighbor);
+                if (results.size() < ef || d < results.peek().distance()) {
+                    Candidate candidate = new Candidate(neighbor, d);
+                    candidates.add(candidate);
+                    if (accept == null || accept.test(neighbor)) {
+                        results.add(candidate);
+                        if (results.size() > ef) {
+                            results.poll();
+                        }
+                    }
+                }
+            }
+        }
+
+        List<Candidate> sorted = new ArrayList<>(results);
+        sorted.sort(NEAREST_FIRST);
+        return sorted;
+    }
+
+    private int greedyClosest(float[] query, int ep, int level) {
+        int current = ep;
+        float currentDistance = distance(query, current);
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            int[] neighbors = links[current][level];
+            for (int i = 1; i <= neighbors[0]; i++) {
+                float d = distance(query, neighbors[i]);
+                if (d < currentDistance) {
+                    currentDistance = d;
+                    current = neighbors[i];
+                    changed = true;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * 启发式邻居选择：优先保留彼此分散的邻居，不足时用被淘汰的近邻补齐
+     */
+    private List<Candidate> selectNeighbors(List<Candidate> sortedCandidates, int limit) {
+        List<Candidate> selected = new ArrayList<>(limit);
+        List<Candidate> discarded = new ArrayList<>();
+        for (Candidate candidate : sortedCandidates) {
+            if (selected.size() >= limit) {
+                break;
+            }
+            boolean diverse = true;
+            for (Candidate chosen : selected) {
+                if (1 - store.dot(candidate.slot(), chosen.slot()) < candidate.distance()) {
+                    diverse = false;
+                    break;
+                }
+            }
+            if (diverse) {
+                selected.add(candidate);
+            } else {
+                discarded.add(candidate);
+            }
+        }
+        for (int i = 0; i < discarded.size() && selected.size() < limit; i++) {
+            selected.add(discarded.get(i));
+        }
+        return selected;
+    }
+
+    private void connect(int node, int neighbor, int level) {
+        int[] nodeLinks = links[node][level];
+        int capacity = nodeLinks.length - 1;
+        if (nodeLinks[0] < capacity) {
+            appendLink(node, neighbor, level);
+            return;
+        }
+
+        List<Candidate> candidates = new ArrayList<>(capacity + 1);
+        for (int i = 1; i <= nodeLinks[0]; i++) {
+            candidates.add(new Candidate(nodeLinks[i], 1 - store.dot(node, nodeLinks[i])));
+        }
+        candidates.add(new Candidate(neighbor, 1 - store.dot(node, neighbor)));
+        candidates.sort(NEAREST_FIRST);
+
+        List<Candidate> kept = selectNeighbors(candidates, capacity);
+        nodeLinks[0] = kept.size();
+        for (int i = 0; i < kept.size(); i++) {
+            nodeLinks[i + 1] = kept.get(i).slot();
+        }
+    }
+
+    private void appendLink(int node, int neighbor, int level) {
+        int[] nodeLinks = links[node][level];
+        nodeLinks[++nodeLinks[0]] = neighbor;
+    }
+
+    private float distance(float[] query, int slot) {
+        return 1 - store.dot(slot, query);
+    }
+
+    private int randomLevel() {
+        double r = ThreadLocalRandom.current().nextDouble();
+        return (int) Math.floor(-Math.log(Math.max(r, Double.MIN_NORMAL)) * levelMultiplier);
+    }
+
+    private void ensureCapacity(int slot) {
+        if (slot >= links.length) {
+            links = Arrays.copyOf(links, Math.max(slot + 1, links.length * 2));
+        }
+        slotLimit = Math.max(slotLimit, slot + 1);
+    }
+
+    /**
+     * 写出图结构快照（不含向量，向量已在映射文件中持久化）
+     */
+    public void writeTo(DataOutputStream out) throws IOException {
+        lock.readLock().lock();
+        try {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(SNAPSHOT_VERSION);
+            out.writeInt(m);
+            out.writeInt(slotLimit);
+            out.writeInt(entryPoint);
+            out.writeInt(maxLevel);
+            for (int slot = 0; slot < slotLimit; slot++) {
+                int[][] nodeLinks = links[slot];
+                if (nodeLinks == null) {
+                    out.writeInt(-1);
+                    continue;
+                }
+                out.writeInt(nodeLinks.length - 1);
+                for (int[] levelLinks : nodeLinks) {
+                    out.writeInt(levelLinks[0]);
+                    for (int i = 1; i <= levelLinks[0]; i++) {
+                        out.writeInt(levelLinks[i]);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 从快照恢复图结构；快照中引用的槽位必须已存在于向量存储中
+     */
+    public static HnswIndex readFrom(DataInputStream in, MmapVectorStore store, int efConstruction) throws IOException {
+        if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION) {
+            throw new IOException("索引快照格式不正确");
+        }
+        HnswIndex index = new HnswIndex(store, in.readInt(), efConstruction);
+        int slotLimit = in.readInt();
+        if (slotLimit > store.size()) {
+            throw new IOException("索引快照与向量文件不一致");
+        }
+        index.entryPoint = in.readInt();
+        index.maxLevel = in.readInt();
+        index.links = new int[Math.max(slotLimit, 1024)][][];
+        index.slotLimit = slotLimit;
+        for (int slot = 0; slot < slotLimit; slot++) {
+            int level = in.readInt();
+            if (level < 0) {
+                continue;
+            }
+            int[][] nodeLinks = new int[level + 1][];
+            for (int l = 0; l <= level; l++) {
+                int count = in.readInt();
+                nodeLinks[l] = new int[1 + (l == 0 ? index.maxM0 : index.m)];
+                nodeLinks[l][0] = count;
+                for (int i = 1; i <= count; i++) {
+                    nodeLinks[l][i] = in.readInt();
+                }
+            }
+            index.links[slot] = nodeLinks;
+            index.nodeCount++;
+        }
+        return index;
+    }
+}
@@ -0,0 +1,174 @@
+package com.literature.assistant.index;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * MinHash 签名与 LSH 分桶索引，用于近似重复文本检测
+ * <p>
+ * 文本规范化后按字符 k-gram 切分（对中英文都适用），每个分片先算一次 64 位哈希，
+ * 再通过 numHashes 组固定种子的仿射变换得到各排列下的最小值。签名分成 bands 段，
+ * 任意一段完全相同即成为候选，候选再用签名估算 Jaccard 相似度。
+ * 种子固定，签名可以持久化并跨进程比较。
+ */
+public class MinHashLsh {
+
+    private static final long SEED = 0x5EEDL;
+
+    private final int shingleSize;
+    private final int numHashes;
+    private final int bands;
+    private final int rows;
+    private final long[] multipliers;
+    private final long[] addends;
+
+    /**
+     * 分桶键（段号与段内签名的哈希） -> 文献ID列表
+     */
+    private final ConcurrentMap<Long, long[]> buckets = new ConcurrentHashMap<>();
+
+    public MinHashLsh(int shingleSize, int numHashes, int bands) {
+        if (numHashes % bands != 0) {
+            throw new IllegalArgumentException("numHashes 必须能被 bands 整除");
+        }
+        this.shingleSize = shingleSize;
+        this.numHashes = numHashes;
+        this.bands = bands;
+        this.rows = numHashes / bands;
+        this.multipliers = new long[numHashes];
+        this.addends = new long[numHashes];
+        SplittableRandom random = new SplittableRandom(SEED);
+        for (int i = 0; i < numHashes; i++) {
+            multipliers[i] = random.nextLong() | 1L;
+            addends[i] = random.nextLong();
+        }
+    }
+
+    /**
+     * 计算文本的 MinHash 签名；文本过短时返回 null
+     */
+    public int[] signature(String text) {
+        if (text == null) {
+            return null;
+        }
+        String normalized = text.toLowerCase(Locale.ROOT).replaceAll("\\s+", " ").trim();
+        if (normalized.length() < shingleSize) {
+            return null;
+        }
+
+        int[] mins = new int[numHashes];
+        Arrays.fill(mins, Integer.MAX_VALUE);
+        for (int start = 0; start + shingleSize <= normalized.length(); start++) {
+            long base = 0xcbf29ce484222325L;
+            for (int i = start; i < start + shingleSize; i++) {
+                base = (base ^ normalized.charAt(i)) * 0x100000001b3L;
+            }
+            base = mix(base);
+            for (int j = 0; j < numHashes; j++) {
+                int h = (int) (mix(base * multipliers[j] + addends[j]) >>> 32);
+                if (h < mins[j]) {
+                    mins[j] = h;
+                }
+            }
+        }
+        return mins;
+    }
+
+    /**
+     * 由签名估算 Jaccard 相似度
+     */
+    public static double similarity(int[] a, int[] b) {
+        if (a == null || b == null || a.length != b.length) {
+            return 0;
+        }
+        int equal = 0;
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == b[i]) {
+                equal++;
+            }
+        }
+        return (double) equal / a.length;
+    }
+
+    public void add(long id, int[] signature) {
+        for (int band = 0; band < bands; band++) {
+            buckets.compute(bandKey(signature, band), (key, ids) -> {
+                if (ids == null) {
+                    return new long[]{id};
+                }
+                for (long existing : ids) {
+                    if (existing == id) {
+                        return ids;
+                    }
+                }
+                long[] grown = Arrays.copyOf(ids, ids.length + 1);
+                grown[ids.length] = id;
+                return grown;
+            });
+        }
+    }
+
+    public void remove(long id, int[] signature) {
+        for (int band = 0; band < bands; band++) {
+            buckets.computeIfPresent(bandKey(signature, band), (key, ids) -> {
+                long[] kept = Arrays.stream(ids).filter(existing -> existing != id).toArray();
+                return kept.length == 0 ? null : kept;
+            });
+        }
+    }
+
+    /**
+     * 至少有一个分段与签名相同的文献ID
+     */
+    public Set<Long> candidates(int[] signature) {
+        Set<Long> result = new HashSet<>();
+        for (int band = 0; band < bands; band++) {
+            long[] ids = buckets.get(bandKey(signature, band));
+            if (ids != null) {
+                for (long id : ids) {
+                    result.add(id);
+                }
+            }
+        }
+        return result;
+    }
+
+    public int getNumHashes() {
+        return numHashes;
+    }
+
+    public static byte[] toBytes(int[] signature) {
+        ByteBuffer buffer = ByteBuffer.allocate(signature.length * 4);
+        buffer.asIntBuffer().put(signature);
+        return buffer.array();
+    }
+
+    public static int[] fromBytes(byte[] bytes) {
+        if (bytes == null) {
+            return null;
+        }
+        int[] signature = new int[bytes.length / 4];
+        ByteBuffer.wrap(bytes).asIntBuffer().get(signature);
+        return signature;
+    }
+
+    private long bandKey(int[] signature, int band) {
+        long h = (band + 1) * 0x9E3779B97F4A7C15L;
+        for (int i = band * rows; i < (band + 1) * rows; i++) {
+            h = mix(h ^ signature[i]);
+        }
+        return h;
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return z ^ (z >>> 33);
+    }
+}
@@ -0,0 +1,226 @@
+package com.literature.assistant.index;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 基于内存映射文件的向量存储
+ * <p>
+ * 文件布局：16 字节文件头（magic、维度、记录数、保留位），之后为定长记录：
+ * 8 字节文献ID + dimension 个 float。删除时将ID置为 -1，槽位不复用。
+ * 文件按 64MB 分段映射，按需扩展，避免单个 MappedByteBuffer 的 2GB 上限。
+ */
+public class MmapVectorStore implements Closeable {
+
+    private static final int MAGIC = 0x56454354;
+    private static final int HEADER_BYTES = 16;
+    private static final long SEGMENT_BYTES_LIMIT = 64L << 20;
+    private static final long TOMBSTONE = -1L;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer header;
+    private final int dimension;
+    private final int recordFloats;
+    private final int recordsPerSegment;
+    private final List<MappedByteBuffer> segments = new CopyOnWriteArrayList<>();
+    private final List<FloatBuffer> floatViews = new CopyOnWriteArrayList<>();
+    private final Map<Long, Integer> slotsById = new ConcurrentHashMap<>();
+
+    private volatile int count;
+
+    private MmapVectorStore(FileChannel channel, int dimension) throws IOException {
+        this.channel = channel;
+        this.dimension = dimension;
+        this.recordFloats = 2 + dimension;
+        this.recordsPerSegment = (int) Math.max(1, SEGMENT_BYTES_LIMIT / (recordFloats * 4L));
+        this.header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+        this.header.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * 打开或创建向量文件；维度与已有文件不一致时抛出异常
+     */
+    public static MmapVectorStore open(Path file, int dimension) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        boolean exists = Files.exists(file) && Files.size(file) >= HEADER_BYTES;
+        FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MmapVectorStore store = new MmapVectorStore(channel, dimension);
+        try {
+            if (exists) {
+                store.load();
+            } else {
+                store.header.putInt(0, MAGIC);
+                store.header.putInt(4, dimension);
+                store.header.putInt(8, 0);
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        return store;
+    }
+
+    private void load() throws IOException {
+        if (header.getInt(0) != MAGIC) {
+            throw new IOException("向量文件格式不正确");
+        }
+        int storedDimension = header.getInt(4);
+        if (storedDimension != dimension) {
+            throw new IOException("向量维度不一致: 文件为 " + storedDimension + "，配置为 " + dimension);
+        }
+        count = header.getInt(8);
+        for (int slot = 0; slot < count; slot++) {
+            ensureSegment(slot);
+            long id = idAt(slot);
+            if (id != TOMBSTONE) {
+                slotsById.put(id, slot);
+            }
+        }
+    }
+
+    public int dimension() {
+        return dimension;
+    }
+
+    /**
+     * 已分配的槽位数（含已删除槽位）
+     */
+    public int size() {
+        return count;
+    }
+
+    public int liveCount() {
+        return slotsById.size();
+    }
+
+    public boolean contains(long id) {
+        return slotsById.containsKey(id);
+    }
+
+    /**
+     * 返回文献对应的槽位，不存在时返回 -1
+     */
+    public int slotOf(long id) {
+        return slotsById.getOrDefault(id, -1);
+    }
+
+    /**
+     * 追加一条向量并返回槽位；同一文献已有向量时旧槽位被标记删除
+     */
+    public synchronized int append(long id, float[] vector) throws IOException {
+        if (vector.length != dimension) {
+            throw new IllegalArgumentException("向量维度不一致: " + vector.length);
+        }
+        int slot = count;
+        ensureSegment(slot);
+        MappedByteBuffer segment = segments.get(slot / recordsPerSegment);
+        int offset = (slot % recordsPerSegment) * recordFloats;
+        segment.putLong(offset * 4, id);
+        FloatBuffer view = floatViews.get(slot / recordsPerSegment);
+        for (int i = 0; i < dimension; i++) {
+            view.put(offset + 2 + i, vector[i]);
+        }
+        count = slot + 1;
+        header.putInt(8, count);
+
+        Integer previous = slotsById.put(id, slot);
+        if (previous != null) {
+            markDeleted(previous);
+        }
+        return slot;
+    }
+
+    /**
+     * 删除文献向量，返回被删除的槽位，不存在时返回 -1
+     */
+    public synchronized int remove(long id) {
+        Integer slot = slotsById.remove(id);
+        if (slot == null) {
+            return -1;
+        }
+        markDeleted(slot);
+        return slot;
+    }
+
+    public long idAt(int slot) {
+        return segments.get(slot / recordsPerSegment).getLong((slot % recordsPerSegment) * recordFloats * 4);
+    }
+
+    public boolean isDeleted(int slot) {
+        return idAt(slot) == TOMBSTONE;
+    }
+
+    public float[] read(int slot) {
+        float[] vector = new float[dimension];
+        FloatBuffer view = floatViews.get(slot / recordsPerSegment);
+        int offset = (slot % recordsPerSegment) * recordFloats + 2;
+        view.get(offset, vector, 0, dimension);
+        return vector;
+    }
+
+    public float dot(int slot, float[] query) {
+        FloatBuffer view = floatViews.get(slot / recordsPerSegment);
+        int offset = (slot % recordsPerSegment) * recordFloats + 2;
+        float sum = 0f;
+        for (int i = 0; i < dimension; i++) {
+            sum += view.get(offset + i) * query[i];
+        }
+        return sum;
+    }
+
+    public float dot(int slotA, int slotB) {
+        FloatBuffer viewA = floatViews.get(slotA / recordsPerSegment);
+        FloatBuffer viewB = floatViews.get(slotB / recordsPerSegment);
+        int offsetA = (slotA % recordsPerSegment) * recordFloats + 2;
+        int offsetB = (slotB % recordsPerSegment) * recordFloats + 2;
+        float sum = 0f;
+        for (int i = 0; i < dimension; i++) {
+            sum += viewA.get(offsetA + i) * viewB.get(offsetB + i);
+        }
+        return sum;
+    }
+
+    /**
+     * 将已写入的数据刷到磁盘
+     */
+    public synchronized void force() {
+        for (MappedByteBuffer segment : segments) {
+            segment.force();
+        }
+        header.force();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        force();
+        channel.close();
+    }
+
+    private void markDeleted(int slot) {
+        segments.get(slot / recordsPerSegment).putLong((slot % recordsPerSegment) * recordFloats * 4, TOMBSTONE);
+    }
+
+    private void ensureSegment(int slot) throws IOException {
+        int segmentIndex = slot / recordsPerSegment;
+        while (segments.size() <= segmentIndex) {
+            long segmentBytes = (long) recordsPerSegment * recordFloats * 4;
+            long position = HEADER_BYTES + segments.size() * segmentBytes;
+            MappedByteBuffer segment = channel.map(FileChannel.MapMode.READ_WRITE, position, segmentBytes);
+            segment.order(ByteOrder.LITTLE_ENDIAN);
+            segments.add(segment);
+            floatViews.add(segment.asFloatBuffer());
+        }
+    }
+}
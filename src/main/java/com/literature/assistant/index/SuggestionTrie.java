@@ -0,0 +1,255 @@
+package com.literature.assistant.index;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 输入联想用的压缩前缀树（radix tree）
+ * <p>
+ * 单分支路径合并为一条边，子节点以边首字符的有序数组 + 二分查找存放。每个节点缓存其子树中权重最高的
+ * topK 个条目，查询只需沿前缀走到对应节点读取缓存，耗时与词库大小无关。
+ * 权重只增不减时缓存始终准确；条目删除或权重下降后缓存可能不足，查询时会补做有限的子树遍历，
+ * 完整的准确性由定期重建保证。
+ */
+public class SuggestionTrie {
+
+    private static final int FALLBACK_VISIT_LIMIT = 2000;
+
+    /**
+     * 联想条目；同一条目可挂在多个键下（原文、拼音首字母、标题中的单词）
+     */
+    public static final class Entry {
+        private final String text;
+        private final String type;
+        private final Long literatureId;
+        private final AtomicLong weight = new AtomicLong();
+        private volatile boolean removed;
+
+        public Entry(String text, String type, Long literatureId) {
+            this.text = text;
+            this.type = type;
+            this.literatureId = literatureId;
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        public Long getLiteratureId() {
+            return literatureId;
+        }
+
+        public long getWeight() {
+            return weight.get();
+        }
+
+        public long addWeight(long delta) {
+            return weight.addAndGet(delta);
+        }
+
+        public boolean isRemoved() {
+            return removed;
+        }
+
+        public void markRemoved() {
+            removed = true;
+        }
+    }
+
+    private static final char[] NO_KEYS = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final Entry[] NO_ENTRIES = new Entry[0];
+
+    private static final class Node {
+        private String label;
+        private char[] keys = NO_KEYS;
+        private Node[] children = NO_CHILDREN;
+        private Entry[] top = NO_ENTRIES;
+        private Entry[] own = NO_ENTRIES;
+
+        Node(String label) {
+            this.label = label;
+        }
+
+        Node child(char c) {
+            int i = Arrays.binarySearch(keys, c);
+            return i >= 0 ? children[i] : null;
+        }
+
+        void setChild(Node node) {
+            char c = node.label.charAt(0);
+            int i = Arrays.binarySearch(keys, c);
+            if (i >= 0) {
+                children[i] = node;
+                return;
+            }
+            int insertAt = -i - 1;
+            char[] newKeys = new char[keys.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, insertAt);
+            System.arraycopy(children, 0, newChildren, 0, insertAt);
+            newKeys[insertAt] = c;
+            newChildren[insertAt] = node;
+            System.arraycopy(keys, insertAt, newKeys, insertAt + 1, keys.length - insertAt);
+            System.arraycopy(children, insertAt, newChildren, insertAt + 1, children.length - insertAt);
+            keys = newKeys;
+            children = newChildren;
+        }
+    }
+
+    private final int topK;
+    private final Node root = new Node("");
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public SuggestionTrie(int topK) {
+        this.topK = topK;
+    }
+
+    /**
+     * 在键下挂载条目；重复调用会按条目当前权重刷新沿途缓存
+     */
+    public void put(String key, Entry entry) {
+        if (key == null || key.isEmpty()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            Node node = root;
+            int i = 0;
+            while (i < key.length()) {
+                Node child = node.child(key.charAt(i));
+                if (child == null) {
+                    Node leaf = new Node(key.substring(i));
+                    leaf.top = new Entry[]{entry};
+                    leaf.own = new Entry[]{entry};
+                    node.setChild(leaf);
+                    return;
+                }
+                int common = commonPrefixLength(child.label, key, i);
+                if (common < child.label.length()) {
+                    // 键在边的中间分叉，拆出中间节点，其子树与原节点相同
+                    Node middle = new Node(child.label.substring(0, common));
+                    middle.top = child.top.clone();
+                    child.label = child.label.substring(common);
+                    middle.setChild(child);
+                    node.setChild(middle);
+                    child = middle;
+                }
+                child.top = offer(child.top, entry);
+                node = child;
+                i += common;
+            }
+            if (!contains(node.own, entry)) {
+                node.own = Arrays.copyOf(node.own, node.own.length + 1);
+                node.own[node.own.length - 1] = entry;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 查询以 prefix 开头的条目，按权重降序，最多 limit 个
+     */
+    public List<Entry> search(String prefix, int limit) {
+        if (prefix == null || prefix.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            int i = 0;
+            while (i < prefix.length()) {
+                Node child = node.child(prefix.charAt(i));
+                if (child == null) {
+                    return List.of();
+                }
+                int common = commonPrefixLength(child.label, prefix, i);
+                if (i + common < prefix.length() && common < child.label.length()) {
+                    return List.of();
+                }
+                node = child;
+                i += common;
+            }
+
+            Set<Entry> result = new LinkedHashSet<>();
+            for (Entry entry : node.top) {
+                if (!entry.isRemoved()) {
+                    result.add(entry);
+                }
+            }
+            if (result.size() < limit && node.top.length >= topK) {
+                // 缓存中有条目已失效，遍历子树补足
+                collect(node, result, limit);
+            }
+            List<Entry> sorted = new ArrayList<>(result);
+            sorted.sort((a, b) -> Long.compare(b.getWeight(), a.getWeight()));
+            return sorted.size() > limit ? sorted.subList(0, limit) : sorted;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void collect(Node start, Set<Entry> result, int limit) {
+        Deque<Node> stack = new ArrayDeque<>();
+        stack.push(start);
+        int visited = 0;
+        while (!stack.isEmpty() && result.size() < limit && visited++ < FALLBACK_VISIT_LIMIT) {
+            Node node = stack.pop();
+            for (Entry entry : node.own) {
+                if (!entry.isRemoved()) {
+                    result.add(entry);
+                }
+            }
+            for (Node child : node.children) {
+                stack.push(child);
+            }
+        }
+    }
+
+    private Entry[] offer(Entry[] top, Entry entry) {
+        int existing = indexOf(top, entry);
+        Entry[] candidates;
+        if (existing >= 0) {
+            candidates = top.clone();
+        } else {
+            candidates = Arrays.copyOf(top, top.length + 1);
+            candidates[top.length] = entry;
+        }
+        Arrays.sort(candidates, (a, b) -> Long.compare(b.getWeight(), a.getWeight()));
+        return candidates.length > topK ? Arrays.copyOf(candidates, topK) : candidates;
+    }
+
+    private static int commonPrefixLength(String label, String key, int offset) {
+        int max = Math.min(label.length(), key.length() - offset);
+        int n = 0;
+        while (n < max && label.charAt(n) == key.charAt(offset + n)) {
+            n++;
+        }
+        return n;
+    }
+
+    private static boolean contains(Entry[] entries, Entry entry) {
+        return indexOf(entries, entry) >= 0;
+    }
+
+    private static int indexOf(Entry[] entries, Entry entry) {
+        for (int i = 0; i < entries.length; i++) {
+            if (entries[i] == entry) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
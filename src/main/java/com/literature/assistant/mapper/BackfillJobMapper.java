@@ -0,0 +1,45 @@
+package com.literature.assistant.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.literature.assistant.entity.BackfillJob;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface BackfillJobMapper extends BaseMapper<BackfillJob> {
+
+    /**
+     * 执行中且无节点持有租约（新建、恢复或原节点失联）的任务ID
+     */
+    List<String> selectResumable();
+
+    /**
+     * 领取任务；已被其他节点持有时返回 0
+     */
+    int acquire(@Param("id") String id,
+                @Param("owner") String owner,
+                @Param("leaseSeconds") long leaseSeconds);
+
+    /**
+     * 记录检查点并续约；任务已暂停、取消或租约已失效时返回 0，执行方应停止
+     */
+    int checkpoint(@Param("id") String id,
+                   @Param("owner") String owner,
+                   @Param("lastId") long lastId,
+                   @Param("processed") int processed,
+                   @Param("failed") int failed,
+                   @Param("lastError") String lastError,
+                   @Param("leaseSeconds") long leaseSeconds);
+
+    int markCompleted(@Param("id") String id, @Param("owner") String owner);
+
+    /**
+     * 状态变更并释放租约；当前状态不在 from 中时返回 0
+     */
+    int transition(@Param("id") String id,
+                   @Param("from") Collection<String> from,
+                   @Param("to") String to);
+
+    int releaseLeases(@Param("owner") String owner);
+}
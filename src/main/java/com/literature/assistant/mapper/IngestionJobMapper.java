@@ -0,0 +1,33 @@
+package com.literature.assistant.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.literature.assistant.entity.IngestionJob;
+import org.apache.ibatis.annotations.Param;
+
+public interface IngestionJobMapper extends BaseMapper<IngestionJob> {
+
+    /**
+     * 标记任务完成；任务已完成或总数未确定时不更新，返回 0
+     */
+    int markCompleted(@Param("id") String id,
+                      @Param("succeeded") int succeeded,
+                      @Param("failed") int failed);
+
+    /**
+     * 取消仍在执行的任务，记录取消时的处理结果；任务已结束时不更新，返回 0
+     */
+    int markCancelled(@Param("id") String id,
+                      @Param("total") int total,
+                      @Param("succeeded") int succeeded,
+                      @Param("failed") int failed);
+
+    /**
+     * 创建超过指定秒数仍未确定总数的任务（压缩包上传中断），以已提交的文件数作为总数
+     */
+    int sealStale(@Param("seconds") long seconds);
+
+    /**
+     * 删除完成或取消超过指定天数的任务及其子任务
+     */
+    int deleteCompletedBefore(@Param("days") int days);
+}
@@ -0,0 +1,115 @@
+package com.literature.assistant.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.literature.assistant.dto.FlowBacklog;
+import com.literature.assistant.dto.JobProgress;
+import com.literature.assistant.entity.IngestionTask;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface IngestionTaskMapper extends BaseMapper<IngestionTask> {
+
+    /**
+     * 按公平顺序选出待投递的任务：已到执行时间、尚未投递或投递已久仍未被领取。
+     * 每个流（导入任务，或没有所属导入任务的同类任务）按登记顺序编号，编号除以权重后小的在前，
+     * 各流轮流投递，权重大的类别每轮投递更多
+     */
+    List<Long> selectDispatchCandidates(@Param("limit") int limit,
+                                        @Param("redispatchSeconds") int redispatchSeconds,
+                                        @Param("batchWeight") int batchWeight,
+                                        @Param("backfillWeight") int backfillWeight);
+
+    /**
+     * 锁定候选任务中仍待投递的部分；已被其他节点锁定的行直接跳过，须在事务中调用
+     */
+    List<Long> lockUndispatched(@Param("ids") Collection<Long> ids,
+                                @Param("redispatchSeconds") int redispatchSeconds);
+
+    /**
+     * 已投递、尚未被领取的任务数
+     */
+    int countOutstanding(@Param("redispatchSeconds") int redispatchSeconds);
+
+    /**
+     * 按流统计待执行的任务数
+     */
+    List<FlowBacklog> selectPendingByFlow();
+
+    /**
+     * 最近指定秒数内执行结束的任务数，不含未执行即取消或保存失败的任务
+     */
+    int countFinishedSince(@Param("seconds") int seconds);
+
+    /**
+     * 记录投递时间
+     */
+    int markDispatched(@Param("ids") Collection<Long> ids);
+
+    /**
+     * 领取任务：仅当任务待执行且已到执行时间时记录租约持有者与到期时间，执行次数加一
+     */
+    int lease(@Param("id") Long id,
+              @Param("owner") String owner,
+              @Param("leaseSeconds") int leaseSeconds);
+
+    /**
+     * 为仍在执行的任务续约
+     */
+    int renewLease(@Param("ids") Collection<Long> ids,
+                   @Param("owner") String owner,
+                   @Param("leaseSeconds") int leaseSeconds);
+
+    /**
+     * 租约已过期的任务放回待执行状态，等待重新投递
+     */
+    int reclaimExpired();
+
+    /**
+     * 释放本节点持有的租约，任务立即可由其他节点领取（停机时调用），不计入执行次数
+     */
+    int releaseLeases(@Param("owner") String owner);
+
+    /**
+     * 以下状态变更均要求仍持有租约，租约已失效时返回 0
+     */
+    int markSucceeded(@Param("id") Long id,
+                      @Param("owner") String owner,
+                      @Param("literatureId") Long literatureId);
+
+    /**
+     * 锁定仍由 owner 持有租约的任务，返回其ID；组提交时在写入文献前调用，租约已失效的任务不再写入
+     */
+    List<Long> lockLeased(@Param("ids") Collection<Long> ids, @Param("owner") String owner);
+
+    /**
+     * 批量标记成功，results 为子任务ID到文献ID的映射
+     */
+    int markSucceededBatch(@Param("results") Map<Long, Long> results, @Param("owner") String owner);
+
+    int markRetry(@Param("id") Long id,
+                  @Param("owner") String owner,
+                  @Param("error") String error,
+                  @Param("delaySeconds") int delaySeconds);
+
+    int markFailed(@Param("id") Long id,
+                   @Param("owner") String owner,
+                   @Param("error") String error);
+
+    /**
+     * 锁定导入任务中尚未结束的子任务并返回其文件路径，须在事务中调用
+     */
+    List<String> selectUnfinishedFilePaths(@Param("jobId") String jobId);
+
+    /**
+     * 取消导入任务中尚未结束的子任务：标记失败并清除租约，执行中的节点提交时因失去租约而回滚
+     */
+    int cancelJobTasks(@Param("jobId") String jobId, @Param("error") String error);
+
+    /**
+     * 统计导入任务中各文件的处理结果
+     */
+    JobProgress selectJobProgress(@Param("jobId") String jobId);
+}
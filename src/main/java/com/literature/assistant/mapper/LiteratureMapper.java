@@ -3,8 +3,14 @@ package com.literature.assistant.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.literature.assistant.dto.FacetBucket;
 import com.literature.assistant.entity.Literature;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.session.ResultHandler;
+
+import java.util.Collection;
+import java.util.List;
 
 public interface LiteratureMapper extends BaseMapper<Literature> {
     
@@ -16,4 +22,95 @@ public interface LiteratureMapper extends BaseMapper<Literature> {
                                           @Param("description") String description,
                                           @Param("readingGuide") String readingGuide,
                                           @Param("tags") String tags);
-}
\ No newline at end of file
+
+    /**
+     * 读取文献详情，includeGuide 为 false 时不读取指南正文，只填充指南原文长度
+     */
+    Literature selectDetail(@Param("id") Long id, @Param("includeGuide") boolean includeGuide);
+
+    /**
+     * 读取压缩存储的阅读指南，文献不存在或没有指南时返回 null
+     */
+    byte[] selectCompressedGuide(@Param("id") Long id);
+
+    /**
+     * 按分类分组计数
+     */
+    List<FacetBucket> selectCategoryFacets(@Param("category") String category,
+                                           @Param("description") String description,
+                                           @Param("readingGuide") String readingGuide,
+                                           @Param("tags") String tags);
+
+    /**
+     * 按出版年份分组计数
+     */
+    List<FacetBucket> selectYearFacets(@Param("category") String category,
+                                       @Param("description") String description,
+                                       @Param("readingGuide") String readingGuide,
+                                       @Param("tags") String tags);
+
+    /**
+     * 流式读取标签列
+     */
+    void selectTagColumn(@Param("category") String category,
+                         @Param("description") String description,
+                         @Param("readingGuide") String readingGuide,
+                         @Param("tags") String tags,
+                         ResultHandler<String> handler);
+
+    /**
+     * 统计满足条件的文献数
+     */
+    Long countLiterature(@Param("category") String category,
+                         @Param("description") String description,
+                         @Param("readingGuide") String readingGuide,
+                         @Param("tags") String tags);
+
+    /**
+     * 流式读取未删除文献的索引字段（标题、路径、分类、标签、描述）
+     */
+    void selectIndexSources(ResultHandler<Literature> handler);
+
+    /**
+     * 流式读取已有的内容签名
+     */
+    void selectSignatureSources(ResultHandler<Literature> handler);
+
+    /**
+     * 流式读取尚未计算内容签名的文献
+     */
+    void selectUnsignedSources(ResultHandler<Literature> handler);
+
+    /**
+     * 按ID读取内容签名
+     */
+    List<Literature> selectSignaturesByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * 游标读取未删除文献的标题、标签、分类和作者
+     */
+    Cursor<Literature> selectSuggestSources();
+
+    /**
+     * 按 id 升序游标读取 afterId 之后满足条件的文献，limit 为空时读到末尾；须在事务中读取并关闭
+     */
+    Cursor<Literature> selectCatalogCursor(@Param("category") String category,
+                                           @Param("description") String description,
+                                           @Param("readingGuide") String readingGuide,
+                                           @Param("tags") String tags,
+                                           @Param("includeGuide") boolean includeGuide,
+                                           @Param("afterId") long afterId,
+                                           @Param("limit") Integer limit);
+
+    /**
+     * 按 id 升序读取 afterId 之后的一批待导出文献
+     */
+    List<Literature> selectExportSources(@Param("ids") Collection<Long> ids,
+                                         @Param("category") String category,
+                                         @Param("description") String description,
+                                         @Param("readingGuide") String readingGuide,
+                                         @Param("tags") String tags,
+                                         @Param("includeGuide") boolean includeGuide,
+                                         @Param("afterId") long afterId,
+                                         @Param("limit") int limit);
+}
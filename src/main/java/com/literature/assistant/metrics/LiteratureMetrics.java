@@ -0,0 +1,159 @@
+package com.literature.assistant.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.InterruptedIOException;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 入库与查询链路的业务指标，统一按文件类型与结果打标签
+ * <p>
+ * 文件类型只取支持的几种扩展名，其余归为 other，避免标签取值无限增长。
+ * 结果分为 success、failure、cancelled（任务取消或线程中断）。
+ */
+@Component
+@RequiredArgsConstructor
+public class LiteratureMetrics {
+
+    public static final String STAGE_STORE = "store";
+    public static final String STAGE_PARSE = "parse";
+    public static final String STAGE_GUIDE = "guide";
+    public static final String STAGE_CLASSIFY = "classify";
+    public static final String STAGE_PERSIST = "persist";
+
+    public static final String DIRECTION_UPLOAD = "upload";
+    public static final String DIRECTION_DOWNLOAD = "download";
+
+    public static final String OUTCOME_SUCCESS = "success";
+    public static final String OUTCOME_FAILURE = "failure";
+    public static final String OUTCOME_CANCELLED = "cancelled";
+
+    private static final Set<String> FILE_TYPES = Set.of("pdf", "doc", "docx", "md", "txt");
+
+    private final MeterRegistry registry;
+
+    /**
+     * 可抛出受检异常的阶段操作
+     */
+    @FunctionalInterface
+    public interface StageCall<T, E extends Exception> {
+        T call() throws E;
+    }
+
+    /**
+     * 执行并计时一个处理阶段，按执行结果打标签，异常原样抛出
+     */
+    public <T, E extends Exception> T stage(String stage, String fileType, StageCall<T, E> call) throws E {
+        long start = System.nanoTime();
+        String outcome = OUTCOME_FAILURE;
+        try {
+            T result = call.call();
+            outcome = OUTCOME_SUCCESS;
+            return result;
+        } catch (Exception | Error e) {
+            outcome = outcome(e);
+            throw e;
+        } finally {
+            recordStage(stage, fileType, outcome, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * 记录已完成阶段的耗时，用于批量处理中每一项各计一次
+     */
+    public void recordStage(String stage, String fileType, String outcome, long nanos) {
+        Timer.builder("literature.pipeline.stage")
+                .description("文献处理各阶段耗时")
+                .tag("stage", stage)
+                .tag("file.type", fileType(fileType))
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 记录一次文件解析读取的字节数和页数（页数未知时为 0，不记录）
+     */
+    public void recordParsed(String fileType, String outcome, long bytes, int pages) {
+        DistributionSummary.builder("literature.parse.bytes")
+                .description("解析读取的文件字节数")
+                .baseUnit("bytes")
+                .tag("file.type", fileType(fileType))
+                .tag("outcome", outcome)
+                .register(registry)
+                .record(bytes);
+        if (pages > 0) {
+            DistributionSummary.builder("literature.parse.pages")
+                    .description("解析的文档页数")
+                    .baseUnit("pages")
+                    .tag("file.type", fileType(fileType))
+                    .tag("outcome", outcome)
+                    .register(registry)
+                    .record(pages);
+        }
+    }
+
+    /**
+     * 记录一次上传或下载的字节数与耗时，吞吐量为两者之比
+     */
+    public void recordTransfer(String direction, String fileType, String outcome, long bytes, long nanos) {
+        DistributionSummary.builder("literature.transfer.bytes")
+                .description("上传写入存储与下载发送的字节数")
+                .baseUnit("bytes")
+                .tag("direction", direction)
+                .tag("file.type", fileType(fileType))
+                .tag("outcome", outcome)
+                .register(registry)
+                .record(bytes);
+        Timer.builder("literature.transfer")
+                .description("上传写入存储与下载发送的耗时")
+                .tag("direction", direction)
+                .tag("file.type", fileType(fileType))
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 记录一次缓存访问，命中率 = hit / (hit + miss)
+     *
+     * @param cache 缓存名称，如 preview（预览图）、ai-result（近似重复复用 AI 结果）、etag（条件请求）
+     */
+    public void recordCache(String cache, boolean hit) {
+        Counter.builder("literature.cache.requests")
+                .description("缓存访问次数")
+                .tag("cache", cache)
+                .tag("result", hit ? "hit" : "miss")
+                .register(registry)
+                .increment();
+    }
+
+    public static String outcome(Throwable e) {
+        if (e instanceof CancellationException || e instanceof InterruptedException
+                || e instanceof InterruptedIOException) {
+            return OUTCOME_CANCELLED;
+        }
+        return OUTCOME_FAILURE;
+    }
+
+    /**
+     * 文件名、存储键或扩展名 -> 文件类型标签
+     */
+    public static String fileType(String name) {
+        if (name == null || name.isEmpty()) {
+            return "unknown";
+        }
+        String type = name.substring(name.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT);
+        return FILE_TYPES.contains(type) ? type : "other";
+    }
+}
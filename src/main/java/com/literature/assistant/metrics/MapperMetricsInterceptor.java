@@ -0,0 +1,69 @@
+package com.literature.assistant.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 按 Mapper 方法统计数据库语句耗时
+ * <p>
+ * 作为 Spring Bean 由 MyBatis-Plus 自动注册为插件。游标查询只统计打开游标的耗时，逐行读取的时间计入调用方。
+ */
+@Component
+@RequiredArgsConstructor
+@Intercepts({
+        @Signature(type = Executor.class, method = "update", args = {MappedStatement.class, Object.class}),
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class, CacheKey.class, BoundSql.class}),
+        @Signature(type = Executor.class, method = "queryCursor",
+                args = {MappedStatement.class, Object.class, RowBounds.class})
+})
+public class MapperMetricsInterceptor implements Interceptor {
+
+    private final MeterRegistry registry;
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        MappedStatement statement = (MappedStatement) invocation.getArgs()[0];
+        long start = System.nanoTime();
+        String outcome = LiteratureMetrics.OUTCOME_FAILURE;
+        try {
+            Object result = invocation.proceed();
+            outcome = LiteratureMetrics.OUTCOME_SUCCESS;
+            return result;
+        } finally {
+            record(statement, outcome, System.nanoTime() - start);
+        }
+    }
+
+    private void record(MappedStatement statement, String outcome, long nanos) {
+        // id 形如 com.literature.assistant.mapper.LiteratureMapper.selectDetail
+        String id = statement.getId();
+        int methodStart = id.lastIndexOf('.');
+        int mapperStart = id.lastIndexOf('.', methodStart - 1);
+        Timer.builder("mybatis.statement")
+                .description("Mapper 方法执行耗时")
+                .tag("mapper", id.substring(mapperStart + 1, methodStart))
+                .tag("method", id.substring(methodStart + 1))
+                .tag("command", statement.getSqlCommandType().name().toLowerCase())
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+}
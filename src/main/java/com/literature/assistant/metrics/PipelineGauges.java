@@ -0,0 +1,94 @@
+package com.literature.assistant.metrics;
+
+import com.literature.assistant.concurrent.ExecutorRegistry;
+import com.literature.assistant.concurrent.FairScheduler;
+import com.literature.assistant.dto.ExecutorStats;
+import com.literature.assistant.dto.QueueStatus;
+import com.literature.assistant.queue.LiteratureWriteBuffer;
+import com.literature.assistant.service.AdmissionService;
+import com.literature.assistant.sse.SseHub;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToIntFunction;
+
+/**
+ * 队列深度类指标：准入调度的等待数与占用槽位、全局导入积压、延迟写入缓冲、SSE 连接数及各线程池的排队与执行数
+ * <p>
+ * 取值在抓取时读取各组件的当前状态；I/O 线程池按需创建，定时补充新线程池的指标。
+ */
+@Component
+@RequiredArgsConstructor
+public class PipelineGauges implements MeterBinder {
+
+    private final FairScheduler fairScheduler;
+    private final LiteratureWriteBuffer writeBuffer;
+    private final AdmissionService admissionService;
+    private final SseHub sseHub;
+    private final ExecutorRegistry executorRegistry;
+
+    private final Set<String> boundExecutors = ConcurrentHashMap.newKeySet();
+    private volatile MeterRegistry registry;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        this.registry = registry;
+        for (FairScheduler.Priority priority : FairScheduler.Priority.values()) {
+            Gauge.builder("literature.scheduler.waiting", fairScheduler,
+                            scheduler -> scheduler.stats().getWaiting().getOrDefault(priority.getKey(), 0))
+                    .description("等待处理槽位的请求数")
+                    .tag("priority", priority.getKey())
+                    .register(registry);
+        }
+        Gauge.builder("literature.scheduler.in.use", fairScheduler, scheduler -> scheduler.stats().getInUse())
+                .description("已占用的处理槽位数")
+                .register(registry);
+        Gauge.builder("literature.ingestion.backlog", admissionService, service -> {
+                    QueueStatus backlog = service.getBacklog();
+                    return backlog == null ? Double.NaN : backlog.getPending();
+                })
+                .description("全局尚未开始处理的导入文件数")
+                .register(registry);
+        Gauge.builder("literature.write.buffer.pending", writeBuffer, LiteratureWriteBuffer::pendingCount)
+                .description("延迟写入缓冲中待写入的文献数")
+                .register(registry);
+        Gauge.builder("literature.sse.subscribers", sseHub, SseHub::subscriberCount)
+                .description("打开的 SSE 订阅连接数")
+                .register(registry);
+        bindExecutors();
+    }
+
+    @Scheduled(fixedDelay = 60000, initialDelay = 60000)
+    public void bindExecutors() {
+        MeterRegistry current = registry;
+        if (current == null) {
+            return;
+        }
+        for (ExecutorStats stats : executorRegistry.stats()) {
+            if (boundExecutors.add(stats.getName())) {
+                executorGauge(current, "literature.executor.queued", "排队等待执行的任务数", stats, ExecutorStats::getQueued);
+                executorGauge(current, "literature.executor.active", "正在执行的任务数", stats, ExecutorStats::getActive);
+            }
+        }
+    }
+
+    private void executorGauge(MeterRegistry registry, String name, String description, ExecutorStats stats,
+                               ToIntFunction<ExecutorStats> value) {
+        String executor = stats.getName();
+        Gauge.builder(name, executorRegistry, executors -> executors.stats().stream()
+                        .filter(candidate -> candidate.getName().equals(executor))
+                        .mapToInt(value)
+                        .findFirst()
+                        .orElse(0))
+                .description(description)
+                .tag("name", executor)
+                .tag("kind", stats.getKind())
+                .register(registry);
+    }
+}
@@ -0,0 +1,106 @@
+package com.literature.assistant.queue;
+
+import cn.hutool.json.JSONObject;
+import cn.hutool.json.JSONUtil;
+import com.literature.assistant.concurrent.CancellationRegistry;
+import com.literature.assistant.dto.JobProgress;
+import com.literature.assistant.service.IngestionCancelledEvent;
+import com.literature.assistant.service.IngestionTaskFinishedEvent;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 把子任务结束事件与取消请求广播到所有节点
+ * <p>
+ * 任务可能由任意节点执行，而浏览器的 SSE 连接只在其中一个节点上。执行节点通过 Redis 发布订阅广播事件，
+ * 每个节点（包括自己）收到后在本地发布 {@link IngestionTaskFinishedEvent}，没有对应连接的节点直接忽略。
+ * 广播不保证送达，客户端重连时会从数据库重建进度。取消请求同理：各节点取消本地以该键登记的任务，
+ * 并发布 {@link IngestionCancelledEvent}。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IngestionEventRelay implements MessageListener {
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CancellationRegistry cancellationRegistry;
+
+    @Value("${ingestion.event-channel:literature:ingestion:events}")
+    private String channel;
+
+    @Value("${ingestion.cancel-channel:literature:ingestion:cancel}")
+    private String cancelChannel;
+
+    @PostConstruct
+    public void init() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(channel));
+        listenerContainer.addMessageListener((message, pattern) ->
+                cancelLocally(new String(message.getBody(), StandardCharsets.UTF_8)), new ChannelTopic(cancelChannel));
+    }
+
+    /**
+     * 广播事件；Redis 不可用时只在本节点发布
+     */
+    public void publish(IngestionTaskFinishedEvent event) {
+        JSONObject json = JSONUtil.createObj()
+                .set("jobId", event.jobId())
+                .set("fileName", event.fileName())
+                .set("literatureId", event.literatureId())
+                .set("error", event.error())
+                .set("progress", JSONUtil.parseObj(event.progress()));
+        try {
+            redisTemplate.convertAndSend(channel, json.toString());
+        } catch (Exception e) {
+            log.warn("广播入库任务事件失败，仅在本节点发布: {}", e.getMessage());
+            eventPublisher.publishEvent(event);
+        }
+    }
+
+    /**
+     * 广播取消请求，键见 {@link CancellationRegistry}；Redis 不可用时只取消本节点的任务
+     */
+    public void broadcastCancel(String key) {
+        try {
+            redisTemplate.convertAndSend(cancelChannel, key);
+        } catch (Exception e) {
+            log.warn("广播取消请求失败，仅取消本节点任务: {}", e.getMessage());
+            cancelLocally(key);
+        }
+    }
+
+    private void cancelLocally(String key) {
+        int cancelled = cancellationRegistry.cancel(key);
+        if (cancelled > 0) {
+            log.info("已取消本节点任务 {} 个: {}", cancelled, key);
+        }
+        eventPublisher.publishEvent(new IngestionCancelledEvent(key));
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            JSONObject json = JSONUtil.parseObj(new String(message.getBody(), StandardCharsets.UTF_8));
+            eventPublisher.publishEvent(new IngestionTaskFinishedEvent(
+                    json.getStr("jobId"),
+                    json.getStr("fileName"),
+                    json.getLong("literatureId"),
+                    json.getStr("error"),
+                    json.getJSONObject("progress").toBean(JobProgress.class)));
+        } catch (Exception e) {
+            log.error("处理入库任务事件失败", e);
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.literature.assistant.queue;
+
+import com.literature.assistant.util.TransactionUtil;
+import io.lettuce.core.XAutoClaimArgs;
+import io.lettuce.core.api.async.RedisStreamAsyncCommands;
+import io.lettuce.core.models.stream.ClaimedMessages;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.RedisSystemException;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.StreamInfo;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 入库任务的 Redis Stream 投递通道
+ * <p>
+ * 消息只携带子任务ID，任务状态以数据库为准。所有节点同属一个消费组，每条消息只投递给一个节点；
+ * 节点宕机后其未确认的消息由其他节点通过 XAUTOCLAIM 接管。消息可能重复或丢失，
+ * 重复的消息领取租约失败后直接确认，丢失的消息由定时补投兜底。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IngestionStream {
+
+    private static final String TASK_ID_FIELD = "taskId";
+
+    private final StringRedisTemplate redisTemplate;
+
+    @Value("${ingestion.stream.key:literature:ingestion:tasks}")
+    private String streamKey;
+
+    @Value("${ingestion.stream.group:ingestion-workers}")
+    private String group;
+
+    @Value("${ingestion.stream.max-length:100000}")
+    private long maxLength;
+
+    /**
+     * 流中的一条消息
+     *
+     * @param id     消息ID，处理完后据此确认
+     * @param taskId 子任务ID
+     */
+    public record Message(String id, Long taskId) {
+    }
+
+    @PostConstruct
+    public void init() {
+        try {
+            createGroup();
+        } catch (Exception e) {
+            // Redis 暂不可用时在首次读取时再创建
+            log.warn("创建入库任务消费组失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 按顺序投递子任务；在事务中调用时等事务提交后再投递，避免消费方读不到任务
+     */
+    public void dispatch(Collection<Long> taskIds) {
+        if (taskIds.isEmpty()) {
+            return;
+        }
+        List<Long> ids = List.copyOf(taskIds);
+        TransactionUtil.afterCommit(() -> {
+            try {
+                for (Long id : ids) {
+                    redisTemplate.opsForStream().add(StreamRecords.newRecord()
+                            .in(streamKey)
+                            .ofMap(Map.of(TASK_ID_FIELD, String.valueOf(id))));
+                }
+            } catch (Exception e) {
+                // 任务已登记，由定时补投重新投递
+                log.warn("投递入库任务失败: {}", e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * 读取最多 count 条尚未投递给任何节点的消息，不阻塞
+     */
+    public List<Message> read(String consumer, int count) {
+        List<MapRecord<String, Object, Object>> records;
+        try {
+            records = readGroup(consumer, count);
+        } catch (RedisSystemException e) {
+            if (!isError(e, "NOGROUP")) {
+                throw e;
+            }
+            // 流被删除或 Redis 重启后消费组丢失
+            createGroup();
+            records = readGroup(consumer, count);
+        }
+        if (records == null) {
+            return List.of();
+        }
+        List<Message> messages = new ArrayList<>(records.size());
+        for (MapRecord<String, Object, Object> record : records) {
+            messages.add(toMessage(record.getId().getValue(), record.getValue().get(TASK_ID_FIELD)));
+        }
+        return messages;
+    }
+
+    /**
+     * 接管其他节点超过 minIdle 未确认的消息，最多 count 条
+     */
+    public List<Message> claimStale(String consumer, Duration minIdle, int count) {
+        byte[] key = streamKey.getBytes(StandardCharsets.UTF_8);
+        XAutoClaimArgs<byte[]> args = XAutoClaimArgs.Builder
+                .xautoclaim(io.lettuce.core.Consumer.from(group.getBytes(StandardCharsets.UTF_8),
+                        consumer.getBytes(StandardCharsets.UTF_8)), minIdle, "0-0")
+                .count(count);
+        // Spring Data Redis 没有封装 XAUTOCLAIM，直接使用 Lettuce 连接
+        ClaimedMessages<byte[], byte[]> claimed = redisTemplate.execute((RedisCallback<ClaimedMessages<byte[], byte[]>>) connection -> {
+            @SuppressWarnings("unchecked")
+            RedisStreamAsyncCommands<byte[], byte[]> commands =
+                    (RedisStreamAsyncCommands<byte[], byte[]>) connection.getNativeConnection();
+            try {
+                return commands.xautoclaim(key, args).get(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("XAUTOCLAIM 被中断", e);
+            } catch (Exception e) {
+                throw new IllegalStateException("XAUTOCLAIM 失败: " + e.getMessage(), e);
+            }
+        });
+        if (claimed == null) {
+            return List.of();
+        }
+        List<Message> messages = new ArrayList<>();
+        claimed.getMessages().forEach(message -> {
+            byte[] taskId = message.getBody().get(TASK_ID_FIELD.getBytes(StandardCharsets.UTF_8));
+            messages.add(toMessage(message.getId(), taskId == null ? null : new String(taskId, StandardCharsets.UTF_8)));
+        });
+        return messages;
+    }
+
+    public void ack(String messageId) {
+        try {
+            redisTemplate.opsForStream().acknowledge(streamKey, group, messageId);
+        } catch (Exception e) {
+            // 未确认的消息稍后会被接管，重复领取时因租约检查而跳过
+            log.warn("确认入库任务消息失败: {} {}", messageId, e.getMessage());
+        }
+    }
+
+    /**
+     * 清理已无待确认消息且长时间未活动的消费者（已停机的节点），并按长度上限裁剪流
+     */
+    public void cleanup(Duration consumerIdle) {
+        StreamInfo.XInfoConsumers consumers = redisTemplate.opsForStream().consumers(streamKey, group);
+        consumers.forEach(consumer -> {
+            if (consumer.pendingCount() == 0 && consumer.idleTimeMs() > consumerIdle.toMillis()) {
+                redisTemplate.opsForStream().deleteConsumer(streamKey, Consumer.from(group, consumer.consumerName()));
+            }
+        });
+        redisTemplate.opsForStream().trim(streamKey, maxLength, true);
+    }
+
+    private List<MapRecord<String, Object, Object>> readGroup(String consumer, int count) {
+        return redisTemplate.opsForStream().read(Consumer.from(group, consumer),
+                StreamReadOptions.empty().count(count),
+                StreamOffset.create(streamKey, ReadOffset.lastConsumed()));
+    }
+
+    /**
+     * 带 MKSTREAM 创建消费组，首次投递前流尚不存在时一并创建
+     */
+    private void createGroup() {
+        try {
+            redisTemplate.execute((RedisCallback<String>) connection -> connection.streamCommands()
+                    .xGroupCreate(streamKey.getBytes(StandardCharsets.UTF_8), group, ReadOffset.from("0"), true));
+            log.info("创建入库任务消费组: {} {}", streamKey, group);
+        } catch (RedisSystemException e) {
+            if (!isError(e, "BUSYGROUP")) {
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Redis 返回的错误码在异常链中
+     */
+    private static boolean isError(Throwable e, String code) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t.getMessage() != null && t.getMessage().contains(code)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Message toMessage(String id, Object taskId) {
+        try {
+            return new Message(id, taskId == null ? null : Long.valueOf(taskId.toString()));
+        } catch (NumberFormatException e) {
+            return new Message(id, null);
+        }
+    }
+}
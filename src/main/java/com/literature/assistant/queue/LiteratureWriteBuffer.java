@@ -0,0 +1,165 @@
+package com.literature.assistant.queue;
+
+import cn.hutool.core.bean.BeanUtil;
+import cn.hutool.core.bean.copier.CopyOptions;
+import com.baomidou.mybatisplus.extension.toolkit.Db;
+import com.literature.assistant.concurrent.ExecutorRegistry;
+import com.literature.assistant.entity.Literature;
+import com.literature.assistant.mapper.LiteratureMapper;
+import com.literature.assistant.service.VersionService;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 文献字段的延迟批量写入
+ * <p>
+ * 写入内容是只设置了 id 和待修改字段的部分实体，按 updateById 的规则只更新非空字段。
+ * 同一文献的多次修改在缓冲区中合并，积累到批量大小或到达刷新间隔时以 JDBC 批量语句写入，停机时写入剩余内容。
+ * 批量前按修改的字段组合排序，相同 SQL 的语句连续执行才能合并为一个批次。
+ * 写入后更新文献版本，客户端缓存的 ETag 随之失效。未启用时直接写入。
+ * 进程异常退出会丢失尚未刷新的修改：持久化任务须等待 {@link #update} 返回的结果完成后再标记成功或保存检查点。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LiteratureWriteBuffer {
+
+    private static final String FLUSH_EXECUTOR = "write-behind";
+
+    private final LiteratureMapper literatureMapper;
+    private final ExecutorRegistry executorRegistry;
+    private final VersionService versionService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${literature.write-behind.enabled:true}")
+    private boolean enabled;
+
+    @Value("${literature.write-behind.batch-size:200}")
+    private int batchSize;
+
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private Map<Long, Pending> pending = new LinkedHashMap<>();
+    private boolean closed;
+
+    /**
+     * 同一文献合并后的修改，及等待其写入的结果
+     */
+    private record Pending(Literature changes, CompletableFuture<Void> written) {
+    }
+
+    /**
+     * 写入部分实体，id 必填，其余字段为空的列保持不变
+     *
+     * @return 修改写入数据库后完成；该条写入失败时异常完成
+     */
+    public CompletableFuture<Void> update(Literature changes) {
+        boolean direct;
+        boolean full = false;
+        CompletableFuture<Void> written = null;
+        synchronized (this) {
+            direct = !enabled || closed;
+            if (!direct) {
+                Pending merged = pending.get(changes.getId());
+                if (merged == null) {
+                    merged = new Pending(changes, new CompletableFuture<>());
+                    pending.put(changes.getId(), merged);
+                } else {
+                    BeanUtil.copyProperties(changes, merged.changes(), CopyOptions.create().ignoreNullValue());
+                }
+                written = merged.written();
+                full = pending.size() >= batchSize;
+            }
+        }
+        if (direct) {
+            literatureMapper.updateById(changes);
+            versionService.bump(List.of(changes.getId()));
+            return CompletableFuture.completedFuture(null);
+        }
+        if (full) {
+            try {
+                executorRegistry.io(FLUSH_EXECUTOR).execute(this::flush);
+            } catch (RejectedExecutionException e) {
+                // 由定时刷新写入
+                log.debug("批量写入任务被拒绝，等待定时刷新");
+            }
+        }
+        return written;
+    }
+
+    public synchronized int pendingCount() {
+        return pending.size();
+    }
+
+    @Scheduled(fixedDelayString = "${literature.write-behind.flush-interval:1000}")
+    public void flush() {
+        // 同一时间只有一个刷新，保证同一文献的修改按顺序写入
+        flushLock.lock();
+        try {
+            List<Pending> batch;
+            synchronized (this) {
+                if (pending.isEmpty()) {
+                    return;
+                }
+                batch = new ArrayList<>(pending.values());
+                pending = new LinkedHashMap<>();
+            }
+            write(batch);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void write(List<Pending> batch) {
+        List<Literature> rows = batch.stream().map(Pending::changes)
+                .sorted(Comparator.comparing(LiteratureWriteBuffer::columnSignature))
+                .toList();
+        try {
+            // 整批在一个事务内提交
+            transactionTemplate.executeWithoutResult(status -> Db.updateBatchById(rows, batchSize));
+            log.debug("批量写入文献字段: {} 条", rows.size());
+            batch.forEach(entry -> entry.written().complete(null));
+        } catch (Exception e) {
+            // 批次整体失败时逐条写入，避免一条异常数据丢弃整批修改
+            log.warn("批量写入文献字段失败，改为逐条写入: {}", e.getMessage());
+            for (Pending entry : batch) {
+                try {
+                    literatureMapper.updateById(entry.changes());
+                    entry.written().complete(null);
+                } catch (Exception ex) {
+                    log.error("写入文献字段失败: {}", entry.changes().getId(), ex);
+                    entry.written().completeExceptionally(ex);
+                }
+            }
+        }
+        versionService.bump(rows.stream().map(Literature::getId).toList());
+    }
+
+    /**
+     * 非空字段名的组合，决定 updateById 生成的 SQL
+     */
+    private static String columnSignature(Literature changes) {
+        return String.join(",", BeanUtil.beanToMap(changes, false, true).keySet());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        synchronized (this) {
+            closed = true;
+        }
+        flush();
+    }
+}
@@ -0,0 +1,33 @@
+package com.literature.assistant.service;
+
+import com.literature.assistant.dto.AdmissionDecision;
+import com.literature.assistant.dto.QueueStatus;
+
+/**
+ * 上传与导入的准入控制：按客户端令牌桶限流（各节点共享），处理队列积压超过上限时拒绝新的工作
+ */
+public interface AdmissionService {
+
+    /**
+     * 单文件上传与分片上传会话
+     */
+    String UPLOAD = "upload";
+
+    /**
+     * 批量导入与压缩包导入任务
+     */
+    String IMPORT = "import";
+
+    /**
+     * 判断是否接受请求；通过时消耗客户端的一个令牌
+     *
+     * @param operation {@link #UPLOAD} 或 {@link #IMPORT}
+     * @param client    客户端标识（API Key 或 IP）
+     */
+    AdmissionDecision admit(String operation, String client);
+
+    /**
+     * 最近一次刷新的全局导入积压，尚未刷新时为 null
+     */
+    QueueStatus getBacklog();
+}
@@ -0,0 +1,36 @@
+package com.literature.assistant.service;
+
+import com.literature.assistant.dto.BackfillRequest;
+import com.literature.assistant.entity.BackfillJob;
+
+import java.util.List;
+
+public interface BackfillService {
+
+    /**
+     * 创建批量重处理任务，由任一节点领取后按 ID 顺序限速执行
+     */
+    BackfillJob create(BackfillRequest request);
+
+    BackfillJob get(String id);
+
+    /**
+     * 最近创建的任务
+     */
+    List<BackfillJob> listRecent(int limit);
+
+    /**
+     * 暂停：正在处理的文献完成后停止，检查点保留
+     */
+    void pause(String id);
+
+    /**
+     * 从检查点继续执行暂停的任务
+     */
+    void resume(String id);
+
+    /**
+     * 取消：中止正在处理的文献，已写入的结果保留
+     */
+    void cancel(String id);
+}
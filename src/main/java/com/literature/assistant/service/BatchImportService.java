@@ -3,15 +3,35 @@ package com.literature.assistant.service;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.InputStream;
+
 public interface BatchImportService {
 
     /**
-     * 创建批量导入任务并返回任务ID
+     * 创建批量导入任务，保存文件并登记为入库任务后返回任务ID，解析由后台线程执行
      */
     String startImport(MultipartFile[] files);
 
     /**
-     * 连接到指定任务的SSE进度流
+     * 创建压缩包导入任务并返回任务ID，随后通过 {@link #importArchive} 上传压缩包
+     */
+    String startArchiveImport();
+
+    /**
+     * 流式读取 ZIP 或 tar（可经 gzip/bzip2 压缩）压缩包，逐个条目保存并登记为入库任务。
+     * 读取完成后返回已登记的文件数，解析进度通过 SSE 推送
+     */
+    int importArchive(String importId, InputStream in);
+
+    /**
+     * 取消导入任务，已导入的文献保留；各节点上连接该任务的客户端收到 cancelled 事件
+     */
+    void cancel(String importId);
+
+    /**
+     * 连接到指定任务的SSE进度流，同一任务可有多个连接；断开不影响任务执行
+     *
+     * @param lastEventId 客户端已收到的最后一个事件序号，先补发其后的事件；为空时从头补发
      */
-    SseEmitter connectProgress(String importId);
+    SseEmitter connectProgress(String importId, Long lastEventId);
 }
\ No newline at end of file
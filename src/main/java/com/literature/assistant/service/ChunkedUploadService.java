@@ -0,0 +1,41 @@
+package com.literature.assistant.service;
+
+import com.literature.assistant.dto.UploadStatus;
+import com.literature.assistant.entity.Literature;
+
+import java.io.InputStream;
+
+/**
+ * 可断点续传的分片上传：分片可以并行、乱序上传，全部到齐后转为文献
+ */
+public interface ChunkedUploadService {
+
+    /**
+     * 创建上传会话
+     *
+     * @param sha256 客户端计算的整个文件的 SHA-256，可为空；提供时完成上传前会校验
+     */
+    UploadStatus createSession(String fileName, long size, String sha256);
+
+    /**
+     * 查询会话状态
+     */
+    UploadStatus getStatus(String uploadId);
+
+    /**
+     * 写入一个分片；已接收的分片不再写入，直接返回当前状态
+     *
+     * @param chunkSha256 分片的 SHA-256，可为空；提供时不一致的分片不会被接收
+     */
+    UploadStatus writeChunk(String uploadId, int index, InputStream in, String chunkSha256);
+
+    /**
+     * 所有分片到齐后完成上传，生成文献；会话随即关闭，重复调用返回会话不存在
+     */
+    Literature complete(String uploadId);
+
+    /**
+     * 取消上传并删除已接收的数据；正在完成上传（解析入库）时中止处理
+     */
+    void cancel(String uploadId);
+}
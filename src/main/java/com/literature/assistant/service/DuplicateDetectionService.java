@@ -0,0 +1,21 @@
+package com.literature.assistant.service;
+
+import com.literature.assistant.dto.DuplicateMatch;
+
+public interface DuplicateDetectionService {
+
+    /**
+     * 计算文本内容签名；未启用或内容过短时返回 null
+     */
+    byte[] computeSignature(String content);
+
+    /**
+     * 查找最相似的已有文献；相似度低于标记阈值时返回 null
+     */
+    DuplicateMatch findDuplicate(byte[] signature);
+
+    /**
+     * 将新入库文献的签名加入索引（事务提交后执行）
+     */
+    void register(Long id, byte[] signature);
+}
@@ -0,0 +1,26 @@
+package com.literature.assistant.service;
+
+import java.util.List;
+
+public interface EmbeddingService {
+
+    /**
+     * 是否已启用文本向量化
+     */
+    boolean isEnabled();
+
+    /**
+     * 向量维度
+     */
+    int getDimension();
+
+    /**
+     * 生成单条文本的向量
+     */
+    float[] embed(String text);
+
+    /**
+     * 批量生成文本向量，返回顺序与输入一致
+     */
+    List<float[]> embedBatch(List<String> texts);
+}
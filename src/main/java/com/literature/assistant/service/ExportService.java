@@ -0,0 +1,21 @@
+package com.literature.assistant.service;
+
+import com.literature.assistant.dto.ExportRequest;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface ExportService {
+
+    /**
+     * 将满足条件的文献打包为 ZIP，边生成边写出到 out
+     */
+    void exportZip(ExportRequest request, OutputStream out) throws IOException;
+
+    /**
+     * 按 id 顺序以 NDJSON（每行一篇文献的元数据）流式写出满足筛选条件的文献，内存占用与文献数无关
+     *
+     * @param afterId 只导出 id 大于该值的文献，中断后以已收到的最后一个 id 续传
+     */
+    void exportNdjson(ExportRequest request, long afterId, OutputStream out) throws IOException;
+}
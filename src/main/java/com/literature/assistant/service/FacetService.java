@@ -0,0 +1,32 @@
+package com.literature.assistant.service;
+
+import com.literature.assistant.dto.FacetCounts;
+import com.literature.assistant.entity.Literature;
+
+public interface FacetService {
+
+    /**
+     * 获取分面统计；无筛选条件时直接读取内存计数器
+     */
+    FacetCounts getFacetCounts(String category, String description, String readingGuide, String tags);
+
+    /**
+     * 新增文献后累加计数
+     */
+    void onInserted(Literature literature);
+
+    /**
+     * 文献分类、标签或年份变更后调整计数
+     */
+    void onUpdated(Literature before, Literature after);
+
+    /**
+     * 文献逻辑删除后扣减计数
+     */
+    void onDeleted(Literature literature);
+
+    /**
+     * 以数据库为准重建计数器
+     */
+    void reconcile();
+}
@@ -0,0 +1,9 @@
+package com.literature.assistant.service;
+
+/**
+ * 取消请求广播到本节点时发布，本节点上以该键登记的任务已被取消
+ *
+ * @param key 取消键，见 {@link com.literature.assistant.concurrent.CancellationRegistry}
+ */
+public record IngestionCancelledEvent(String key) {
+}
@@ -0,0 +1,67 @@
+package com.literature.assistant.service;
+
+import com.literature.assistant.dto.JobProgress;
+import com.literature.assistant.dto.QueueStatus;
+import com.literature.assistant.entity.IngestionJob;
+import com.literature.assistant.entity.IngestionTask;
+import com.literature.assistant.entity.Literature;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 持久化的入库任务队列：导入的文件先保存并登记为子任务，由各节点的后台线程领取执行，
+ * 节点重启或宕机不会丢失任务
+ */
+public interface IngestionService {
+
+    /**
+     * 创建导入任务记录
+     *
+     * @param type {@link IngestionJob#TYPE_BATCH} 或 {@link IngestionJob#TYPE_ARCHIVE}
+     */
+    void createJob(String jobId, String type);
+
+    /**
+     * 登记一个已写入存储、待解析入库的文件
+     */
+    void submitIngest(String jobId, Literature stored);
+
+    /**
+     * 登记一个未能保存的文件，计入任务的失败数
+     */
+    void recordFailure(String jobId, String fileName, String error);
+
+    /**
+     * 所有文件都已登记，确定文件总数；若此时已全部处理完成，返回的进度中 completed 为 true
+     */
+    JobProgress sealJob(String jobId, int total);
+
+    /**
+     * 取消仍在执行的任务：尚未结束的文件标记为失败，删除其已保存的文件，并通知执行中的节点中止
+     */
+    void cancelJob(String jobId);
+
+    /**
+     * 查询任务进度
+     */
+    JobProgress getProgress(String jobId);
+
+    /**
+     * 估计各导入任务在全局队列中的位置与剩余时间
+     */
+    Map<String, QueueStatus> getQueueStatus(Collection<String> jobIds);
+
+    /**
+     * 全局队列的积压：所有尚未开始处理的文件数（position 与 pending 相同）及按近期吞吐估计的处理完毕秒数
+     */
+    QueueStatus getBacklog();
+
+    IngestionJob getJob(String jobId);
+
+    /**
+     * 查询任务的全部文件子任务，按登记顺序排列
+     */
+    List<IngestionTask> listTasks(String jobId);
+}
@@ -0,0 +1,15 @@
+package com.literature.assistant.service;
+
+import com.literature.assistant.dto.JobProgress;
+
+/**
+ * 属于导入任务的子任务执行结束（成功或最终失败）时发布；由执行节点经 Redis 转发到所有节点，
+ * 持有该任务 SSE 连接的节点据此推送进度
+ *
+ * @param literatureId 入库后的文献ID，失败时为空
+ * @param error        失败原因，成功时为空
+ * @param progress     所属导入任务的最新进度
+ */
+public record IngestionTaskFinishedEvent(String jobId, String fileName, Long literatureId, String error,
+                                         JobProgress progress) {
+}
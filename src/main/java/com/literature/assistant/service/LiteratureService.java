@@ -5,6 +5,8 @@ import com.baomidou.mybatisplus.extension.service.IService;
 import com.literature.assistant.entity.Literature;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.InputStream;
+
 public interface LiteratureService extends IService<Literature> {
     
     /**
@@ -15,8 +17,64 @@ public interface LiteratureService extends IService<Literature> {
     
     /**
      * 上传文献文件
+     *
+     * @param requestId 客户端生成的请求ID，可据此通过 {@link #cancelUpload} 取消处理；为空时不可取消
+     */
+    Literature uploadLiterature(MultipartFile file, String requestId);
+
+    /**
+     * 取消正在处理的单文件上传，中止解析与进行中的 AI 调用，已写入的文件随事务回滚删除
+     */
+    void cancelUpload(String requestId);
+
+    /**
+     * 校验文件名与大小后将内容写入存储，返回尚未入库的文献记录（含存储键与内容哈希）
+     *
+     * @param size 文件大小，未知时传 -1，读取时按上限截断检查
+     */
+    Literature storeFile(String fileName, InputStream in, long size);
+
+    /**
+     * 解析已写入存储的文件、并行生成阅读指南与分类后入库；解析与 AI 调用在事务外进行，只有写入在事务中。
+     * 当前线程绑定的取消令牌被取消时在写入前中止
+     *
+     * @param deleteOnFailure 失败时是否删除已存储的文件；由任务执行、失败后还会重试时传 false
+     */
+    Literature ingestStoredFile(Literature literature, boolean deleteOnFailure);
+
+    /**
+     * 解析已写入存储的文件，做近似重复检测并生成阅读指南与分类，结果填入文献记录，不写入数据库
+     *
+     * @return 解析出的文本，供 {@link #afterInserted} 建立语义索引
+     */
+    String prepareIngest(Literature literature);
+
+    /**
+     * 文献记录写入后更新分面计数、近似重复、联想词与语义索引，在事务中调用时提交后生效
+     */
+    void afterInserted(Literature literature, String content);
+
+    /**
+     * 由已写入存储的文件信息重建尚未入库的文献记录，用于任务重试
+     */
+    Literature restoreStoredFile(String fileName, String filePath, long fileSize, String contentHash);
+
+    /**
+     * 删除已写入存储的文件，删除失败只记录日志
      */
-    Literature uploadLiterature(MultipartFile file);
+    void deleteStoredFile(String filePath);
+
+    /**
+     * 调用AI为已入库的文献生成分类、描述和标签；文献已删除时直接返回
+     */
+    void classifyLiterature(Long id);
+
+    /**
+     * 重新解析文件并重新生成阅读指南和/或分类，只写入有变化的字段；修改写入数据库后才返回，不应在事务中调用
+     *
+     * @return 文献已删除时返回 false
+     */
+    boolean reprocessLiterature(Long id, boolean guide, boolean classify);
     
     /**
      * 批量导入文献
@@ -24,12 +82,24 @@ public interface LiteratureService extends IService<Literature> {
     void batchImportLiterature(MultipartFile[] files);
     
     /**
-     * 根据ID下载文献文件
+     * 准备下载：校验文件存在并确保内容哈希已计算（用作 ETag）
      */
-    byte[] downloadLiterature(Long id);
+    Literature prepareDownload(Long id);
     
     /**
      * 根据ID获取文献详情
+     *
+     * @param includeGuide 是否包含阅读指南正文；不包含时只返回指南原文长度，正文通过 {@link #getCompressedGuide} 获取
+     */
+    Literature getLiteratureDetail(Long id, boolean includeGuide);
+
+    /**
+     * 获取压缩存储的阅读指南（MySQL COMPRESS 格式），文献不存在或没有指南时返回 null
+     */
+    byte[] getCompressedGuide(Long id);
+
+    /**
+     * 根据ID删除文献（逻辑删除）
      */
-    Literature getLiteratureDetail(Long id);
-}
\ No newline at end of file
+    void deleteLiterature(Long id);
+}
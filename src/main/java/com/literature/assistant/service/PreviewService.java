@@ -0,0 +1,25 @@
+package com.literature.assistant.service;
+
+import com.literature.assistant.entity.Literature;
+
+import java.nio.file.Path;
+
+/**
+ * PDF 页面预览图：首次请求时渲染，结果缓存在磁盘
+ */
+public interface PreviewService {
+
+    /**
+     * 预览图的缓存键，由内容哈希、页码、尺寸和格式组成，内容不变则键不变，可直接用作 ETag
+     *
+     * @param page   页码，从 1 开始
+     * @param size   尺寸：small、medium、large
+     * @param format 格式：jpeg、png
+     */
+    String previewKey(Literature literature, int page, String size, String format);
+
+    /**
+     * 获取预览图文件，缓存未命中时渲染
+     */
+    Path getPreview(Literature literature, int page, String size, String format);
+}
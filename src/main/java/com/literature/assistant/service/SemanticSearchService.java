@@ -0,0 +1,34 @@
+package com.literature.assistant.service;
+
+import com.literature.assistant.dto.SemanticHit;
+import com.literature.assistant.entity.Literature;
+
+import java.util.List;
+
+public interface SemanticSearchService {
+
+    /**
+     * 自然语言语义检索
+     */
+    List<SemanticHit> search(String query, int k, String category, String tags);
+
+    /**
+     * 查找与指定文献相似的文献
+     */
+    List<SemanticHit> findSimilar(Long id, int k, String category, String tags);
+
+    /**
+     * 为新入库的文献生成向量并加入索引（事务提交后异步执行）
+     */
+    void index(Literature literature, String content);
+
+    /**
+     * 同步文献的分类、标签等过滤元数据
+     */
+    void updateMetadata(Literature literature);
+
+    /**
+     * 从索引中移除文献
+     */
+    void remove(Long id);
+}
@@ -0,0 +1,29 @@
+package com.literature.assistant.service;
+
+import com.literature.assistant.dto.Suggestion;
+import com.literature.assistant.entity.Literature;
+
+import java.util.List;
+
+public interface SuggestService {
+
+    /**
+     * 根据输入前缀返回联想结果（支持中文标题的拼音首字母）
+     */
+    List<Suggestion> suggest(String prefix, int limit);
+
+    /**
+     * 文献新增或标题、标签、分类、作者变更后更新索引（事务提交后执行）
+     */
+    void onSaved(Literature literature);
+
+    /**
+     * 文献删除后移出索引（事务提交后执行）
+     */
+    void onDeleted(Long id);
+
+    /**
+     * 记录一次文献访问，提升其标题的联想排名；只做计数，定时合并进索引
+     */
+    void recordView(Long id);
+}
@@ -0,0 +1,24 @@
+package com.literature.assistant.service;
+
+import java.util.Collection;
+
+/**
+ * 文献数据版本，用于列表与详情接口的 ETag 条件请求
+ */
+public interface VersionService {
+
+    /**
+     * 文献集合的弱 ETag，任一文献写入后改变；无法确定版本时返回 null，此时不做条件请求
+     */
+    String collectionTag();
+
+    /**
+     * 单个文献的弱 ETag，该文献写入后改变；无法确定版本时返回 null
+     */
+    String literatureTag(Long id);
+
+    /**
+     * 文献写入数据库后调用，更新集合版本与这些文献的版本
+     */
+    void bump(Collection<Long> ids);
+}
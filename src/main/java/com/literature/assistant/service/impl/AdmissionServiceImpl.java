@@ -0,0 +1,167 @@
+package com.literature.assistant.service.impl;
+
+import com.literature.assistant.common.ResultCode;
+import com.literature.assistant.concurrent.FairScheduler;
+import com.literature.assistant.dto.AdmissionDecision;
+import com.literature.assistant.dto.QueueStatus;
+import com.literature.assistant.dto.SchedulerStats;
+import com.literature.assistant.service.AdmissionService;
+import com.literature.assistant.service.IngestionService;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 令牌桶状态存放在 Redis 中，各节点共享同一客户端的额度；补充令牌使用 Redis 服务器时间，不受节点时钟偏差影响。
+ * Redis 不可用时放行，只保留队列积压检查。
+ * <p>
+ * 积压检查先于限流，被拒绝的请求不消耗令牌：上传看本节点等待槽位的交互上传数，导入看全局待处理文件数（定时刷新）。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AdmissionServiceImpl implements AdmissionService {
+
+    private static final String KEY_PREFIX = "rate-limit:";
+
+    private static final long MAX_RETRY_AFTER_SECONDS = 600;
+
+    /**
+     * 令牌桶：按经过的时间补充令牌，不超过容量；令牌足够时扣减，否则返回还需等待的毫秒数。返回 {是否通过, 等待毫秒数}
+     */
+    @SuppressWarnings("rawtypes")
+    private static final DefaultRedisScript<List> TOKEN_BUCKET_SCRIPT = new DefaultRedisScript<>("""
+            local capacity = tonumber(ARGV[1])
+            local rate = tonumber(ARGV[2])
+            local cost = tonumber(ARGV[3])
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+            local state = redis.call('HMGET', KEYS[1], 'tokens', 'ts')
+            local tokens = tonumber(state[1]) or capacity
+            local ts = tonumber(state[2]) or now
+            tokens = math.min(capacity, tokens + math.max(0, now - ts) * rate / 1000)
+            local allowed = 0
+            local wait = 0
+            if tokens >= cost then
+                tokens = tokens - cost
+                allowed = 1
+            else
+                wait = math.ceil((cost - tokens) * 1000 / rate)
+            end
+            redis.call('HSET', KEYS[1], 'tokens', tostring(tokens), 'ts', now)
+            redis.call('PEXPIRE', KEYS[1], math.ceil(capacity * 1000 / rate) + 1000)
+            return {allowed, wait}
+            """, List.class);
+
+    private static final Map<String, Bucket> DEFAULT_BUCKETS = Map.of(
+            UPLOAD, new Bucket(10, 0.5),
+            IMPORT, new Bucket(3, 0.05));
+
+    private final StringRedisTemplate redisTemplate;
+    private final IngestionService ingestionService;
+    private final FairScheduler fairScheduler;
+    private final Environment environment;
+
+    @Value("${admission.upload.max-waiting:20}")
+    private int maxUploadWaiting;
+
+    @Value("${admission.import.max-backlog:5000}")
+    private int maxImportBacklog;
+
+    private final Map<String, Bucket> buckets = new HashMap<>();
+    private volatile QueueStatus backlog;
+
+    @PostConstruct
+    public void init() {
+        DEFAULT_BUCKETS.forEach((operation, defaults) -> buckets.put(operation, new Bucket(
+                environment.getProperty("admission." + operation + ".capacity", Double.class, defaults.capacity()),
+                environment.getProperty("admission." + operation + ".rate", Double.class, defaults.rate()))));
+    }
+
+    @Override
+    public AdmissionDecision admit(String operation, String client) {
+        AdmissionDecision decision = IMPORT.equals(operation) ? checkBacklog() : checkWaitingUploads();
+        if (!decision.isAllowed()) {
+            return decision;
+        }
+        return checkRate(operation, client);
+    }
+
+    @Override
+    public QueueStatus getBacklog() {
+        return backlog;
+    }
+
+    /**
+     * 刷新全局积压，导入请求只读取缓存值，不逐个查询数据库
+     */
+    @Scheduled(fixedDelayString = "${admission.refresh-interval:5000}")
+    public void refreshBacklog() {
+        try {
+            backlog = ingestionService.getBacklog();
+        } catch (Exception e) {
+            log.debug("刷新导入积压失败: {}", e.getMessage());
+        }
+    }
+
+    private AdmissionDecision checkBacklog() {
+        QueueStatus current = backlog;
+        if (current == null || current.getPending() < maxImportBacklog) {
+            return AdmissionDecision.allow();
+        }
+        // 按近期吞吐估计积压降到上限以下所需时间
+        int excess = current.getPending() - maxImportBacklog + 1;
+        long retryAfter = current.getEtaSeconds() == null ? 60
+                : current.getEtaSeconds() * excess / current.getPending();
+        log.info("导入积压 {} 个文件，超过上限 {}，拒绝新的导入任务", current.getPending(), maxImportBacklog);
+        return AdmissionDecision.reject(ResultCode.SERVICE_UNAVAILABLE,
+                Math.max(1, Math.min(retryAfter, MAX_RETRY_AFTER_SECONDS)), "导入队列繁忙，请稍后再试");
+    }
+
+    private AdmissionDecision checkWaitingUploads() {
+        SchedulerStats stats = fairScheduler.stats();
+        int waiting = stats.getWaiting().getOrDefault(FairScheduler.Priority.INTERACTIVE.getKey(), 0);
+        if (waiting < maxUploadWaiting) {
+            return AdmissionDecision.allow();
+        }
+        long retryAfter = (long) Math.ceil(waiting * stats.getAvgHoldMillis() / Math.max(1, stats.getSlots()) / 1000.0);
+        return AdmissionDecision.reject(ResultCode.SERVICE_UNAVAILABLE,
+                Math.max(1, Math.min(retryAfter, MAX_RETRY_AFTER_SECONDS)), "上传处理繁忙，请稍后再试");
+    }
+
+    private AdmissionDecision checkRate(String operation, String client) {
+        Bucket bucket = buckets.get(operation);
+        try {
+            List<?> result = redisTemplate.execute(TOKEN_BUCKET_SCRIPT, List.of(KEY_PREFIX + operation + ":" + client),
+                    String.valueOf(bucket.capacity()), String.valueOf(bucket.rate()), "1");
+            if (result == null || ((Number) result.get(0)).longValue() == 1) {
+                return AdmissionDecision.allow();
+            }
+            long retryAfter = Math.max(1, Math.min((long) Math.ceil(((Number) result.get(1)).longValue() / 1000.0),
+                    MAX_RETRY_AFTER_SECONDS));
+            log.info("客户端超过限流: {} {}，{} 秒后可重试", operation, client, retryAfter);
+            return AdmissionDecision.reject(ResultCode.TOO_MANY_REQUESTS, retryAfter,
+                    "请求过于频繁，请 " + retryAfter + " 秒后重试");
+        } catch (Exception e) {
+            log.warn("限流检查失败，放行请求: {}", e.getMessage());
+            return AdmissionDecision.allow();
+        }
+    }
+
+    /**
+     * @param capacity 桶容量，即允许的突发请求数
+     * @param rate     每秒补充的令牌数
+     */
+    private record Bucket(double capacity, double rate) {
+    }
+}
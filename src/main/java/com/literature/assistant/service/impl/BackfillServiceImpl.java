@@ -0,0 +1,327 @@
+package com.literature.assistant.service.impl;
+
+import cn.hutool.core.util.StrUtil;
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.literature.assistant.common.ResultCode;
+import com.literature.assistant.concurrent.CancellationRegistry;
+import com.literature.assistant.concurrent.CancellationToken;
+import com.literature.assistant.concurrent.ExecutorRegistry;
+import com.literature.assistant.concurrent.FairScheduler;
+import com.literature.assistant.dto.BackfillRequest;
+import com.literature.assistant.entity.BackfillJob;
+import com.literature.assistant.entity.Literature;
+import com.literature.assistant.exception.BusinessException;
+import com.literature.assistant.mapper.BackfillJobMapper;
+import com.literature.assistant.mapper.LiteratureMapper;
+import com.literature.assistant.queue.IngestionEventRelay;
+import com.literature.assistant.service.BackfillService;
+import com.literature.assistant.service.LiteratureService;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cursor.Cursor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 批量重处理
+ * <p>
+ * 任务记录在数据库中，由持有租约的节点执行：按 ID 顺序以游标分段读取满足条件的文献（每段只保留 ID，内存占用与文献总数无关），
+ * 逐篇以回填优先级经准入调度后重新生成，并按任务设定的速率限速。每处理一篇记录检查点并续约，
+ * 暂停、取消或节点停机后从检查点继续；节点失联时租约到期，任务由其他节点接手。
+ * 游标只在读取一段 ID 时打开，不在 AI 调用期间长时间占用数据库连接和只读事务。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BackfillServiceImpl implements BackfillService {
+
+    private static final String EXECUTOR = "backfill";
+    private static final int MAX_ERROR_LENGTH = 1000;
+    /**
+     * 两篇之间的间隔不超过租约时长的该比例，限速等待不会让租约过期
+     */
+    private static final int INTERVALS_PER_LEASE = 4;
+    private static final Set<String> OPERATIONS = Set.of(BackfillJob.OPERATION_GUIDE,
+            BackfillJob.OPERATION_CLASSIFY, BackfillJob.OPERATION_ALL);
+
+    private final BackfillJobMapper jobMapper;
+    private final LiteratureMapper literatureMapper;
+    private final LiteratureService literatureService;
+    private final FairScheduler fairScheduler;
+    private final ExecutorRegistry executorRegistry;
+    private final CancellationRegistry cancellationRegistry;
+    private final IngestionEventRelay eventRelay;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${backfill.default-rate:0.5}")
+    private double defaultRate;
+
+    @Value("${backfill.max-rate:5}")
+    private double maxRate;
+
+    @Value("${backfill.concurrency:2}")
+    private int concurrency;
+
+    @Value("${backfill.segment-size:500}")
+    private int segmentSize;
+
+    @Value("${backfill.lease-duration:300}")
+    private long leaseSeconds;
+
+    private final String owner = resolveOwner();
+
+    /**
+     * 本节点正在执行的任务ID
+     */
+    private final Set<String> running = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean accepting;
+
+    @Override
+    public BackfillJob create(BackfillRequest request) {
+        String operation = StrUtil.blankToDefault(request.getOperation(), BackfillJob.OPERATION_ALL).toUpperCase();
+        if (!OPERATIONS.contains(operation)) {
+            throw new BusinessException(ResultCode.BAD_REQUEST, "处理内容只能是 GUIDE、CLASSIFY 或 ALL");
+        }
+        double rate = request.getRate() == null ? defaultRate : request.getRate();
+        if (rate < minRate() || rate > maxRate) {
+            throw new BusinessException(ResultCode.BAD_REQUEST,
+                    "处理速率须在 " + String.format("%.4f", minRate()) + " 到 " + maxRate + " 之间");
+        }
+        BackfillJob job = new BackfillJob();
+        job.setId(UUID.randomUUID().toString());
+        job.setOperation(operation);
+        job.setStatus(BackfillJob.STATUS_RUNNING);
+        job.setCategory(StrUtil.emptyToNull(request.getCategory()));
+        job.setDescription(StrUtil.emptyToNull(request.getDescription()));
+        job.setTags(StrUtil.emptyToNull(request.getTags()));
+        job.setRate(rate);
+        job.setLastId(0L);
+        job.setProcessed(0);
+        job.setFailed(0);
+        jobMapper.insert(job);
+        log.info("创建批量重处理任务: {}，处理内容 {}，速率 {}/秒", job.getId(), operation, rate);
+        return job;
+    }
+
+    @Override
+    public BackfillJob get(String id) {
+        BackfillJob job = jobMapper.selectById(id);
+        if (job == null) {
+            throw new BusinessException(ResultCode.NOT_FOUND, "重处理任务不存在");
+        }
+        return job;
+    }
+
+    @Override
+    public List<BackfillJob> listRecent(int limit) {
+        return jobMapper.selectList(Wrappers.<BackfillJob>lambdaQuery()
+                .orderByDesc(BackfillJob::getCreateTime)
+                .last("LIMIT " + Math.max(1, Math.min(limit, 100))));
+    }
+
+    @Override
+    public void pause(String id) {
+        get(id);
+        if (jobMapper.transition(id, List.of(BackfillJob.STATUS_RUNNING), BackfillJob.STATUS_PAUSED) == 0) {
+            throw new BusinessException("只有执行中的任务可以暂停");
+        }
+    }
+
+    @Override
+    public void resume(String id) {
+        get(id);
+        if (jobMapper.transition(id, List.of(BackfillJob.STATUS_PAUSED), BackfillJob.STATUS_RUNNING) == 0) {
+            throw new BusinessException("只有已暂停的任务可以继续");
+        }
+    }
+
+    @Override
+    public void cancel(String id) {
+        get(id);
+        if (jobMapper.transition(id, List.of(BackfillJob.STATUS_RUNNING, BackfillJob.STATUS_PAUSED),
+                BackfillJob.STATUS_CANCELLED) == 0) {
+            throw new BusinessException("任务已结束");
+        }
+        eventRelay.broadcastCancel(CancellationRegistry.backfillKey(id));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        accepting = true;
+    }
+
+    /**
+     * 领取无节点执行的任务：新建、恢复的任务，以及原节点停机或失联的任务
+     */
+    @Scheduled(fixedDelayString = "${backfill.poll-interval:10000}")
+    public void pollJobs() {
+        if (!accepting) {
+            return;
+        }
+        for (String id : jobMapper.selectResumable()) {
+            if (running.size() >= concurrency) {
+                return;
+            }
+            if (running.contains(id) || jobMapper.acquire(id, owner, leaseSeconds) == 0) {
+                continue;
+            }
+            running.add(id);
+            try {
+                executorRegistry.io(EXECUTOR).execute(() -> {
+                    try {
+                        run(id);
+                    } catch (Exception e) {
+                        log.error("批量重处理任务异常: {}", id, e);
+                    } finally {
+                        running.remove(id);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // 停机中，租约到期后由其他节点接手
+                running.remove(id);
+                return;
+            }
+        }
+    }
+
+    private void run(String id) {
+        BackfillJob job = jobMapper.selectById(id);
+        String cancelKey = CancellationRegistry.backfillKey(id);
+        CancellationToken token = cancellationRegistry.register(cancelKey);
+        long lastId = job.getLastId();
+        int processed = job.getProcessed();
+        int failed = job.getFailed();
+        // 速率下限调整前创建的任务同样按下限执行
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / Math.max(job.getRate(), minRate()));
+        long nextStart = System.nanoTime();
+        log.info("开始执行批量重处理任务: {}，从文献 {} 之后继续", id, lastId);
+        try (CancellationToken.Registration ignored = token.bind()) {
+            while (true) {
+                List<Long> ids = nextSegment(job, lastId);
+                if (ids.isEmpty()) {
+                    jobMapper.markCompleted(id, owner);
+                    log.info("批量重处理任务完成: {}，成功 {} 篇，失败 {} 篇", id, processed, failed);
+                    return;
+                }
+                for (Long literatureId : ids) {
+                    nextStart = throttle(nextStart, intervalNanos, token);
+                    if (!accepting) {
+                        // 停机：租约随后释放，由其他节点从检查点继续
+                        return;
+                    }
+                    String error = null;
+                    try (FairScheduler.Permit permit = fairScheduler.acquire(FairScheduler.Priority.BACKFILL,
+                            cancelKey)) {
+                        literatureService.reprocessLiterature(literatureId, job.isGuide(), job.isClassify());
+                        processed++;
+                    } catch (CancellationException e) {
+                        throw e;
+                    } catch (Exception e) {
+                        if (token.isCancelled()) {
+                            throw new CancellationException("任务已取消");
+                        }
+                        failed++;
+                        error = StrUtil.maxLength(literatureId + ": " + StrUtil.blankToDefault(e.getMessage(),
+                                e.getClass().getSimpleName()), MAX_ERROR_LENGTH - 3);
+                        log.warn("重新处理文献失败: {}", error);
+                    }
+                    lastId = literatureId;
+                    if (jobMapper.checkpoint(id, owner, lastId, processed, failed, error, leaseSeconds) == 0) {
+                        log.info("批量重处理任务已暂停或取消: {}，已处理到文献 {}", id, lastId);
+                        return;
+                    }
+                }
+            }
+        } catch (CancellationException e) {
+            log.info("批量重处理任务已取消: {}，已处理到文献 {}", id, lastId);
+        } finally {
+            cancellationRegistry.unregister(cancelKey, token);
+        }
+    }
+
+    /**
+     * 游标读取检查点之后的一段文献ID；只读事务，配置了从库时在从库读取
+     */
+    private List<Long> nextSegment(BackfillJob job, long afterId) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        return template.execute(status -> {
+            List<Long> ids = new ArrayList<>(segmentSize);
+            try (Cursor<Literature> cursor = literatureMapper.selectCatalogCursor(job.getCategory(),
+                    job.getDescription(), null, job.getTags(), false, afterId, segmentSize)) {
+                cursor.forEach(literature -> ids.add(literature.getId()));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return ids;
+        });
+    }
+
+    /**
+     * 最低速率：间隔不超过租约时长的 1/{@value #INTERVALS_PER_LEASE}
+     */
+    private double minRate() {
+        return (double) INTERVALS_PER_LEASE / leaseSeconds;
+    }
+
+    /**
+     * 等到下一篇的开始时间，返回再下一篇的开始时间；等待期间任务被取消时抛出 CancellationException
+     */
+    private long throttle(long nextStart, long intervalNanos, CancellationToken token) {
+        long wait;
+        while ((wait = nextStart - System.nanoTime()) > 0 && accepting) {
+            token.throwIfCancelled();
+            try {
+                TimeUnit.NANOSECONDS.sleep(Math.min(wait, TimeUnit.SECONDS.toNanos(1)));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException("等待时被中断");
+            }
+        }
+        token.throwIfCancelled();
+        return Math.max(nextStart, System.nanoTime()) + intervalNanos;
+    }
+
+    /**
+     * 停机时等待正在处理的文献完成，释放租约，任务由其他节点从检查点继续
+     */
+    @PreDestroy
+    public void destroy() {
+        accepting = false;
+        executorRegistry.drain(EXECUTOR);
+        int released = jobMapper.releaseLeases(owner);
+        if (released > 0) {
+            log.info("释放批量重处理任务租约 {} 个", released);
+        }
+    }
+
+    private static String resolveOwner() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "unknown";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
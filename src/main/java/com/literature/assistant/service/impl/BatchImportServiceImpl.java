@@ -1,22 +1,49 @@
 package com.literature.assistant.service.impl;
 
+import cn.hutool.core.io.FileUtil;
+import cn.hutool.json.JSONObject;
 import cn.hutool.json.JSONUtil;
+import com.literature.assistant.concurrent.CancellationRegistry;
+import com.literature.assistant.concurrent.CancellationToken;
+import com.literature.assistant.dto.JobProgress;
+import com.literature.assistant.dto.QueueStatus;
+import com.literature.assistant.entity.IngestionJob;
+import com.literature.assistant.entity.IngestionTask;
 import com.literature.assistant.entity.Literature;
 import com.literature.assistant.exception.BusinessException;
 import com.literature.assistant.service.BatchImportService;
+import com.literature.assistant.service.IngestionCancelledEvent;
+import com.literature.assistant.service.IngestionService;
+import com.literature.assistant.service.IngestionTaskFinishedEvent;
 import com.literature.assistant.service.LiteratureService;
+import com.literature.assistant.sse.SseEvent;
+import com.literature.assistant.sse.SseHub;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.compress.archivers.ArchiveEntry;
+import org.apache.commons.compress.archivers.ArchiveException;
+import org.apache.commons.compress.archivers.ArchiveInputStream;
+import org.apache.commons.compress.archivers.ArchiveStreamFactory;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.apache.commons.compress.archivers.zip.ZipArchiveInputStream;
+import org.apache.commons.compress.compressors.CompressorException;
+import org.apache.commons.compress.compressors.CompressorStreamFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.BufferedInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 @Slf4j
 @Service
@@ -24,109 +51,343 @@ import java.util.concurrent.Executors;
 public class BatchImportServiceImpl implements BatchImportService {
 
     private final LiteratureService literatureService;
+    private final IngestionService ingestionService;
+    private final SseHub sseHub;
+    private final CancellationRegistry cancellationRegistry;
 
-    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
-    private final ConcurrentMap<String, MultipartFile[]> filesMap = new ConcurrentHashMap<>();
-    private final ConcurrentMap<String, SseEmitter> emitters = new ConcurrentHashMap<>();
+    private static final long PROGRESS_TIMEOUT = 300000L;
+
+    private final ConcurrentMap<String, ImportJob> jobs = new ConcurrentHashMap<>();
+
+    /**
+     * 任务结束后保留事件日志的时长（毫秒），期间客户端可重新连接查看结果
+     */
+    @Value("${import.job.retention:3600000}")
+    private long jobRetention;
+
+    @Value("${import.archive.max-entries:20000}")
+    private int archiveMaxEntries;
+
+    @Value("${import.archive.zip-encoding:UTF-8}")
+    private String zipEncoding;
 
     @Override
     public String startImport(MultipartFile[] files) {
         validateFiles(files);
-        String importId = UUID.randomUUID().toString();
-        filesMap.put(importId, files);
-        return importId;
+        ImportJob job = createJob(IngestionJob.TYPE_BATCH);
+        job.markStarted();
+        job.publish("start", files.length);
+
+        // 请求结束后容器会删除上传的临时文件，先转存到文件存储并登记为入库任务，由后台线程解析并生成阅读指南
+        for (MultipartFile file : files) {
+            try (InputStream in = file.getInputStream()) {
+                Literature stored = literatureService.storeFile(file.getOriginalFilename(), in, file.getSize());
+                ingestionService.submitIngest(job.getId(), stored);
+            } catch (BusinessException e) {
+                reportEntryError(job, file.getOriginalFilename(), e.getMessage());
+            } catch (IOException e) {
+                log.error("读取上传文件失败: {}", file.getOriginalFilename(), e);
+                reportEntryError(job, file.getOriginalFilename(), "文件保存失败");
+            }
+        }
+        seal(job, files.length);
+        return job.getId();
     }
 
     @Override
-    public SseEmitter connectProgress(String importId) {
-        SseEmitter emitter = new SseEmitter(300000L);
-        emitters.put(importId, emitter);
+    public String startArchiveImport() {
+        return createJob(IngestionJob.TYPE_ARCHIVE).getId();
+    }
 
-        emitter.onCompletion(() -> cleanup(importId));
-        emitter.onTimeout(() -> cleanup(importId));
-        emitter.onError(e -> cleanup(importId));
+    @Override
+    public void cancel(String importId) {
+        ingestionService.cancelJob(importId);
+    }
 
-        executor.execute(() -> process(importId));
-        return emitter;
+    @Override
+    public SseEmitter connectProgress(String importId, Long lastEventId) {
+        ImportJob job = jobs.get(importId);
+        if (job == null) {
+            job = loadJob(importId);
+            if (job == null) {
+                return sseHub.subscribe(importId, PROGRESS_TIMEOUT,
+                        List.of(new SseEvent(null, "error", "导入任务不存在")), true);
+            }
+            ImportJob existing = jobs.putIfAbsent(importId, job);
+            if (existing != null) {
+                job = existing;
+            } else {
+                // 由数据库重建的事件日志序号与客户端之前收到的不同，从头补发
+                lastEventId = null;
+            }
+        }
+        return job.subscribe(lastEventId == null ? 0 : lastEventId, PROGRESS_TIMEOUT);
     }
 
-    private void process(String importId) {
-        MultipartFile[] files = filesMap.get(importId);
-        if (files == null) {
-            try {
-                sendEvent(importId, "error", "导入任务不存在");
-            } catch (IOException ignored) {}
-            completeWithError(importId, new IllegalArgumentException("导入任务不存在"));
+    /**
+     * 子任务结束时推送到对应的导入任务；任务由其他节点执行时事件经 Redis 转发而来
+     */
+    @EventListener
+    public void onTaskFinished(IngestionTaskFinishedEvent event) {
+        ImportJob job = jobs.get(event.jobId());
+        if (job == null) {
             return;
         }
+        if (event.error() == null) {
+            job.publish("file_complete", JSONUtil.createObj()
+                    .set("fileName", event.fileName())
+                    .set("success", true)
+                    .set("literatureId", event.literatureId()));
+        } else {
+            job.publish("file_error", JSONUtil.createObj()
+                    .set("fileName", event.fileName())
+                    .set("error", event.error()));
+        }
+        publishProgress(job, event.progress());
+    }
 
-        try {
-            sendEvent(importId, "start", files.length);
-
-            for (int i = 0; i < files.length; i++) {
-                MultipartFile file = files[i];
-                try {
-                    sendEvent(importId, "progress", "正在处理: " + file.getOriginalFilename());
+    /**
+     * 导入任务被取消时推送最终结果并结束；取消请求可能由任意节点受理，经 Redis 转发而来
+     */
+    @EventListener
+    public void onCancelled(IngestionCancelledEvent event) {
+        String jobId = CancellationRegistry.jobId(event.key());
+        ImportJob job = jobId == null ? null : jobs.get(jobId);
+        if (job == null) {
+            return;
+        }
+        publishCancelled(job, ingestionService.getProgress(jobId));
+    }
 
-                    Literature literature = literatureService.uploadLiterature(file);
+    /**
+     * 清理结束超过保留期的任务，以及创建后一直没有上传压缩包的任务
+     */
+    @Scheduled(fixedDelay = 60000)
+    public void cleanExpiredJobs() {
+        long now = System.currentTimeMillis();
+        jobs.values().removeIf(job -> {
+            if (now - job.getCreateTime() > jobRetention && job.markStarted()) {
+                job.publish("error", "等待上传超时");
+                job.finish();
+                ingestionService.sealJob(job.getId(), 0);
+                return true;
+            }
+            return job.isFinished() && now - job.getFinishTime() > jobRetention;
+        });
+    }
 
-                    sendEvent(importId, "file_complete", JSONUtil.createObj()
-                            .set("fileName", file.getOriginalFilename())
-                            .set("success", true)
-                            .set("literatureId", literature.getId()));
+    @Override
+    public int importArchive(String importId, InputStream body) {
+        ImportJob job = jobs.get(importId);
+        if (job == null) {
+            throw new BusinessException("导入任务不存在");
+        }
+        if (!job.markStarted()) {
+            throw new BusinessException("该任务的压缩包已上传");
+        }
+        // 已登记（含保存失败）的条目数，读取中断时以此确定任务总数
+        int submitted = 0;
+        int queued = 0;
+        String cancelKey = CancellationRegistry.jobKey(importId);
+        CancellationToken token = cancellationRegistry.register(cancelKey);
+        try {
+            job.publish("start", null);
+            try (ArchiveInputStream<? extends ArchiveEntry> archive = openArchive(body)) {
+                ArchiveEntry entry;
+                while ((entry = archive.getNextEntry()) != null) {
+                    String fileName = FileUtil.getName(entry.getName());
+                    if (entry.isDirectory() || isIgnoredEntry(entry.getName(), fileName)) {
+                        continue;
+                    }
+                    // 任务已取消，剩余条目不再读取
+                    token.throwIfCancelled();
+                    if (submitted >= archiveMaxEntries) {
+                        throw new BusinessException("压缩包内文件数超过上限 " + archiveMaxEntries);
+                    }
+                    submitted++;
+                    if (!archive.canReadEntryData(entry)) {
+                        reportEntryError(job, fileName, "不支持的压缩方式");
+                        continue;
+                    }
 
-                } catch (Exception e) {
-                    log.error("文件处理失败: {}", file.getOriginalFilename(), e);
-                    sendEvent(importId, "file_error", JSONUtil.createObj()
-                            .set("fileName", file.getOriginalFilename())
-                            .set("error", e.getMessage()));
+                    // 条目只写入存储并登记，解析由后台线程领取执行，读取速度取决于存储写入
+                    try {
+                        job.publishLatest("progress", "正在保存: " + fileName);
+                        Literature stored = literatureService.storeFile(fileName, archive, entry.getSize());
+                        ingestionService.submitIngest(job.getId(), stored);
+                        queued++;
+                    } catch (BusinessException e) {
+                        reportEntryError(job, fileName, e.getMessage());
+                    }
                 }
+            }
+            seal(job, submitted);
+            return queued;
+        } catch (IOException e) {
+            log.error("读取压缩包失败", e);
+            job.publish("error", "读取压缩包失败: " + e.getMessage());
+            seal(job, submitted);
+            throw new BusinessException("读取压缩包失败");
+        } catch (BusinessException e) {
+            job.publish("error", e.getMessage());
+            seal(job, submitted);
+            throw e;
+        } finally {
+            cancellationRegistry.unregister(cancelKey, token);
+        }
+    }
 
-                sendEvent(importId, "progress_update", JSONUtil.createObj()
-                        .set("current", i + 1)
-                        .set("total", files.length));
+    /**
+     * 识别压缩包格式；外层的 gzip/bzip2 压缩先解开
+     */
+    private ArchiveInputStream<? extends ArchiveEntry> openArchive(InputStream body) throws IOException {
+        InputStream in = new BufferedInputStream(body);
+        try {
+            String compressor = CompressorStreamFactory.detect(in);
+            if (!CompressorStreamFactory.GZIP.equals(compressor) && !CompressorStreamFactory.BZIP2.equals(compressor)) {
+                throw new BusinessException("仅支持 gzip 或 bzip2 压缩的 tar 包");
             }
+            in = new BufferedInputStream(new CompressorStreamFactory().createCompressorInputStream(compressor, in));
+        } catch (CompressorException ignored) {
+            // 没有外层压缩
+        }
+
+        String format;
+        try {
+            format = ArchiveStreamFactory.detect(in);
+        } catch (ArchiveException e) {
+            throw new BusinessException("无法识别的压缩包格式，仅支持 ZIP 和 tar");
+        }
+        if (ArchiveStreamFactory.ZIP.equals(format)) {
+            // 允许带数据描述符的 STORED 条目，否则部分工具生成的 ZIP 无法流式读取
+            return new ZipArchiveInputStream(in, zipEncoding, true, true);
+        }
+        if (ArchiveStreamFactory.TAR.equals(format)) {
+            return new TarArchiveInputStream(in, StandardCharsets.UTF_8.name());
+        }
+        throw new BusinessException("不支持的压缩包格式: " + format);
+    }
 
-            sendEvent(importId, "complete", "批量导入完成");
-            complete(importId);
+    /**
+     * 跳过 macOS 生成的资源文件和隐藏文件
+     */
+    private boolean isIgnoredEntry(String entryName, String fileName) {
+        return entryName.startsWith("__MACOSX/") || fileName.startsWith(".");
+    }
+
+    /**
+     * 条目未能保存，登记为失败的子任务并推送
+     */
+    private void reportEntryError(ImportJob job, String fileName, String error) {
+        ingestionService.recordFailure(job.getId(), fileName, error);
+        job.publish("file_error", JSONUtil.createObj()
+                .set("fileName", fileName)
+                .set("error", error));
+        publishProgress(job, ingestionService.getProgress(job.getId()));
+    }
 
-        } catch (Exception e) {
-            log.error("批量导入异常", e);
-            try {
-                sendEvent(importId, "error", "批量导入失败: " + e.getMessage());
-            } catch (IOException ex) {
-                log.error("SSE发送错误失败", ex);
+    /**
+     * 确定任务的文件总数；已登记的文件恰好全部处理完时直接结束任务
+     */
+    private void seal(ImportJob job, int total) {
+        publishProgress(job, ingestionService.sealJob(job.getId(), total));
+    }
+
+    /**
+     * 定时刷新本节点上进行中任务的排队位置与预计剩余时间，排队期间没有文件完成时客户端也能看到变化
+     */
+    @Scheduled(fixedDelayString = "${import.job.queue-refresh:5000}")
+    public void refreshQueueStatus() {
+        List<String> active = jobs.values().stream()
+                .filter(job -> job.isStarted() && !job.isFinished())
+                .map(ImportJob::getId)
+                .toList();
+        if (active.isEmpty()) {
+            return;
+        }
+        Map<String, QueueStatus> statuses = ingestionService.getQueueStatus(active);
+        for (String jobId : active) {
+            ImportJob job = jobs.get(jobId);
+            if (job != null) {
+                publishProgress(job, ingestionService.getProgress(jobId), statuses.get(jobId));
             }
-            completeWithError(importId, e);
         }
     }
 
-    private void sendEvent(String importId, String eventName, Object data) throws IOException {
-        SseEmitter emitter = emitters.get(importId);
-        if (emitter != null) {
-            emitter.send(SseEmitter.event().name(eventName).data(data));
-        }
+    private void publishProgress(ImportJob job, JobProgress progress) {
+        QueueStatus queue = progress.isCompleted() ? null
+                : ingestionService.getQueueStatus(List.of(job.getId())).get(job.getId());
+        publishProgress(job, progress, queue);
     }
 
-    private void complete(String importId) {
-        SseEmitter emitter = emitters.get(importId);
-        if (emitter != null) {
-            emitter.complete();
+    /**
+     * 推送进度；queue 为排队位置与预计剩余秒数，任务完成时为空
+     */
+    private void publishProgress(ImportJob job, JobProgress progress, QueueStatus queue) {
+        JSONObject data = JSONUtil.createObj()
+                .set("current", progress.getFinished())
+                .set("total", progress.getTotal());
+        if (queue != null) {
+            data.set("position", queue.getPosition())
+                    .set("pending", queue.getPending())
+                    .set("eta", queue.getEtaSeconds());
+        }
+        job.publishLatest("progress_update", data);
+        if (progress.isCompleted()) {
+            job.publish("complete", JSONUtil.createObj()
+                    .set("total", progress.getTotal())
+                    .set("succeeded", progress.getSucceeded())
+                    .set("failed", progress.getFailed()));
+            job.finish();
         }
-        cleanup(importId);
     }
 
-    private void completeWithError(String importId, Exception e) {
-        SseEmitter emitter = emitters.get(importId);
-        if (emitter != null) {
-            emitter.completeWithError(e);
-        }
-        cleanup(importId);
+    private void publishCancelled(ImportJob job, JobProgress progress) {
+        job.publish("cancelled", JSONUtil.createObj()
+                .set("total", progress.getTotal())
+                .set("succeeded", progress.getSucceeded())
+                .set("failed", progress.getFailed()));
+        job.finish();
     }
 
-    private void cleanup(String importId) {
-        emitters.remove(importId);
-        filesMap.remove(importId);
+    private ImportJob createJob(String type) {
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), sseHub);
+        ingestionService.createJob(job.getId(), type);
+        jobs.put(job.getId(), job);
+        return job;
+    }
+
+    /**
+     * 任务不在本节点内存中（服务重启或由其他节点创建）时，由数据库中的任务记录重建事件日志
+     */
+    private ImportJob loadJob(String importId) {
+        IngestionJob record = ingestionService.getJob(importId);
+        if (record == null) {
+            return null;
+        }
+        ImportJob job = new ImportJob(importId, sseHub);
+        job.markStarted();
+        job.publish("start", record.getTotal());
+        for (IngestionTask task : ingestionService.listTasks(importId)) {
+            if (IngestionTask.STATUS_SUCCEEDED.equals(task.getStatus())) {
+                job.publish("file_complete", JSONUtil.createObj()
+                        .set("fileName", task.getFileName())
+                        .set("success", true)
+                        .set("literatureId", task.getLiteratureId()));
+            } else if (IngestionTask.STATUS_FAILED.equals(task.getStatus())) {
+                job.publish("file_error", JSONUtil.createObj()
+                        .set("fileName", task.getFileName())
+                        .set("error", task.getLastError()));
+            }
+        }
+        JobProgress progress = ingestionService.getProgress(importId);
+        if (IngestionJob.STATUS_CANCELLED.equals(record.getStatus())) {
+            publishCancelled(job, progress);
+            return job;
+        }
+        progress.setCompleted(IngestionJob.STATUS_COMPLETED.equals(record.getStatus()));
+        publishProgress(job, progress);
+        return job;
     }
 
     private void validateFiles(MultipartFile[] files) {
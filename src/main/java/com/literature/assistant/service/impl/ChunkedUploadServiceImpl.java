@@ -0,0 +1,493 @@
+package com.literature.assistant.service.impl;
+
+import cn.hutool.core.util.HexUtil;
+import cn.hutool.core.util.StrUtil;
+import cn.hutool.crypto.digest.DigestUtil;
+import cn.hutool.json.JSONObject;
+import cn.hutool.json.JSONUtil;
+import com.literature.assistant.common.ResultCode;
+import com.literature.assistant.concurrent.CancellationRegistry;
+import com.literature.assistant.concurrent.CancellationToken;
+import com.literature.assistant.concurrent.FairScheduler;
+import com.literature.assistant.dto.UploadStatus;
+import com.literature.assistant.entity.Literature;
+import com.literature.assistant.exception.BusinessException;
+import com.literature.assistant.queue.IngestionEventRelay;
+import com.literature.assistant.service.ChunkedUploadService;
+import com.literature.assistant.service.LiteratureService;
+import com.literature.assistant.util.FileUtil;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.BitSet;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Pattern;
+
+/**
+ * 分片上传（类似 tus 协议，但按固定大小的分片序号寻址，以支持并行、乱序上传）
+ * <p>
+ * 每个会话在暂存目录下对应一个数据文件和一个元数据文件。分片先写入单独的暂存文件，校验长度与哈希后
+ * 再按偏移量复制进数据文件，刷盘后才记入元数据，进程重启后已确认的分片不会丢失，出错的重传也不会覆盖已接收的数据。整个文件的 SHA-256 随着从头连续到齐的分片
+ * 逐段推进计算，每个字节只参与一次哈希，完成上传时无需再整体读一遍。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ChunkedUploadServiceImpl implements ChunkedUploadService {
+
+    private static final String DATA_SUFFIX = ".data";
+    private static final String META_SUFFIX = ".json";
+    private static final String PART_SUFFIX = ".part";
+    private static final Pattern UPLOAD_ID_PATTERN = Pattern.compile("[0-9a-f]{32}");
+    private static final Pattern SHA256_PATTERN = Pattern.compile("[0-9a-fA-F]{64}");
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final LiteratureService literatureService;
+    private final CancellationRegistry cancellationRegistry;
+    private final IngestionEventRelay eventRelay;
+    private final FairScheduler fairScheduler;
+
+    @Value("${upload.chunked.path:./data/upload-sessions/}")
+    private String sessionPath;
+
+    @Value("${upload.chunked.chunk-size:5MB}")
+    private DataSize chunkSize;
+
+    @Value("${upload.chunked.session-ttl:86400000}")
+    private long sessionTtl;
+
+    @Value("${file.upload.max-size:50MB}")
+    private DataSize maxFileSize;
+
+    private Path baseDir;
+
+    private final ConcurrentMap<String, Session> sessions = new ConcurrentHashMap<>();
+
+    /**
+     * 上传会话；received、completed 与哈希状态的修改在会话对象上同步
+     */
+    private static class Session {
+        private String uploadId;
+        private String fileName;
+        private long size;
+        private int chunkSize;
+        private String sha256;
+        private long createTime;
+        private BitSet received = new BitSet();
+        private FileChannel channel;
+        private MessageDigest digest;
+        private int hashedChunks;
+        private String contentHash;
+        private boolean completed;
+        private volatile long lastAccess = System.currentTimeMillis();
+
+        int chunkCount() {
+            return (int) ((size + chunkSize - 1) / chunkSize);
+        }
+
+        long chunkLength(int index) {
+            return Math.min(chunkSize, size - (long) index * chunkSize);
+        }
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        baseDir = Paths.get(sessionPath).toAbsolutePath().normalize();
+        Files.createDirectories(baseDir);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        sessions.values().forEach(this::closeQuietly);
+    }
+
+    @Override
+    public UploadStatus createSession(String fileName, long size, String sha256) {
+        if (!FileUtil.isValidFileType(fileName)) {
+            throw new BusinessException("不支持的文件类型，仅支持PDF、Word、Markdown文件");
+        }
+        if (size <= 0) {
+            throw new BusinessException("文件不能为空");
+        }
+        if (size > maxFileSize.toBytes()) {
+            throw new BusinessException("文件大小不能超过" + maxFileSize.toMegabytes() + "MB");
+        }
+        if (StrUtil.isNotBlank(sha256) && !SHA256_PATTERN.matcher(sha256).matches()) {
+            throw new BusinessException(ResultCode.BAD_REQUEST, "sha256 格式不正确");
+        }
+
+        Session session = new Session();
+        session.uploadId = UUID.randomUUID().toString().replace("-", "");
+        session.fileName = fileName;
+        session.size = size;
+        session.chunkSize = (int) chunkSize.toBytes();
+        session.sha256 = StrUtil.isBlank(sha256) ? null : sha256.toLowerCase();
+        session.createTime = System.currentTimeMillis();
+        try {
+            session.channel = FileChannel.open(dataPath(session.uploadId),
+                    StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            session.digest = DigestUtil.digester("SHA-256").getDigest();
+            saveMeta(session);
+        } catch (IOException e) {
+            closeQuietly(session);
+            log.error("创建上传会话失败", e);
+            throw new BusinessException("创建上传会话失败");
+        }
+        sessions.put(session.uploadId, session);
+        return toStatus(session);
+    }
+
+    @Override
+    public UploadStatus getStatus(String uploadId) {
+        Session session = session(uploadId);
+        synchronized (session) {
+            checkOpen(session);
+            return toStatus(session);
+        }
+    }
+
+    @Override
+    public UploadStatus writeChunk(String uploadId, int index, InputStream in, String chunkSha256) {
+        Session session = session(uploadId);
+        if (index < 0 || index >= session.chunkCount()) {
+            throw new BusinessException(ResultCode.BAD_REQUEST, "分片序号超出范围");
+        }
+        synchronized (session) {
+            checkOpen(session);
+            if (session.received.get(index)) {
+                // 重传已接收的分片（如响应丢失后的重试），不再读取和写入
+                return toStatus(session);
+            }
+        }
+        long expected = session.chunkLength(index);
+        long position = (long) index * session.chunkSize;
+
+        // 先写入暂存文件，不同请求各用各的文件，可以并发执行，无需加锁
+        Path part = baseDir.resolve(uploadId + "." + index + "." + UUID.randomUUID() + PART_SUFFIX);
+        try (FileChannel staging = FileChannel.open(part, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MessageDigest chunkDigest = DigestUtil.digester("SHA-256").getDigest();
+            long written = 0;
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int n;
+            while ((n = in.read(buffer)) > 0) {
+                if (written + n > expected) {
+                    throw new BusinessException(ResultCode.BAD_REQUEST, "分片大小不正确，应为 " + expected + " 字节");
+                }
+                chunkDigest.update(buffer, 0, n);
+                ByteBuffer data = ByteBuffer.wrap(buffer, 0, n);
+                while (data.hasRemaining()) {
+                    written += staging.write(data);
+                }
+            }
+            if (written != expected) {
+                throw new BusinessException(ResultCode.BAD_REQUEST, "分片大小不正确，应为 " + expected + " 字节");
+            }
+            if (StrUtil.isNotBlank(chunkSha256)
+                    && !HexUtil.encodeHexStr(chunkDigest.digest()).equalsIgnoreCase(chunkSha256)) {
+                throw new BusinessException(ResultCode.BAD_REQUEST, "分片校验失败");
+            }
+
+            // 校验通过后在锁内复制进数据文件，同一分片的并发重传只有第一个生效
+            synchronized (session) {
+                checkOpen(session);
+                if (session.received.get(index)) {
+                    return toStatus(session);
+                }
+                copy(staging, session.channel, position, expected);
+                session.channel.force(false);
+                session.received.set(index);
+                advanceDigest(session);
+                try {
+                    saveMeta(session);
+                } catch (IOException e) {
+                    session.received.clear(index);
+                    throw e;
+                }
+                return toStatus(session);
+            }
+        } catch (IOException e) {
+            log.warn("写入分片失败: {} #{}", uploadId, index, e);
+            throw new BusinessException("写入分片失败");
+        } finally {
+            try {
+                Files.deleteIfExists(part);
+            } catch (IOException e) {
+                log.warn("删除分片暂存文件失败: {}", part, e);
+            }
+        }
+    }
+
+    private static void copy(FileChannel source, FileChannel target, long position, long count) throws IOException {
+        source.position(0);
+        long copied = 0;
+        while (copied < count) {
+            long n = target.transferFrom(source, position + copied, count - copied);
+            if (n <= 0) {
+                throw new IOException("分片暂存文件长度不足");
+            }
+            copied += n;
+        }
+    }
+
+    @Override
+    public Literature complete(String uploadId) {
+        Session session = session(uploadId);
+        Literature stored;
+        synchronized (session) {
+            checkOpen(session);
+            int missing = session.chunkCount() - session.received.cardinality();
+            if (missing > 0) {
+                throw new BusinessException(ResultCode.BAD_REQUEST, "还有 " + missing + " 个分片未上传");
+            }
+            advanceDigest(session);
+            if (session.contentHash == null) {
+                session.contentHash = HexUtil.encodeHexStr(session.digest.digest());
+            }
+            if (session.sha256 != null && !session.sha256.equals(session.contentHash)) {
+                discard(uploadId);
+                throw new BusinessException(ResultCode.BAD_REQUEST, "文件校验失败，请重新上传");
+            }
+
+            try (InputStream in = Files.newInputStream(dataPath(uploadId))) {
+                stored = literatureService.storeFile(session.fileName, in, session.size);
+            } catch (IOException e) {
+                log.error("读取上传数据失败: {}", uploadId, e);
+                throw new BusinessException("文件保存失败");
+            }
+            // 文件已写入存储，关闭会话后再入库：重复的完成请求不会再生成一篇文献，入库期间也不占用会话锁
+            session.completed = true;
+            discard(uploadId);
+        }
+        // 处理期间可通过取消上传中止解析与 AI 调用
+        String cancelKey = CancellationRegistry.uploadKey(uploadId);
+        CancellationToken token = cancellationRegistry.register(cancelKey);
+        try (CancellationToken.Registration ignored = token.bind()) {
+            return ingest(stored);
+        } finally {
+            cancellationRegistry.unregister(cancelKey, token);
+        }
+    }
+
+    /**
+     * 以交互优先级等待准入槽位后入库；放弃等待时删除已保存的文件
+     */
+    private Literature ingest(Literature stored) {
+        FairScheduler.Permit permit;
+        try {
+            permit = fairScheduler.acquire(FairScheduler.Priority.INTERACTIVE, FairScheduler.UPLOAD_FLOW);
+        } catch (CancellationException e) {
+            literatureService.deleteStoredFile(stored.getFilePath());
+            throw e;
+        }
+        try (permit) {
+            return literatureService.ingestStoredFile(stored, true);
+        }
+    }
+
+    @Override
+    public void cancel(String uploadId) {
+        checkUploadId(uploadId);
+        eventRelay.broadcastCancel(CancellationRegistry.uploadKey(uploadId));
+        discard(uploadId);
+    }
+
+    private void discard(String uploadId) {
+        checkUploadId(uploadId);
+        Session session = sessions.remove(uploadId);
+        if (session != null) {
+            closeQuietly(session);
+        }
+        deleteFiles(uploadId);
+    }
+
+    /**
+     * 清理过期的上传会话
+     */
+    @Scheduled(fixedDelay = 3600000, initialDelay = 60000)
+    public void cleanExpired() {
+        long threshold = System.currentTimeMillis() - sessionTtl;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(baseDir, "*" + META_SUFFIX)) {
+            for (Path meta : files) {
+                String uploadId = StrUtil.removeSuffix(meta.getFileName().toString(), META_SUFFIX);
+                Session session = sessions.get(uploadId);
+                long lastAccess = session != null ? session.lastAccess : Files.getLastModifiedTime(meta).toMillis();
+                if (lastAccess < threshold) {
+                    log.info("清理过期上传会话: {}", uploadId);
+                    discard(uploadId);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("清理上传会话失败", e);
+        }
+        // 进程中断时遗留的分片暂存文件
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(baseDir, "*" + PART_SUFFIX)) {
+            for (Path part : files) {
+                if (Files.getLastModifiedTime(part).toMillis() < threshold) {
+                    Files.deleteIfExists(part);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("清理分片暂存文件失败", e);
+        }
+    }
+
+    private Session session(String uploadId) {
+        checkUploadId(uploadId);
+        Session session = sessions.computeIfAbsent(uploadId, this::loadSession);
+        session.lastAccess = System.currentTimeMillis();
+        return session;
+    }
+
+    /**
+     * 从元数据文件恢复会话（进程重启后），并重新计算已连续到齐部分的哈希
+     */
+    private Session loadSession(String uploadId) {
+        Path meta = metaPath(uploadId);
+        if (!Files.exists(meta)) {
+            throw new BusinessException(ResultCode.NOT_FOUND, "上传会话不存在或已过期");
+        }
+        Session session = new Session();
+        try {
+            JSONObject json = JSONUtil.parseObj(Files.readString(meta, StandardCharsets.UTF_8));
+            session.uploadId = uploadId;
+            session.fileName = json.getStr("fileName");
+            session.size = json.getLong("size");
+            session.chunkSize = json.getInt("chunkSize");
+            session.sha256 = json.getStr("sha256");
+            session.createTime = json.getLong("createTime");
+            for (Integer index : json.getJSONArray("received").toList(Integer.class)) {
+                session.received.set(index);
+            }
+            session.channel = FileChannel.open(dataPath(uploadId), StandardOpenOption.READ, StandardOpenOption.WRITE);
+            session.digest = DigestUtil.digester("SHA-256").getDigest();
+            advanceDigest(session);
+            return session;
+        } catch (IOException | RuntimeException e) {
+            closeQuietly(session);
+            log.error("恢复上传会话失败: {}", uploadId, e);
+            throw new BusinessException("上传会话已损坏，请重新上传");
+        }
+    }
+
+    /**
+     * 把从头开始连续到齐、尚未参与哈希的分片读回并计入整体哈希
+     */
+    private void advanceDigest(Session session) {
+        if (session.contentHash != null) {
+            return;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        try {
+            while (session.hashedChunks < session.chunkCount() && session.received.get(session.hashedChunks)) {
+                long position = (long) session.hashedChunks * session.chunkSize;
+                long end = position + session.chunkLength(session.hashedChunks);
+                while (position < end) {
+                    buffer.clear().limit((int) Math.min(BUFFER_SIZE, end - position));
+                    int n = session.channel.read(buffer, position);
+                    if (n < 0) {
+                        throw new IOException("数据文件长度不足");
+                    }
+                    session.digest.update(buffer.array(), 0, n);
+                    position += n;
+                }
+                session.hashedChunks++;
+            }
+        } catch (IOException e) {
+            log.error("计算上传文件哈希失败: {}", session.uploadId, e);
+            throw new BusinessException("读取上传数据失败");
+        }
+    }
+
+    /**
+     * 元数据先写临时文件再原子替换，避免进程中断时留下半个文件
+     */
+    private void saveMeta(Session session) throws IOException {
+        JSONObject json = JSONUtil.createObj()
+                .set("fileName", session.fileName)
+                .set("size", session.size)
+                .set("chunkSize", session.chunkSize)
+                .set("sha256", session.sha256)
+                .set("createTime", session.createTime)
+                .set("received", session.received.stream().boxed().toList());
+        Path temp = baseDir.resolve(session.uploadId + META_SUFFIX + ".tmp");
+        Files.writeString(temp, json.toString(), StandardCharsets.UTF_8);
+        Files.move(temp, metaPath(session.uploadId), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private UploadStatus toStatus(Session session) {
+        UploadStatus status = new UploadStatus();
+        status.setUploadId(session.uploadId);
+        status.setFileName(session.fileName);
+        status.setSize(session.size);
+        status.setChunkSize(session.chunkSize);
+        status.setChunkCount(session.chunkCount());
+        status.setReceivedChunks(session.received.stream().boxed().toList());
+        status.setReceivedBytes(session.received.stream().mapToLong(session::chunkLength).sum());
+        status.setComplete(session.received.cardinality() == session.chunkCount());
+        return status;
+    }
+
+    /**
+     * 已完成的会话在从会话表移除前仍可能被并发请求取到
+     */
+    private static void checkOpen(Session session) {
+        if (session.completed) {
+            throw new BusinessException(ResultCode.CONFLICT, "上传已完成");
+        }
+    }
+
+    private void checkUploadId(String uploadId) {
+        if (uploadId == null || !UPLOAD_ID_PATTERN.matcher(uploadId).matches()) {
+            throw new BusinessException(ResultCode.NOT_FOUND, "上传会话不存在或已过期");
+        }
+    }
+
+    private Path dataPath(String uploadId) {
+        return baseDir.resolve(uploadId + DATA_SUFFIX);
+    }
+
+    private Path metaPath(String uploadId) {
+        return baseDir.resolve(uploadId + META_SUFFIX);
+    }
+
+    private void deleteFiles(String uploadId) {
+        try {
+            Files.deleteIfExists(metaPath(uploadId));
+            Files.deleteIfExists(dataPath(uploadId));
+        } catch (IOException e) {
+            log.warn("删除上传会话文件失败: {}", uploadId, e);
+        }
+    }
+
+    private void closeQuietly(Session session) {
+        if (session.channel != null) {
+            try {
+                session.channel.close();
+            } catch (IOException ignored) {
+                // 关闭失败不影响后续清理
+            }
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.literature.assistant.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.literature.assistant.concurrent.ExecutorRegistry;
+import com.literature.assistant.dto.DuplicateMatch;
+import com.literature.assistant.entity.Literature;
+import com.literature.assistant.index.MinHashLsh;
+import com.literature.assistant.mapper.LiteratureMapper;
+import com.literature.assistant.service.DuplicateDetectionService;
+import com.literature.assistant.util.FileParser;
+import com.literature.assistant.util.TransactionUtil;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 基于 MinHash + LSH 的近似重复检测；签名持久化在 literature.content_signature，
+ * 内存中只保留分桶索引，候选文献的签名按需从数据库读取
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DuplicateDetectionServiceImpl implements DuplicateDetectionService {
+
+    private final LiteratureMapper literatureMapper;
+    private final FileParser fileParser;
+    private final ExecutorRegistry executorRegistry;
+
+    @Value("${dedup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${dedup.shingle-size:5}")
+    private int shingleSize;
+
+    @Value("${dedup.num-hashes:128}")
+    private int numHashes;
+
+    @Value("${dedup.bands:32}")
+    private int bands;
+
+    @Value("${dedup.flag-threshold:0.7}")
+    private double flagThreshold;
+
+    @Value("${dedup.reuse-threshold:0.9}")
+    private double reuseThreshold;
+
+    private MinHashLsh lsh;
+
+    @PostConstruct
+    public void init() {
+        lsh = new MinHashLsh(shingleSize, numHashes, bands);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (!enabled) {
+            return;
+        }
+        executorRegistry.io("dedup").execute(() -> {
+            try {
+                loadSignatures();
+                backfillSignatures();
+            } catch (Exception e) {
+                log.error("近似重复索引初始化失败", e);
+            }
+        });
+    }
+
+    @Override
+    public byte[] computeSignature(String content) {
+        if (!enabled) {
+            return null;
+        }
+        int[] signature = lsh.signature(content);
+        return signature == null ? null : MinHashLsh.toBytes(signature);
+    }
+
+    @Override
+    public DuplicateMatch findDuplicate(byte[] signature) {
+        if (!enabled || signature == null) {
+            return null;
+        }
+        int[] target = MinHashLsh.fromBytes(signature);
+        Set<Long> candidates = lsh.candidates(target);
+        if (candidates.isEmpty()) {
+            return null;
+        }
+
+        Long bestId = null;
+        double bestSimilarity = 0;
+        for (Literature candidate : literatureMapper.selectSignaturesByIds(candidates)) {
+            int[] candidateSignature = MinHashLsh.fromBytes(candidate.getContentSignature());
+            if (candidateSignature == null) {
+                continue;
+            }
+            if (candidate.getDeleted() != null && candidate.getDeleted() == 1) {
+                // 已删除的文献惰性移出索引
+                lsh.remove(candidate.getId(), candidateSignature);
+                continue;
+            }
+            double similarity = MinHashLsh.similarity(target, candidateSignature);
+            if (similarity > bestSimilarity) {
+                bestSimilarity = similarity;
+                bestId = candidate.getId();
+            }
+        }
+
+        if (bestId == null || bestSimilarity < flagThreshold) {
+            return null;
+        }
+        return new DuplicateMatch(bestId, bestSimilarity, bestSimilarity >= reuseThreshold);
+    }
+
+    @Override
+    public void register(Long id, byte[] signature) {
+        if (!enabled || signature == null) {
+            return;
+        }
+        TransactionUtil.afterCommit(() -> lsh.add(id, MinHashLsh.fromBytes(signature)));
+    }
+
+    private void loadSignatures() {
+        int[] loaded = {0};
+        literatureMapper.selectSignatureSources(ctx -> {
+            Literature literature = ctx.getResultObject();
+            int[] signature = MinHashLsh.fromBytes(literature.getContentSignature());
+            if (signature != null && signature.length == lsh.getNumHashes()) {
+                lsh.add(literature.getId(), signature);
+                loaded[0]++;
+            }
+        });
+        log.info("近似重复索引已加载，文献数: {}", loaded[0]);
+    }
+
+    /**
+     * 为历史数据补算内容签名
+     */
+    private void backfillSignatures() {
+        List<Literature> unsigned = new ArrayList<>();
+        literatureMapper.selectUnsignedSources(ctx -> unsigned.add(ctx.getResultObject()));
+        if (unsigned.isEmpty()) {
+            return;
+        }
+
+        log.info("开始为 {} 篇文献补算内容签名", unsigned.size());
+        for (Literature literature : unsigned) {
+            try {
+                int[] signature = lsh.signature(fileParser.parseFileContent(literature.getFilePath()));
+                if (signature == null) {
+                    continue;
+                }
+                byte[] bytes = MinHashLsh.toBytes(signature);
+                literatureMapper.update(null, new LambdaUpdateWrapper<Literature>()
+                        .eq(Literature::getId, literature.getId())
+                        .set(Literature::getContentSignature, bytes));
+                lsh.add(literature.getId(), signature);
+            } catch (Exception e) {
+                log.warn("补算内容签名失败: {}", literature.getFilePath());
+            }
+        }
+    }
+}
@@ -0,0 +1,362 @@
+package com.literature.assistant.service.impl;
+
+import cn.hutool.core.util.StrUtil;
+import cn.hutool.json.JSONObject;
+import cn.hutool.json.JSONUtil;
+import com.literature.assistant.common.ResultCode;
+import com.literature.assistant.concurrent.ExecutorRegistry;
+import com.literature.assistant.dto.ExportRequest;
+import com.literature.assistant.entity.Literature;
+import com.literature.assistant.exception.BusinessException;
+import com.literature.assistant.mapper.LiteratureMapper;
+import com.literature.assistant.service.ExportService;
+import com.literature.assistant.storage.StorageBackend;
+import com.literature.assistant.util.FileUtil;
+import com.literature.assistant.util.SpoolOutputStream;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.compress.archivers.zip.Zip64Mode;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.ibatis.cursor.Cursor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.ZipEntry;
+
+/**
+ * 批量导出为 ZIP
+ * <p>
+ * 文件先由 I/O 线程池从存储读取到暂存区（小文件在内存，大文件转存临时文件），再由 CPU 线程池压缩到另一暂存区，
+ * 请求线程按顺序把压缩好的数据原样写入 ZIP，边压缩边输出。同时在途的条目数有上限，内存占用与导出总量无关。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ExportServiceImpl implements ExportService {
+
+    private static final String READ_EXECUTOR = "export";
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_NAME_LENGTH = 120;
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final LiteratureMapper literatureMapper;
+    private final StorageBackend storageBackend;
+    private final ExecutorRegistry executorRegistry;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${export.parallelism:4}")
+    private int parallelism;
+
+    @Value("${export.spool-threshold:1048576}")
+    private int spoolThreshold;
+
+    @Value("${export.batch-size:200}")
+    private int batchSize;
+
+    @Value("${export.max-concurrent:2}")
+    private int maxConcurrent;
+
+    private Semaphore exportPermits;
+
+    /**
+     * 压缩完成、等待写入 ZIP 的条目
+     */
+    private record CompressedEntry(Literature literature, ZipArchiveEntry entry, SpoolOutputStream data,
+                                   String error) {
+    }
+
+    @PostConstruct
+    public void init() {
+        exportPermits = new Semaphore(maxConcurrent);
+    }
+
+    @Override
+    public void exportZip(ExportRequest request, OutputStream out) throws IOException {
+        if (!exportPermits.tryAcquire()) {
+            throw new BusinessException(ResultCode.TOO_MANY_REQUESTS, "导出任务过多，请稍后再试");
+        }
+        Deque<Future<CompressedEntry>> window = new ArrayDeque<>();
+        AtomicBoolean aborted = new AtomicBoolean();
+        SpoolOutputStream manifest = request.isIncludeManifest() ? new SpoolOutputStream(spoolThreshold) : null;
+        try {
+            ZipArchiveOutputStream zip = new ZipArchiveOutputStream(out);
+            zip.setUseZip64(Zip64Mode.AsNeeded);
+            zip.setEncoding(StandardCharsets.UTF_8.name());
+
+            int written = 0;
+            long afterId = 0;
+            while (true) {
+                List<Literature> batch = literatureMapper.selectExportSources(request.getIds(), request.getCategory(),
+                        request.getDescription(), request.getReadingGuide(), request.getTags(),
+                        request.isIncludeGuide(), afterId, batchSize);
+                for (Literature literature : batch) {
+                    window.add(CompletableFuture
+                            .supplyAsync(() -> read(literature, aborted), executorRegistry.io(READ_EXECUTOR))
+                            .thenApplyAsync(raw -> compress(literature, raw, aborted), executorRegistry.cpu()));
+                    if (window.size() >= parallelism) {
+                        writeEntry(zip, window.poll(), request, manifest);
+                        written++;
+                    }
+                    afterId = literature.getId();
+                }
+                if (batch.size() < batchSize) {
+                    break;
+                }
+            }
+            while (!window.isEmpty()) {
+                writeEntry(zip, window.poll(), request, manifest);
+                written++;
+            }
+
+            if (manifest != null) {
+                manifest.close();
+                ZipArchiveEntry entry = new ZipArchiveEntry("manifest.ndjson");
+                zip.putArchiveEntry(entry);
+                try (InputStream in = manifest.openInputStream()) {
+                    in.transferTo(zip);
+                }
+                zip.closeArchiveEntry();
+            }
+            zip.finish();
+            zip.flush();
+            log.info("批量导出完成，文献数: {}", written);
+        } finally {
+            // 客户端中途断开时尚未开始的读取与压缩直接跳过，已在执行的等其结束后清理暂存
+            aborted.set(true);
+            for (Future<CompressedEntry> future : window) {
+                discard(future);
+            }
+            if (manifest != null) {
+                manifest.discard();
+            }
+            exportPermits.release();
+        }
+    }
+
+    @Override
+    public void exportNdjson(ExportRequest request, long afterId, OutputStream out) throws IOException {
+        if (!exportPermits.tryAcquire()) {
+            throw new BusinessException(ResultCode.TOO_MANY_REQUESTS, "导出任务过多，请稍后再试");
+        }
+        try {
+            OutputStream buffered = new BufferedOutputStream(out, BUFFER_SIZE);
+            // 只读事务：配置了从库时在从库上游标读取，不占用主库
+            TransactionTemplate template = new TransactionTemplate(transactionManager);
+            template.setReadOnly(true);
+            long written = template.execute(status -> {
+                long count = 0;
+                try (Cursor<Literature> cursor = literatureMapper.selectCatalogCursor(request.getCategory(),
+                        request.getDescription(), request.getReadingGuide(), request.getTags(),
+                        request.isIncludeGuide(), afterId, null)) {
+                    for (Literature literature : cursor) {
+                        JSONObject line = metadata(literature)
+                                .set("fileType", literature.getFileType())
+                                .set("duplicateOf", literature.getDuplicateOf())
+                                .set("createTime", formatTime(literature.getCreateTime()))
+                                .set("updateTime", formatTime(literature.getUpdateTime()));
+                        if (request.isIncludeGuide()) {
+                            line.set("readingGuide", literature.getReadingGuide());
+                        }
+                        buffered.write((line.toString() + "\n").getBytes(StandardCharsets.UTF_8));
+                        count++;
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return count;
+            });
+            buffered.flush();
+            log.info("目录导出完成，文献数: {}", written);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            exportPermits.release();
+        }
+    }
+
+    /**
+     * 从存储读取原文件到暂存区；读取失败或导出已中止时返回 null
+     */
+    private SpoolOutputStream read(Literature literature, AtomicBoolean aborted) {
+        if (aborted.get()) {
+            return null;
+        }
+        SpoolOutputStream spool = new SpoolOutputStream(spoolThreshold);
+        try (InputStream in = storageBackend.get(literature.getFilePath()); spool) {
+            in.transferTo(spool);
+            return spool;
+        } catch (IOException e) {
+            spool.discard();
+            log.warn("导出时读取文件失败: {}", literature.getFilePath(), e);
+            return null;
+        }
+    }
+
+    private CompressedEntry compress(Literature literature, SpoolOutputStream raw, AtomicBoolean aborted) {
+        if (raw == null || aborted.get()) {
+            if (raw != null) {
+                raw.discard();
+            }
+            return new CompressedEntry(literature, null, null, "文件读取失败");
+        }
+        SpoolOutputStream spool = new SpoolOutputStream(spoolThreshold);
+        Deflater deflater = new Deflater(compressionLevel(literature.getFileType()), true);
+        CRC32 crc = new CRC32();
+        long size = 0;
+        try (InputStream in = raw.openInputStream();
+             DeflaterOutputStream deflated = new DeflaterOutputStream(spool, deflater, BUFFER_SIZE)) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int n;
+            while ((n = in.read(buffer)) > 0) {
+                crc.update(buffer, 0, n);
+                deflated.write(buffer, 0, n);
+                size += n;
+            }
+        } catch (IOException e) {
+            spool.discard();
+            log.warn("导出时压缩文件失败: {}", literature.getFilePath(), e);
+            return new CompressedEntry(literature, null, null, "文件压缩失败");
+        } finally {
+            deflater.end();
+            raw.discard();
+        }
+
+        ZipArchiveEntry entry = new ZipArchiveEntry(filePathInZip(literature));
+        entry.setMethod(ZipEntry.DEFLATED);
+        entry.setCrc(crc.getValue());
+        entry.setSize(size);
+        entry.setCompressedSize(spool.size());
+        setTime(entry, literature);
+        return new CompressedEntry(literature, entry, spool, null);
+    }
+
+    private void writeEntry(ZipArchiveOutputStream zip, Future<CompressedEntry> future, ExportRequest request,
+                            SpoolOutputStream manifest) throws IOException {
+        CompressedEntry compressed;
+        try {
+            compressed = future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("导出被中断", e);
+        } catch (ExecutionException e) {
+            throw new IOException("压缩文件失败", e.getCause());
+        }
+
+        Literature literature = compressed.literature();
+        String guidePath = null;
+        if (compressed.entry() != null) {
+            try (InputStream in = compressed.data().openInputStream()) {
+                zip.addRawArchiveEntry(compressed.entry(), in);
+            } finally {
+                compressed.data().discard();
+            }
+        }
+        if (request.isIncludeGuide() && StrUtil.isNotBlank(literature.getReadingGuide())) {
+            guidePath = "guides/" + literature.getId() + "_" + sanitize(literature.getTitle()) + ".md";
+            ZipArchiveEntry entry = new ZipArchiveEntry(guidePath);
+            setTime(entry, literature);
+            zip.putArchiveEntry(entry);
+            zip.write(literature.getReadingGuide().getBytes(StandardCharsets.UTF_8));
+            zip.closeArchiveEntry();
+        }
+
+        if (manifest != null) {
+            JSONObject line = metadata(literature)
+                    .set("file", compressed.entry() != null ? compressed.entry().getName() : null)
+                    .set("guide", guidePath)
+                    .set("error", compressed.error());
+            manifest.write((line.toString() + "\n").getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * 元数据清单与 NDJSON 导出共用的字段
+     */
+    private static JSONObject metadata(Literature literature) {
+        return JSONUtil.createObj()
+                .set("id", literature.getId())
+                .set("title", literature.getTitle())
+                .set("originalFileName", literature.getOriginalFileName())
+                .set("fileSize", literature.getFileSize())
+                .set("contentHash", literature.getContentHash())
+                .set("category", literature.getCategory())
+                .set("tags", literature.getTags())
+                .set("author", literature.getAuthor())
+                .set("publishYear", literature.getPublishYear())
+                .set("description", literature.getDescription());
+    }
+
+    private static String formatTime(LocalDateTime time) {
+        return time == null ? null : TIME_FORMATTER.format(time);
+    }
+
+    private void discard(Future<CompressedEntry> future) {
+        try {
+            CompressedEntry compressed = future.get();
+            if (compressed.data() != null) {
+                compressed.data().discard();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException ignored) {
+            // 压缩失败的条目没有暂存数据
+        }
+    }
+
+    /**
+     * PDF、docx 本身已是压缩格式，只做最快压缩；文本类文件使用默认压缩级别
+     */
+    private static int compressionLevel(String fileType) {
+        String type = StrUtil.nullToEmpty(fileType).toLowerCase();
+        return ".pdf".equals(type) || ".docx".equals(type) ? Deflater.BEST_SPEED : Deflater.DEFAULT_COMPRESSION;
+    }
+
+    private static String filePathInZip(Literature literature) {
+        return "files/" + literature.getId() + "_" + sanitize(literature.getOriginalFileName());
+    }
+
+    private static void setTime(ZipArchiveEntry entry, Literature literature) {
+        if (literature.getCreateTime() != null) {
+            entry.setTime(literature.getCreateTime().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        }
+    }
+
+    /**
+     * 去掉文件名中不能出现在 ZIP 路径里的字符，过长时截断主名保留扩展名
+     */
+    private static String sanitize(String name) {
+        String cleaned = StrUtil.nullToEmpty(name).replaceAll("[\\\\/:*?\"<>|\\p{Cntrl}]", "_").trim();
+        if (cleaned.isEmpty()) {
+            return "untitled";
+        }
+        if (cleaned.length() <= MAX_NAME_LENGTH) {
+            return cleaned;
+        }
+        String extension = FileUtil.getFileExtension(cleaned);
+        return cleaned.substring(0, MAX_NAME_LENGTH - extension.length()) + extension;
+    }
+}
@@ -0,0 +1,224 @@
+package com.literature.assistant.service.impl;
+
+import cn.hutool.core.util.StrUtil;
+import com.literature.assistant.dto.FacetBucket;
+import com.literature.assistant.dto.FacetCounts;
+import com.literature.assistant.entity.Literature;
+import com.literature.assistant.mapper.LiteratureMapper;
+import com.literature.assistant.service.FacetService;
+import com.literature.assistant.util.TransactionUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * 分面计数器：写入时增量维护，定时与数据库对账，避免侧边栏每次都做 GROUP BY 扫描
+ * <p>
+ * 对账查询期间到达的增量同时记录下来，替换前重放到新计数器上，不会因替换而丢失。
+ * 对账的几条查询在主库的同一个可重复读事务中执行，读到的是同一个快照
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FacetServiceImpl implements FacetService {
+
+    private final LiteratureMapper literatureMapper;
+    private final PlatformTransactionManager transactionManager;
+
+    private volatile Counters counters = new Counters();
+
+    /**
+     * 对账期间记录的增量，不对账时为 null；与增量的应用、计数器的替换一起在 this 上同步
+     */
+    private List<Consumer<Counters>> replay;
+
+    private final ReentrantLock reconcileLock = new ReentrantLock();
+
+    @Override
+    @Transactional(readOnly = true)
+    public FacetCounts getFacetCounts(String category, String description, String readingGuide, String tags) {
+        if (StrUtil.isAllBlank(category, description, readingGuide, tags)) {
+            return counters.snapshot();
+        }
+        return queryFacetCounts(category, description, readingGuide, tags);
+    }
+
+    @Override
+    public void onInserted(Literature literature) {
+        TransactionUtil.afterCommit(() -> apply(current -> current.apply(literature, 1)));
+    }
+
+    @Override
+    public void onUpdated(Literature before, Literature after) {
+        if (Objects.equals(before.getCategory(), after.getCategory())
+                && Objects.equals(before.getTags(), after.getTags())
+                && Objects.equals(before.getPublishYear(), after.getPublishYear())) {
+            return;
+        }
+        TransactionUtil.afterCommit(() -> apply(current -> {
+            current.applyFacets(before, -1);
+            current.applyFacets(after, 1);
+        }));
+    }
+
+    @Override
+    public void onDeleted(Literature literature) {
+        TransactionUtil.afterCommit(() -> apply(current -> current.apply(literature, -1)));
+    }
+
+    private synchronized void apply(Consumer<Counters> delta) {
+        delta.accept(counters);
+        if (replay != null) {
+            replay.add(delta);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        try {
+            reconcile();
+        } catch (Exception e) {
+            log.warn("初始化分面计数失败，将在下次对账时重试", e);
+        }
+    }
+
+    @Override
+    @Scheduled(initialDelayString = "${facet.reconcile-interval:600000}",
+            fixedDelayString = "${facet.reconcile-interval:600000}")
+    public void reconcile() {
+        reconcileLock.lock();
+        try {
+            // 建立快照前开始记录，快照之后提交的增量都会重放，不会遗漏。
+            // 开始记录到建立快照之间提交的事务已在快照中，其增量又被重放，会多计一次；
+            // 这个窗口只有几毫秒，误差在下次对账时校正
+            synchronized (this) {
+                replay = new ArrayList<>();
+            }
+            // 不设只读：从库有延迟，快照须取自主库
+            TransactionTemplate template = new TransactionTemplate(transactionManager);
+            template.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+            FacetCounts fresh = template.execute(status -> queryFacetCounts(null, null, null, null));
+
+            Counters rebuilt = new Counters();
+            rebuilt.total.set(fresh.getTotal());
+            fresh.getCategories().forEach((k, v) -> rebuilt.categories.computeIfAbsent(k, x -> new LongAdder()).add(v));
+            fresh.getTags().forEach((k, v) -> rebuilt.tags.computeIfAbsent(k, x -> new LongAdder()).add(v));
+            fresh.getYears().forEach((k, v) -> rebuilt.years.computeIfAbsent(k, x -> new LongAdder()).add(v));
+
+            Counters previous;
+            synchronized (this) {
+                replay.forEach(delta -> delta.accept(rebuilt));
+                previous = counters;
+                counters = rebuilt;
+            }
+            if (previous.total.get() != rebuilt.total.get()) {
+                log.info("分面计数对账完成，总数校正: {} -> {}", previous.total.get(), rebuilt.total.get());
+            }
+        } finally {
+            synchronized (this) {
+                replay = null;
+            }
+            reconcileLock.unlock();
+        }
+    }
+
+    private FacetCounts queryFacetCounts(String category, String description, String readingGuide, String tags) {
+        FacetCounts result = new FacetCounts();
+        result.setTotal(literatureMapper.countLiterature(category, description, readingGuide, tags));
+
+        literatureMapper.selectCategoryFacets(category, description, readingGuide, tags).stream()
+                .sorted(Comparator.comparing(FacetBucket::getCount).reversed())
+                .forEach(b -> result.getCategories().put(b.getValue(), b.getCount()));
+
+        literatureMapper.selectYearFacets(category, description, readingGuide, tags).stream()
+                .sorted(Comparator.comparing(FacetBucket::getCount).reversed())
+                .forEach(b -> result.getYears().put(Integer.valueOf(b.getValue()), b.getCount()));
+
+        Map<String, Long> tagCounts = new ConcurrentHashMap<>();
+        literatureMapper.selectTagColumn(category, description, readingGuide, tags, ctx -> {
+            for (String tag : splitTags(ctx.getResultObject())) {
+                tagCounts.merge(tag, 1L, Long::sum);
+            }
+        });
+        result.setTags(sortByCount(tagCounts));
+        return result;
+    }
+
+    private static Set<String> splitTags(String tags) {
+        if (StrUtil.isBlank(tags)) {
+            return Set.of();
+        }
+        return StrUtil.split(tags, ',', true, true).stream().collect(Collectors.toSet());
+    }
+
+    private static <K> Map<K, Long> sortByCount(Map<K, Long> counts) {
+        return counts.entrySet().stream()
+                .filter(e -> e.getValue() > 0)
+                .sorted(Map.Entry.<K, Long>comparingByValue().reversed())
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (a, b) -> a, LinkedHashMap::new));
+    }
+
+    /**
+     * 一组计数器；对账时整体替换
+     */
+    private static class Counters {
+        private final AtomicLong total = new AtomicLong();
+        private final ConcurrentMap<String, LongAdder> categories = new ConcurrentHashMap<>();
+        private final ConcurrentMap<String, LongAdder> tags = new ConcurrentHashMap<>();
+        private final ConcurrentMap<Integer, LongAdder> years = new ConcurrentHashMap<>();
+
+        void apply(Literature literature, int delta) {
+            total.addAndGet(delta);
+            applyFacets(literature, delta);
+        }
+
+        void applyFacets(Literature literature, int delta) {
+            if (StrUtil.isNotBlank(literature.getCategory())) {
+                categories.computeIfAbsent(literature.getCategory(), k -> new LongAdder()).add(delta);
+            }
+            for (String tag : splitTags(literature.getTags())) {
+                tags.computeIfAbsent(tag, k -> new LongAdder()).add(delta);
+            }
+            if (literature.getPublishYear() != null) {
+                years.computeIfAbsent(literature.getPublishYear(), k -> new LongAdder()).add(delta);
+            }
+        }
+
+        FacetCounts snapshot() {
+            FacetCounts result = new FacetCounts();
+            result.setTotal(total.get());
+            result.setCategories(sortByCount(sum(categories)));
+            result.setTags(sortByCount(sum(tags)));
+            result.setYears(sortByCount(sum(years)));
+            return result;
+        }
+
+        private static <K> Map<K, Long> sum(ConcurrentMap<K, LongAdder> adders) {
+            Map<K, Long> values = new LinkedHashMap<>();
+            adders.forEach((k, v) -> values.put(k, v.sum()));
+            return values;
+        }
+    }
+}
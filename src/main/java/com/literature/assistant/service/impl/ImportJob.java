@@ -0,0 +1,120 @@
+package com.literature.assistant.service.impl;
+
+import com.literature.assistant.sse.SseEvent;
+import com.literature.assistant.sse.SseHub;
+import lombok.Getter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 一个导入任务的事件日志
+ * <p>
+ * 任务的执行与是否有浏览器在观看无关。事件按序号依次记录并推送给所有订阅者，断线重连的客户端凭
+ * Last-Event-ID 补发错过的事件后继续接收新事件；进度类的可合并事件在日志中每种只保留最新一条。
+ * 记录与推送在同一把锁内完成，补发与实时推送之间不会漏发或重发。
+ */
+class ImportJob {
+
+    @Getter
+    private final String id;
+
+    private final SseHub sseHub;
+
+    @Getter
+    private final long createTime = System.currentTimeMillis();
+
+    /**
+     * 序号 -> 事件，按序号递增排列
+     */
+    private final LinkedHashMap<Long, SseEvent> events = new LinkedHashMap<>();
+
+    /**
+     * 可合并事件名 -> 日志中该事件的序号
+     */
+    private final Map<String, Long> latestSeq = new HashMap<>();
+
+    private long nextSeq = 1;
+
+    /**
+     * 结束时间，未结束时为 0
+     */
+    @Getter
+    private volatile long finishTime;
+
+    private final AtomicBoolean started = new AtomicBoolean();
+
+    ImportJob(String id, SseHub sseHub) {
+        this.id = id;
+        this.sseHub = sseHub;
+    }
+
+    /**
+     * 标记任务开始执行；已开始过返回 false，防止重复执行
+     */
+    boolean markStarted() {
+        return started.compareAndSet(false, true);
+    }
+
+    boolean isStarted() {
+        return started.get();
+    }
+
+    boolean isFinished() {
+        return finishTime != 0;
+    }
+
+    synchronized void publish(String name, Object data) {
+        if (isFinished()) {
+            return;
+        }
+        SseEvent event = new SseEvent(nextSeq++, name, data);
+        events.put(event.id(), event);
+        sseHub.publish(id, event);
+    }
+
+    /**
+     * 发布可合并事件，日志中替换同名的旧事件
+     */
+    synchronized void publishLatest(String name, Object data) {
+        if (isFinished()) {
+            return;
+        }
+        SseEvent event = new SseEvent(nextSeq++, name, data);
+        Long previous = latestSeq.put(name, event.id());
+        if (previous != null) {
+            events.remove(previous);
+        }
+        events.put(event.id(), event);
+        sseHub.publishLatest(id, event);
+    }
+
+    /**
+     * 订阅任务进度：先补发序号大于 lastEventId 的事件，再接收新事件；任务已结束时补发完即关闭
+     */
+    synchronized SseEmitter subscribe(long lastEventId, long timeout) {
+        List<SseEvent> replay = new ArrayList<>();
+        for (SseEvent event : events.values()) {
+            if (event.id() > lastEventId) {
+                replay.add(event);
+            }
+        }
+        return sseHub.subscribe(id, timeout, replay, isFinished());
+    }
+
+    /**
+     * 结束任务，订阅者收完已发布的事件后断开
+     */
+    synchronized void finish() {
+        if (isFinished()) {
+            return;
+        }
+        finishTime = System.currentTimeMillis();
+        sseHub.complete(id);
+    }
+}
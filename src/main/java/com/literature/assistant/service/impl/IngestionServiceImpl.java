@@ -0,0 +1,628 @@
+package com.literature.assistant.service.impl;
+
+import cn.hutool.core.util.StrUtil;
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.literature.assistant.common.ResultCode;
+import com.literature.assistant.concurrent.CancellationRegistry;
+import com.literature.assistant.concurrent.CancellationToken;
+import com.literature.assistant.concurrent.ExecutorRegistry;
+import com.literature.assistant.concurrent.FairScheduler;
+import com.literature.assistant.concurrent.GroupCommitter;
+import com.literature.assistant.dto.FlowBacklog;
+import com.literature.assistant.dto.JobProgress;
+import com.literature.assistant.dto.QueueStatus;
+import com.literature.assistant.entity.IngestionJob;
+import com.literature.assistant.entity.IngestionTask;
+import com.literature.assistant.entity.Literature;
+import com.literature.assistant.exception.BusinessException;
+import com.literature.assistant.mapper.IngestionJobMapper;
+import com.literature.assistant.mapper.IngestionTaskMapper;
+import com.literature.assistant.metrics.LiteratureMetrics;
+import com.literature.assistant.queue.IngestionEventRelay;
+import com.literature.assistant.queue.IngestionStream;
+import com.literature.assistant.service.IngestionService;
+import com.literature.assistant.service.IngestionTaskFinishedEvent;
+import com.literature.assistant.service.LiteratureService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 入库任务的登记与执行
+ * <p>
+ * 子任务登记后由定时投递按公平顺序投递到 Redis Stream：各导入任务轮流投递，流中已投递未领取的消息不超过窗口大小，
+ * 后提交的小批量导入不必排在大批量导入的全部文件之后（SELECT ... FOR UPDATE SKIP LOCKED 避免多节点重复投递）。
+ * 各节点作为同一消费组的消费者按本节点的空闲并发数读取消息，领取到租约的任务经准入调度后在本节点执行，
+ * 执行期间定时续约；宕机节点未确认的消息由其他节点接管，投递丢失、重试到期或租约被收回的任务重新投递。
+ * 文献在事务外解析并生成 AI 结果后进入组提交：短时间内完成的多个子任务在同一事务中先锁定仍持有租约的任务，
+ * 再以一条多行 INSERT 写入文献、一条 UPDATE 标记成功；节点停机或失联后任务被其他节点重新领取，
+ * 原节点迟到的提交不会写入文献，不会产生重复文献。失败的任务延迟重试，超过次数上限后标记失败并删除已存储的文件。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class IngestionServiceImpl implements IngestionService {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+    private static final int THROUGHPUT_WINDOW_SECONDS = 300;
+    private static final String EXECUTOR = "ingestion";
+    private static final String COMMIT_EXECUTOR = "ingestion-commit";
+    private static final String CANCELLED_ERROR = "已取消";
+
+    /**
+     * 消费者超过该时长未读取消息视为节点已停机
+     */
+    private static final Duration STALE_CONSUMER_IDLE = Duration.ofHours(6);
+
+    private final IngestionJobMapper jobMapper;
+    private final IngestionTaskMapper taskMapper;
+    private final IngestionStream ingestionStream;
+    private final IngestionEventRelay eventRelay;
+    private final LiteratureService literatureService;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorRegistry executorRegistry;
+    private final CancellationRegistry cancellationRegistry;
+    private final FairScheduler fairScheduler;
+    private final LiteratureMetrics metrics;
+
+    @Value("${ingestion.worker.concurrency:4}")
+    private int concurrency;
+
+    @Value("${ingestion.lease-duration:60}")
+    private int leaseSeconds;
+
+    @Value("${ingestion.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${ingestion.retry-delay:30}")
+    private int retryDelaySeconds;
+
+    /**
+     * 已投递但超过该时长（秒）仍未被领取的任务重新投递，弥补丢失的消息
+     */
+    @Value("${ingestion.redispatch-after:600}")
+    private int redispatchSeconds;
+
+    /**
+     * 已投递、尚未被领取的任务数上限；流中积压越少，新提交的导入越早被轮到
+     */
+    @Value("${ingestion.dispatch-window:32}")
+    private int dispatchWindow;
+
+    /**
+     * 消息超过该时长（秒）未确认即由其他节点接管，应大于租约时长，此时原节点的租约已被收回
+     */
+    @Value("${ingestion.stream.claim-idle:120}")
+    private long claimIdleSeconds;
+
+    /**
+     * 组提交单批最多的文献数，以及收集一批的最长等待时间（毫秒）
+     */
+    @Value("${ingestion.commit.batch-size:64}")
+    private int commitBatchSize;
+
+    @Value("${ingestion.commit.max-delay:20}")
+    private long commitMaxDelay;
+
+    @Value("${ingestion.heartbeat-interval:20000}")
+    private long heartbeatInterval;
+
+    @Value("${ingestion.seal-after:21600}")
+    private long sealAfterSeconds;
+
+    @Value("${ingestion.retention-days:7}")
+    private int retentionDays;
+
+    private final String owner = resolveOwner();
+
+    /**
+     * 本节点正在执行的子任务ID
+     */
+    private final Set<Long> running = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean accepting;
+
+    private GroupCommitter<IngestCommit, Long> committer;
+
+    @PostConstruct
+    public void init() {
+        committer = new GroupCommitter<>("文献入库", commitBatchSize, commitMaxDelay, this::commitIngested);
+        committer.start(executorRegistry.io(COMMIT_EXECUTOR));
+        executorRegistry.leaseScheduler().scheduleWithFixedDelay(this::renewLeases, Duration.ofMillis(heartbeatInterval));
+    }
+
+    @Override
+    public void createJob(String jobId, String type) {
+        IngestionJob job = new IngestionJob();
+        job.setId(jobId);
+        job.setType(type);
+        job.setStatus(IngestionJob.STATUS_RUNNING);
+        jobMapper.insert(job);
+    }
+
+    @Override
+    public void submitIngest(String jobId, Literature stored) {
+        IngestionTask task = new IngestionTask();
+        task.setJobId(jobId);
+        task.setType(IngestionTask.TYPE_INGEST);
+        task.setStatus(IngestionTask.STATUS_PENDING);
+        task.setFileName(stored.getOriginalFileName());
+        task.setFilePath(stored.getFilePath());
+        task.setFileSize(stored.getFileSize());
+        task.setContentHash(stored.getContentHash());
+        taskMapper.insert(task);
+    }
+
+    @Override
+    public void recordFailure(String jobId, String fileName, String error) {
+        IngestionTask task = new IngestionTask();
+        task.setJobId(jobId);
+        task.setType(IngestionTask.TYPE_INGEST);
+        task.setStatus(IngestionTask.STATUS_FAILED);
+        task.setFileName(fileName);
+        task.setLastError(StrUtil.maxLength(error, MAX_ERROR_LENGTH - 3));
+        taskMapper.insert(task);
+    }
+
+    @Override
+    public JobProgress sealJob(String jobId, int total) {
+        IngestionJob update = new IngestionJob();
+        update.setId(jobId);
+        update.setTotal(total);
+        jobMapper.updateById(update);
+        return checkJob(jobId);
+    }
+
+    @Override
+    public void cancelJob(String jobId) {
+        List<String> filePaths = transactionTemplate.execute(status -> {
+            IngestionJob job = jobMapper.selectById(jobId);
+            if (job == null) {
+                throw new BusinessException(ResultCode.NOT_FOUND, "导入任务不存在");
+            }
+            // 锁定未结束的子任务，此后其他节点提交的结果因失去租约而回滚，文件可以安全删除
+            List<String> paths = taskMapper.selectUnfinishedFilePaths(jobId);
+            taskMapper.cancelJobTasks(jobId, CANCELLED_ERROR);
+            JobProgress progress = taskMapper.selectJobProgress(jobId);
+            if (jobMapper.markCancelled(jobId, progress.getTotal(), progress.getSucceeded(), progress.getFailed()) == 0) {
+                throw new BusinessException("导入任务已结束");
+            }
+            return paths;
+        });
+        log.info("取消导入任务: {}，未处理的文件 {} 个", jobId, filePaths.size());
+        filePaths.forEach(literatureService::deleteStoredFile);
+        eventRelay.broadcastCancel(CancellationRegistry.jobKey(jobId));
+    }
+
+    @Override
+    public JobProgress getProgress(String jobId) {
+        IngestionJob job = jobMapper.selectById(jobId);
+        JobProgress progress = taskMapper.selectJobProgress(jobId);
+        if (job != null && job.getTotal() != null) {
+            progress.setTotal(job.getTotal());
+        }
+        return progress;
+    }
+
+    @Override
+    public IngestionJob getJob(String jobId) {
+        return jobMapper.selectById(jobId);
+    }
+
+    @Override
+    public List<IngestionTask> listTasks(String jobId) {
+        return taskMapper.selectList(Wrappers.<IngestionTask>lambdaQuery()
+                .eq(IngestionTask::getJobId, jobId)
+                .eq(IngestionTask::getType, IngestionTask.TYPE_INGEST)
+                .orderByAsc(IngestionTask::getId));
+    }
+
+    /**
+     * 启动时收回已过期的租约（上次停机未释放的任务），并补全上传中断的导入任务，然后开始领取任务
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverOnStartup() {
+        int reclaimed = taskMapper.reclaimExpired();
+        if (reclaimed > 0) {
+            log.info("收回过期的入库任务 {} 个", reclaimed);
+        }
+        recoverJobs();
+        accepting = true;
+        log.info("入库任务执行节点已启动: {}", owner);
+    }
+
+    /**
+     * 按本节点的空闲并发数从消息流读取新任务
+     */
+    @Scheduled(fixedDelayString = "${ingestion.poll-interval:1000}")
+    public void poll() {
+        if (!accepting) {
+            return;
+        }
+        try {
+            int capacity;
+            while ((capacity = concurrency - running.size()) > 0) {
+                List<IngestionStream.Message> messages = ingestionStream.read(owner, capacity);
+                if (messages.isEmpty()) {
+                    break;
+                }
+                handle(messages);
+            }
+        } catch (Exception e) {
+            log.warn("读取入库任务消息失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 为执行中的任务续约；在租约专用的调度线程上执行，不受其他定时任务耗时的影响
+     */
+    private void renewLeases() {
+        List<Long> ids = new ArrayList<>(running);
+        if (ids.isEmpty()) {
+            return;
+        }
+        try {
+            taskMapper.renewLease(ids, owner, leaseSeconds);
+        } catch (Exception e) {
+            // 抛出异常会终止周期任务，下次续约前租约仍有余量
+            log.warn("入库任务续约失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 收回其他节点过期的租约，并接管宕机节点未确认的消息
+     */
+    @Scheduled(fixedDelayString = "${ingestion.heartbeat-interval:20000}")
+    public void heartbeat() {
+        if (!accepting) {
+            return;
+        }
+        int reclaimed = taskMapper.reclaimExpired();
+        if (reclaimed > 0) {
+            log.warn("收回过期的入库任务 {} 个", reclaimed);
+        }
+        int capacity = concurrency - running.size();
+        if (capacity > 0) {
+            try {
+                handle(ingestionStream.claimStale(owner, Duration.ofSeconds(claimIdleSeconds), capacity));
+            } catch (Exception e) {
+                log.warn("接管入库任务消息失败: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 按公平顺序投递尚未投递、重试已到期或投递后长时间无人领取的任务，已投递未领取的任务不超过窗口大小
+     */
+    @Scheduled(fixedDelayString = "${ingestion.dispatch-interval:1000}")
+    public void dispatchPending() {
+        if (!accepting) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            int limit = dispatchWindow - taskMapper.countOutstanding(redispatchSeconds);
+            if (limit <= 0) {
+                return;
+            }
+            List<Long> candidates = taskMapper.selectDispatchCandidates(limit, redispatchSeconds,
+                    fairScheduler.weight(FairScheduler.Priority.BATCH),
+                    fairScheduler.weight(FairScheduler.Priority.BACKFILL));
+            if (candidates.isEmpty()) {
+                return;
+            }
+            Set<Long> locked = new HashSet<>(taskMapper.lockUndispatched(candidates, redispatchSeconds));
+            // 按候选顺序写入消息流，各节点按此顺序读取
+            List<Long> ids = candidates.stream().filter(locked::contains).toList();
+            if (!ids.isEmpty()) {
+                taskMapper.markDispatched(ids);
+                ingestionStream.dispatch(ids);
+            }
+        });
+    }
+
+    @Override
+    public Map<String, QueueStatus> getQueueStatus(Collection<String> jobIds) {
+        if (jobIds.isEmpty()) {
+            return Map.of();
+        }
+        List<FlowBacklog> backlogs = taskMapper.selectPendingByFlow();
+        int finished = taskMapper.countFinishedSince(THROUGHPUT_WINDOW_SECONDS);
+        double throughput = (double) finished / THROUGHPUT_WINDOW_SECONDS;
+
+        Map<String, QueueStatus> statuses = new HashMap<>();
+        for (String jobId : jobIds) {
+            int pending = 0;
+            for (FlowBacklog backlog : backlogs) {
+                if (backlog.getFlow().equals(jobId)) {
+                    pending = backlog.getPending();
+                }
+            }
+            // 各流轮流投递：本任务的下一个文件之前，每个其他流最多排一轮，全部完成之前最多排 pending 轮（按权重折算）
+            double position = 0;
+            double ahead = pending;
+            double weight = fairScheduler.weight(FairScheduler.Priority.BATCH);
+            for (FlowBacklog backlog : backlogs) {
+                if (backlog.getFlow().equals(jobId)) {
+                    continue;
+                }
+                double share = flowWeight(backlog) / weight;
+                position += Math.min(backlog.getPending(), Math.ceil(share));
+                ahead += Math.min(backlog.getPending(), pending * share);
+            }
+            Long eta = throughput > 0 ? Math.round(ahead / throughput) : null;
+            statuses.put(jobId, new QueueStatus(pending == 0 ? 0 : (int) position, pending, eta));
+        }
+        return statuses;
+    }
+
+    @Override
+    public QueueStatus getBacklog() {
+        int pending = taskMapper.selectPendingByFlow().stream().mapToInt(FlowBacklog::getPending).sum();
+        int finished = taskMapper.countFinishedSince(THROUGHPUT_WINDOW_SECONDS);
+        Long eta = finished > 0 ? Math.round(pending / ((double) finished / THROUGHPUT_WINDOW_SECONDS)) : null;
+        return new QueueStatus(pending, pending, eta);
+    }
+
+    /**
+     * 补全长时间未确定总数的导入任务，检查其是否已完成，并删除过期的任务记录
+     */
+    @Scheduled(fixedDelay = 3600000, initialDelay = 3600000)
+    public void recoverJobs() {
+        jobMapper.sealStale(sealAfterSeconds);
+        // 节点可能在最后一个子任务结束后、标记任务完成前宕机
+        List<IngestionJob> jobs = jobMapper.selectList(Wrappers.<IngestionJob>lambdaQuery()
+                .eq(IngestionJob::getStatus, IngestionJob.STATUS_RUNNING)
+                .isNotNull(IngestionJob::getTotal));
+        jobs.forEach(job -> checkJob(job.getId()));
+        try {
+            ingestionStream.cleanup(STALE_CONSUMER_IDLE);
+        } catch (Exception e) {
+            log.warn("清理入库任务消息流失败: {}", e.getMessage());
+        }
+        int deleted = jobMapper.deleteCompletedBefore(retentionDays);
+        if (deleted > 0) {
+            log.info("删除过期的导入任务记录 {} 条", deleted);
+        }
+    }
+
+    /**
+     * 停机时释放租约，任务立即可由其他节点领取；超时被中断的任务提交时会因失去租约而回滚
+     */
+    @PreDestroy
+    public void destroy() {
+        accepting = false;
+        // 等待执行中的任务完成，超时的被中断，其租约随后释放
+        executorRegistry.drain(EXECUTOR);
+        committer.close();
+        int released = taskMapper.releaseLeases(owner);
+        if (released > 0) {
+            log.info("释放入库任务租约 {} 个", released);
+        }
+    }
+
+    /**
+     * 领取消息对应的任务并提交执行；任务已被领取、已结束或未到执行时间时直接确认消息
+     */
+    private void handle(List<IngestionStream.Message> messages) {
+        for (IngestionStream.Message message : messages) {
+            IngestionTask task = null;
+            if (message.taskId() != null && taskMapper.lease(message.taskId(), owner, leaseSeconds) > 0) {
+                task = taskMapper.selectById(message.taskId());
+            }
+            if (task == null) {
+                ingestionStream.ack(message.id());
+                continue;
+            }
+            IngestionTask leased = task;
+            running.add(leased.getId());
+            executorRegistry.io(EXECUTOR).execute(() -> {
+                try {
+                    execute(leased);
+                } catch (Exception e) {
+                    log.error("入库任务执行异常: {}", leased.getId(), e);
+                } finally {
+                    running.remove(leased.getId());
+                    ingestionStream.ack(message.id());
+                }
+            });
+        }
+    }
+
+    private int flowWeight(FlowBacklog backlog) {
+        return fairScheduler.weight(IngestionTask.TYPE_CLASSIFY.equals(backlog.getType())
+                ? FairScheduler.Priority.BACKFILL : FairScheduler.Priority.BATCH);
+    }
+
+    private void execute(IngestionTask task) {
+        if (task.getAttempts() > maxAttempts) {
+            fail(task, StrUtil.blankToDefault(task.getLastError(), "执行次数超过上限"));
+            return;
+        }
+        // 所属导入任务被取消时，令牌中止解析与进行中的 AI 调用
+        String cancelKey = task.getJobId() == null ? null : CancellationRegistry.jobKey(task.getJobId());
+        CancellationToken token = cancelKey == null ? new CancellationToken() : cancellationRegistry.register(cancelKey);
+        Long literatureId;
+        // 在事务外等待槽位，排队期间不占用数据库连接
+        try (CancellationToken.Registration ignored = token.bind();
+             FairScheduler.Permit permit = fairScheduler.acquire(priority(task), flow(task))) {
+            literatureId = IngestionTask.TYPE_CLASSIFY.equals(task.getType()) ? classify(task) : ingest(task);
+        } catch (LeaseLostException e) {
+            log.warn("入库任务租约已失效，放弃本次结果: {}", task.getId());
+            return;
+        } catch (Exception e) {
+            if (token.isCancelled()) {
+                // 任务已在取消时标记失败，文件也已删除
+                log.info("入库任务已取消: {}", task.getId());
+                return;
+            }
+            if (executorRegistry.io(EXECUTOR).isShutdown()) {
+                // 停机中断，租约已释放或即将过期，由其他节点重新执行
+                return;
+            }
+            String error = StrUtil.maxLength(StrUtil.blankToDefault(e.getMessage(), e.getClass().getSimpleName()),
+                    MAX_ERROR_LENGTH - 3);
+            if (task.getAttempts() < maxAttempts) {
+                log.warn("入库任务失败，稍后重试: {} ({}/{}) {}", task.getId(), task.getAttempts(), maxAttempts, error);
+                taskMapper.markRetry(task.getId(), owner, error, retryDelaySeconds * task.getAttempts());
+            } else {
+                log.error("入库任务失败: {}", task.getId(), e);
+                fail(task, error);
+            }
+            return;
+        } finally {
+            if (cancelKey != null) {
+                cancellationRegistry.unregister(cancelKey, token);
+            }
+        }
+        finished(task, literatureId, null);
+    }
+
+    private static FairScheduler.Priority priority(IngestionTask task) {
+        return IngestionTask.TYPE_CLASSIFY.equals(task.getType())
+                ? FairScheduler.Priority.BACKFILL : FairScheduler.Priority.BATCH;
+    }
+
+    private static String flow(IngestionTask task) {
+        return task.getJobId() != null ? task.getJobId() : task.getType();
+    }
+
+    /**
+     * 分类现已在入库时并行生成，这里只处理此前登记的分类任务。
+     * 分类结果写入数据库后才标记成功，其间进程退出时任务由租约过期后重新执行
+     */
+    private Long classify(IngestionTask task) {
+        literatureService.classifyLiterature(task.getLiteratureId());
+        if (taskMapper.markSucceeded(task.getId(), owner, task.getLiteratureId()) == 0) {
+            throw new LeaseLostException();
+        }
+        return task.getLiteratureId();
+    }
+
+    /**
+     * 在事务外完成解析与 AI 调用，再与同时完成的其他子任务一起提交
+     */
+    private Long ingest(IngestionTask task) {
+        Literature literature = literatureService.restoreStoredFile(task.getFileName(), task.getFilePath(),
+                task.getFileSize(), task.getContentHash());
+        String content = literatureService.prepareIngest(literature);
+        CancellationToken.current().throwIfCancelled();
+        Long id = committer.submit(new IngestCommit(task, literature, content));
+        if (id == null) {
+            throw new LeaseLostException();
+        }
+        return id;
+    }
+
+    /**
+     * 组提交一批文献：锁定仍持有租约的子任务，批量写入其文献（多行 INSERT 并取回自增ID），再批量标记成功；
+     * 租约已失效的子任务对应结果为空。整批在一个事务内提交，入库阶段耗时按批次总耗时给批内每一项各记一次
+     */
+    private List<Long> commitIngested(List<IngestCommit> batch) {
+        long start = System.nanoTime();
+        String outcome = LiteratureMetrics.OUTCOME_FAILURE;
+        try {
+            List<Long> ids = commitBatch(batch);
+            outcome = LiteratureMetrics.OUTCOME_SUCCESS;
+            return ids;
+        } catch (RuntimeException | Error e) {
+            outcome = LiteratureMetrics.outcome(e);
+            throw e;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            for (IngestCommit commit : batch) {
+                metrics.recordStage(LiteratureMetrics.STAGE_PERSIST, commit.literature().getFileType(), outcome, elapsed);
+            }
+        }
+    }
+
+    private List<Long> commitBatch(List<IngestCommit> batch) {
+        return transactionTemplate.execute(status -> {
+            Set<Long> held = new HashSet<>(taskMapper.lockLeased(
+                    batch.stream().map(commit -> commit.task().getId()).toList(), owner));
+            List<IngestCommit> kept = batch.stream().filter(commit -> held.contains(commit.task().getId())).toList();
+            if (!kept.isEmpty()) {
+                literatureService.saveBatch(kept.stream().map(IngestCommit::literature).toList(), kept.size());
+                Map<Long, Long> results = new LinkedHashMap<>();
+                kept.forEach(commit -> results.put(commit.task().getId(), commit.literature().getId()));
+                taskMapper.markSucceededBatch(results, owner);
+                kept.forEach(commit -> literatureService.afterInserted(commit.literature(), commit.content()));
+            }
+            return batch.stream()
+                    .map(commit -> held.contains(commit.task().getId()) ? commit.literature().getId() : null)
+                    .toList();
+        });
+    }
+
+    private void fail(IngestionTask task, String error) {
+        if (taskMapper.markFailed(task.getId(), owner, error) == 0) {
+            return;
+        }
+        if (IngestionTask.TYPE_INGEST.equals(task.getType()) && task.getFilePath() != null) {
+            literatureService.deleteStoredFile(task.getFilePath());
+        }
+        finished(task, null, error);
+    }
+
+    private void finished(IngestionTask task, Long literatureId, String error) {
+        if (task.getJobId() != null) {
+            eventRelay.publish(new IngestionTaskFinishedEvent(task.getJobId(), task.getFileName(), literatureId, error,
+                    checkJob(task.getJobId())));
+        }
+    }
+
+    /**
+     * 统计任务进度；总数已确定且全部处理完时标记任务完成，只有成功标记的一方得到 completed=true
+     */
+    private JobProgress checkJob(String jobId) {
+        IngestionJob job = jobMapper.selectById(jobId);
+        JobProgress progress = taskMapper.selectJobProgress(jobId);
+        if (job != null && job.getTotal() != null) {
+            progress.setTotal(job.getTotal());
+        }
+        if (job != null && job.getTotal() != null && progress.getFinished() >= job.getTotal()
+                && jobMapper.markCompleted(jobId, progress.getSucceeded(), progress.getFailed()) > 0) {
+            progress.setCompleted(true);
+        }
+        return progress;
+    }
+
+    private static String resolveOwner() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "unknown";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    /**
+     * 提交时发现租约已被收回
+     */
+    private static class LeaseLostException extends RuntimeException {
+    }
+
+    private record IngestCommit(IngestionTask task, Literature literature, String content) {
+    }
+}
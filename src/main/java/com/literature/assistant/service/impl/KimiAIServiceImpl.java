@@ -3,6 +3,7 @@ package com.literature.assistant.service.impl;
 import cn.hutool.core.io.FileUtil;
 import cn.hutool.json.JSONObject;
 import cn.hutool.json.JSONUtil;
+import com.literature.assistant.concurrent.CancellationToken;
 import com.literature.assistant.service.AIService;
 import com.literature.assistant.service.SSEHandler;
 import lombok.RequiredArgsConstructor;
@@ -53,7 +54,10 @@ public class KimiAIServiceImpl implements AIService {
                     .post(RequestBody.create(requestBody, MediaType.get("application/json")))
                     .build();
 
-            try (Response response = okHttpClient.newCall(request).execute()) {
+            // 任务被取消时中止请求，不再等待响应
+            Call call = okHttpClient.newCall(request);
+            try (CancellationToken.Registration ignored = CancellationToken.current().onCancel(call::cancel);
+                 Response response = call.execute()) {
                 if (!response.isSuccessful()) {
                     throw new IOException("AI服务调用失败: " + response.code() + " - " + response.message());
                 }
@@ -89,7 +93,9 @@ public class KimiAIServiceImpl implements AIService {
                     .post(RequestBody.create(requestBody, MediaType.get("application/json")))
                     .build();
 
-            try (Response response = okHttpClient.newCall(request).execute()) {
+            Call call = okHttpClient.newCall(request);
+            try (CancellationToken.Registration ignored = CancellationToken.current().onCancel(call::cancel);
+                 Response response = call.execute()) {
                 if (!response.isSuccessful()) {
                     throw new IOException("AI分类服务调用失败: " + response.code() + " - " + response.message());
                 }
@@ -1,30 +1,58 @@
 package com.literature.assistant.service.impl;
 
+import cn.hutool.core.bean.BeanUtil;
+import cn.hutool.core.util.HexUtil;
+import cn.hutool.crypto.digest.DigestUtil;
 import cn.hutool.core.util.StrUtil;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.literature.assistant.common.ResultCode;
+import com.literature.assistant.concurrent.CancellationRegistry;
+import com.literature.assistant.concurrent.CancellationToken;
+import com.literature.assistant.concurrent.ExecutorRegistry;
+import com.literature.assistant.concurrent.FairScheduler;
+import com.literature.assistant.concurrent.TaskScope;
+import com.literature.assistant.dto.DuplicateMatch;
 import com.literature.assistant.entity.Literature;
 import com.literature.assistant.exception.BusinessException;
 import com.literature.assistant.mapper.LiteratureMapper;
+import com.literature.assistant.metrics.LiteratureMetrics;
+import com.literature.assistant.queue.IngestionEventRelay;
+import com.literature.assistant.queue.LiteratureWriteBuffer;
 import com.literature.assistant.service.LiteratureService;
 import com.literature.assistant.service.AIService;
+import com.literature.assistant.service.DuplicateDetectionService;
+import com.literature.assistant.service.FacetService;
+import com.literature.assistant.service.SemanticSearchService;
+import com.literature.assistant.service.SuggestService;
+import com.literature.assistant.service.VersionService;
+import com.literature.assistant.storage.StorageBackend;
+import com.literature.assistant.storage.StorageObject;
+import com.literature.assistant.util.FileParser;
 import com.literature.assistant.util.FileUtil;
+import com.literature.assistant.util.LimitedInputStream;
+import com.literature.assistant.util.TransactionUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.io.InputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.nio.file.NoSuchFileException;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutionException;
 
 @Slf4j
 @Service
@@ -33,15 +61,31 @@ public class LiteratureServiceImpl extends ServiceImpl<LiteratureMapper, Literat
 
     private final LiteratureMapper literatureMapper;
     private final AIService aiService;
+    private final FacetService facetService;
+    private final SemanticSearchService semanticSearchService;
+    private final FileParser fileParser;
+    private final DuplicateDetectionService duplicateDetectionService;
+    private final SuggestService suggestService;
+    private final StorageBackend storageBackend;
+    private final ExecutorRegistry executorRegistry;
+    private final CancellationRegistry cancellationRegistry;
+    private final IngestionEventRelay eventRelay;
+    private final FairScheduler fairScheduler;
+    private final TransactionTemplate transactionTemplate;
+    private final LiteratureWriteBuffer writeBuffer;
+    private final VersionService versionService;
+    private final LiteratureMetrics metrics;
 
-    @Value("${file.upload.path}")
-    private String uploadBasePath;
+    private static final String AI_EXECUTOR = "ai";
+
+    @Value("${file.upload.max-size:50MB}")
+    private DataSize maxFileSize;
 
     // AI 密钥由 AIService 的实现统一从配置读取
 
-    private final ExecutorService virtualThreadExecutor = Executors.newVirtualThreadPerTaskExecutor();
 
     @Override
+    @Transactional(readOnly = true)
     public IPage<Literature> getLiteraturePage(int page, int size, String category, 
                                             String description, String readingGuide, String tags) {
         Page<Literature> pageParam = new Page<>(page, size);
@@ -49,24 +93,116 @@ public class LiteratureServiceImpl extends ServiceImpl<LiteratureMapper, Literat
     }
 
     @Override
-    @Transactional
-    public Literature uploadLiterature(MultipartFile file) {
+    public Literature uploadLiterature(MultipartFile file, String requestId) {
         // 验证文件
-        validateFile(file);
+        if (file.isEmpty()) {
+            throw new BusinessException("文件不能为空");
+        }
+        if (StrUtil.isBlank(requestId)) {
+            return storeAndIngest(file);
+        }
+        String cancelKey = CancellationRegistry.uploadKey(requestId);
+        CancellationToken token = cancellationRegistry.register(cancelKey);
+        try (CancellationToken.Registration ignored = token.bind()) {
+            return storeAndIngest(file);
+        } finally {
+            cancellationRegistry.unregister(cancelKey, token);
+        }
+    }
 
-        // 保存文件
-        String filePath = saveFile(file);
+    @Override
+    public void cancelUpload(String requestId) {
+        eventRelay.broadcastCancel(CancellationRegistry.uploadKey(requestId));
+    }
 
-        // 创建文献记录
-        Literature literature = createLiteratureRecord(file, filePath);
+    /**
+     * 先保存文件，再以交互优先级等待准入槽位；在事务外排队，等待期间不占用数据库连接
+     */
+    private Literature storeAndIngest(MultipartFile file) {
+        // 保存文件并创建文献记录
+        Literature literature;
+        try (InputStream in = file.getInputStream()) {
+            literature = storeFile(file.getOriginalFilename(), in, file.getSize());
+        } catch (IOException e) {
+            log.error("读取上传文件失败", e);
+            throw new BusinessException("文件保存失败");
+        }
+        FairScheduler.Permit permit;
+        try {
+            permit = fairScheduler.acquire(FairScheduler.Priority.INTERACTIVE, FairScheduler.UPLOAD_FLOW);
+        } catch (CancellationException e) {
+            deleteStoredFile(literature.getFilePath());
+            throw e;
+        }
+        try (permit) {
+            return ingestStoredFile(literature, true);
+        }
+    }
 
-        // 调用AI生成阅读指南
-        generateReadingGuide(literature);
+    @Override
+    public Literature storeFile(String fileName, InputStream in, long size) {
+        validateFile(fileName, size);
+        Literature literature = createLiteratureRecord(fileName);
+        saveFile(in, size, literature);
+        return literature;
+    }
 
-        // 保存到数据库
-        save(literature);
+    @Override
+    public Literature ingestStoredFile(Literature literature, boolean deleteOnFailure) {
+        String filePath = literature.getFilePath();
+        // 解析与 AI 调用在事务外进行，不占用主库连接
+        String content;
+        try {
+            content = prepareIngest(literature);
+            CancellationToken.current().throwIfCancelled();
+        } catch (RuntimeException e) {
+            if (deleteOnFailure) {
+                deleteStoredFile(filePath);
+            }
+            throw e;
+        }
 
-        return literature;
+        // 只在事务中写入记录及其派生数据；回滚时删除已写入的文件
+        return transactionTemplate.execute(status -> {
+            if (deleteOnFailure) {
+                TransactionUtil.afterRollback(() -> deleteStoredFile(filePath));
+            }
+            metrics.stage(LiteratureMetrics.STAGE_PERSIST, literature.getFileType(), () -> save(literature));
+            afterInserted(literature, content);
+            return literature;
+        });
+    }
+
+    @Override
+    public String prepareIngest(Literature literature) {
+        // 解析文件内容
+        String content = parseFileContent(literature.getFilePath());
+        CancellationToken.current().throwIfCancelled();
+
+        // 近似重复检测，命中时复用已有阅读指南，跳过AI调用
+        literature.setContentSignature(duplicateDetectionService.computeSignature(content));
+        DuplicateMatch duplicate = duplicateDetectionService.findDuplicate(literature.getContentSignature());
+        if (duplicate != null) {
+            literature.setDuplicateOf(duplicate.getLiteratureId());
+            log.info("检测到近似重复文献: {} -> {}，相似度 {}",
+                    literature.getTitle(), duplicate.getLiteratureId(), duplicate.getSimilarity());
+        }
+        boolean reused = duplicate != null && duplicate.isReusable() && reuseAIResult(literature, duplicate.getLiteratureId());
+        metrics.recordCache("ai-result", reused);
+        if (!reused) {
+            // 调用AI生成阅读指南与分类
+            generateAIResult(literature, content);
+        }
+        return content;
+    }
+
+    @Override
+    public void afterInserted(Literature literature, String content) {
+        facetService.onInserted(literature);
+        duplicateDetectionService.register(literature.getId(), literature.getContentSignature());
+        suggestService.onSaved(literature);
+        semanticSearchService.index(literature, content);
+        TransactionUtil.afterCommit(() -> versionService.bump(List.of(literature.getId())));
     }
 
     @Override
@@ -82,112 +218,308 @@ public class LiteratureServiceImpl extends ServiceImpl<LiteratureMapper, Literat
         for (MultipartFile file : files) {
             CompletableFuture.runAsync(() -> {
                 try {
-                    uploadLiterature(file);
+                    uploadLiterature(file, null);
                     // SSE推送处理完成消息
                     // 这里需要实现SSE推送逻辑
                 } catch (Exception e) {
                     log.error("批量导入文件失败: {}", file.getOriginalFilename(), e);
                     // SSE推送错误消息
                 }
-            }, virtualThreadExecutor);
+            }, executorRegistry.io("import"));
         }
     }
 
     @Override
-    public byte[] downloadLiterature(Long id) {
+    public Literature prepareDownload(Long id) {
         Literature literature = getById(id);
         if (literature == null) {
-            throw new BusinessException("文献不存在");
+            throw new BusinessException(ResultCode.LITERATURE_NOT_FOUND);
         }
 
-        try {
-            return Files.readAllBytes(Paths.get(literature.getFilePath()));
-        } catch (IOException e) {
-            log.error("下载文献文件失败: " + literature.getFilePath(), e);
-            throw new BusinessException("文件下载失败");
+        // 历史数据没有内容哈希，首次下载时补算
+        if (StrUtil.isBlank(literature.getContentHash())) {
+            String contentHash;
+            try (InputStream in = storageBackend.get(literature.getFilePath())) {
+                contentHash = DigestUtil.sha256Hex(in);
+            } catch (NoSuchFileException e) {
+                log.error("文献文件不存在: {}", literature.getFilePath());
+                throw new BusinessException(ResultCode.NOT_FOUND, "文件不存在");
+            } catch (IOException e) {
+                log.error("读取文献文件失败: {}", literature.getFilePath(), e);
+                throw new BusinessException("文件读取失败");
+            }
+            lambdaUpdate().eq(Literature::getId, id).set(Literature::getContentHash, contentHash).update();
+            literature.setContentHash(contentHash);
+            TransactionUtil.afterCommit(() -> versionService.bump(List.of(id)));
         }
+        return literature;
     }
 
     @Override
-    public Literature getLiteratureDetail(Long id) {
-        return getById(id);
+    @Transactional(readOnly = true)
+    public Literature getLiteratureDetail(Long id, boolean includeGuide) {
+        Literature literature = baseMapper.selectDetail(id, includeGuide);
+        if (literature != null) {
+            suggestService.recordView(id);
+        }
+        return literature;
     }
 
-    private void validateFile(MultipartFile file) {
-        if (file.isEmpty()) {
+    @Override
+    @Transactional(readOnly = true)
+    public byte[] getCompressedGuide(Long id) {
+        return baseMapper.selectCompressedGuide(id);
+    }
+
+    @Override
+    @Transactional
+    public void deleteLiterature(Long id) {
+        Literature literature = getById(id);
+        if (literature == null) {
+            throw new BusinessException("文献不存在");
+        }
+        // 并发删除时只有一方真正删除，另一方不再扣减计数
+        if (!removeById(id)) {
+            throw new BusinessException("文献不存在");
+        }
+        facetService.onDeleted(literature);
+        semanticSearchService.remove(id);
+        suggestService.onDeleted(id);
+        TransactionUtil.afterCommit(() -> versionService.bump(List.of(id)));
+    }
+
+    private void validateFile(String originalFilename, long fileSize) {
+        if (fileSize == 0) {
             throw new BusinessException("文件不能为空");
         }
 
-        String originalFilename = file.getOriginalFilename();
         if (!FileUtil.isValidFileType(originalFilename)) {
             throw new BusinessException("不支持的文件类型，仅支持PDF、Word、Markdown文件");
         }
 
-        long fileSize = file.getSize();
-        if (fileSize > 50 * 1024 * 1024) { // 50MB
-            throw new BusinessException("文件大小不能超过50MB");
+        if (fileSize > maxFileSize.toBytes()) {
+            throw new BusinessException("文件大小不能超过" + maxFileSize.toMegabytes() + "MB");
         }
     }
 
-    private String saveFile(MultipartFile file) {
+    private void saveFile(InputStream source, long size, Literature literature) {
+        String fileKey = FileUtil.generateFileName(literature.getOriginalFileName());
         try {
-            String uploadPath = FileUtil.getUploadPath(uploadBasePath);
-            String fileName = FileUtil.generateFileName(file.getOriginalFilename());
-            Path filePath = Paths.get(uploadPath, fileName);
-
-            Files.copy(file.getInputStream(), filePath);
-            return filePath.toString();
+            // 写入存储的同时计算内容哈希，避免再次读取文件；实际读取超过上限即中止（声明的长度可能不可信）
+            MessageDigest digest = DigestUtil.digester("SHA-256").getDigest();
+            LimitedInputStream limited = new LimitedInputStream(source, maxFileSize.toBytes());
+            StorageObject stored = putFile(fileKey, new DigestInputStream(limited, digest), size, limited,
+                    literature.getFileType());
+            if (stored.getSize() == 0) {
+                deleteStoredFile(fileKey);
+                throw new BusinessException("文件不能为空");
+            }
+            literature.setFilePath(fileKey);
+            literature.setFileSize(stored.getSize());
+            literature.setContentHash(HexUtil.encodeHexStr(digest.digest()));
+        } catch (LimitedInputStream.SizeLimitExceededException e) {
+            throw new BusinessException("文件大小不能超过" + maxFileSize.toMegabytes() + "MB");
         } catch (IOException e) {
             log.error("保存文件失败", e);
             throw new BusinessException("文件保存失败");
         }
     }
 
-    private Literature createLiteratureRecord(MultipartFile file, String filePath) {
-        Literature literature = new Literature();
-        literature.setTitle(StrUtil.subBefore(file.getOriginalFilename(), ".", true));
-        literature.setOriginalFileName(file.getOriginalFilename());
+    /**
+     * 写入存储，记录存储阶段耗时与上传字节数
+     */
+    private StorageObject putFile(String fileKey, InputStream in, long size, LimitedInputStream counter,
+                                  String fileType) throws IOException {
+        long start = System.nanoTime();
+        String outcome = LiteratureMetrics.OUTCOME_FAILURE;
+        try {
+            StorageObject stored = storageBackend.put(fileKey, in, size, null);
+            outcome = LiteratureMetrics.OUTCOME_SUCCESS;
+            return stored;
+        } catch (IOException | RuntimeException e) {
+            outcome = LiteratureMetrics.outcome(e);
+            throw e;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            metrics.recordStage(LiteratureMetrics.STAGE_STORE, fileType, outcome, elapsed);
+            metrics.recordTransfer(LiteratureMetrics.DIRECTION_UPLOAD, fileType, outcome, counter.getCount(), elapsed);
+        }
+    }
+
+    @Override
+    public Literature restoreStoredFile(String fileName, String filePath, long fileSize, String contentHash) {
+        Literature literature = createLiteratureRecord(fileName);
         literature.setFilePath(filePath);
-        literature.setFileSize(file.getSize());
-        literature.setFileType(FileUtil.getFileExtension(file.getOriginalFilename()));
+        literature.setFileSize(fileSize);
+        literature.setContentHash(contentHash);
+        return literature;
+    }
+
+    @Override
+    public void deleteStoredFile(String fileKey) {
+        try {
+            storageBackend.delete(fileKey);
+        } catch (IOException e) {
+            log.warn("删除文件失败: {}", fileKey, e);
+        }
+    }
+
+    private Literature createLiteratureRecord(String originalFilename) {
+        Literature literature = new Literature();
+        literature.setTitle(StrUtil.subBefore(originalFilename, ".", true));
+        literature.setOriginalFileName(originalFilename);
+        literature.setFileType(FileUtil.getFileExtension(originalFilename));
         literature.setCreateTime(LocalDateTime.now());
         literature.setUpdateTime(LocalDateTime.now());
         literature.setDeleted(0);
         return literature;
     }
 
-    private void generateReadingGuide(Literature literature) {
+    /**
+     * 并行生成阅读指南与分类，任一失败即中止另一个；当前任务被取消时两个请求都会中止
+     */
+    private void generateAIResult(Literature literature, String content) {
+        try (TaskScope scope = new TaskScope(executorRegistry.io(AI_EXECUTOR))) {
+            TaskScope.Subtask<String> readingGuide = scope.fork(() -> generateReadingGuide(literature, content));
+            TaskScope.Subtask<String> classification = scope.fork(() -> generateClassification(literature, content));
+            scope.join();
+            literature.setReadingGuide(readingGuide.get());
+            // 解析AI返回的JSON并更新文献信息
+            updateLiteratureWithAIResponse(literature, classification.get());
+        } catch (ExecutionException e) {
+            log.error("生成阅读指南失败: " + literature.getTitle(), e.getCause());
+            throw new BusinessException("AI服务调用失败");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("任务已取消");
+        }
+    }
+
+    private String generateReadingGuide(Literature literature, String content) {
+        return metrics.stage(LiteratureMetrics.STAGE_GUIDE, literature.getFileType(),
+                () -> aiService.generateReadingGuide(content));
+    }
+
+    private String generateClassification(Literature literature, String content) {
+        return metrics.stage(LiteratureMetrics.STAGE_CLASSIFY, literature.getFileType(),
+                () -> aiService.generateClassification(content));
+    }
+
+    @Override
+    public void classifyLiterature(Long id) {
+        reprocessLiterature(id, false, true);
+    }
+
+    @Override
+    public boolean reprocessLiterature(Long id, boolean guide, boolean classify) {
+        // 旧的阅读指南用不到，不读取这一大字段
+        Literature literature = lambdaQuery()
+                .select(Literature.class, field -> !"reading_guide".equals(field.getColumn()))
+                .eq(Literature::getId, id)
+                .one();
+        if (literature == null) {
+            log.info("文献已删除，跳过重新处理: {}", id);
+            return false;
+        }
+        String content = parseFileContent(literature.getFilePath());
+        CancellationToken.current().throwIfCancelled();
+        Literature before = BeanUtil.copyProperties(literature, Literature.class);
+        if (guide && classify) {
+            generateAIResult(literature, content);
+        } else if (guide) {
+            literature.setReadingGuide(generateReadingGuide(literature, content));
+        } else if (classify) {
+            // 解析AI返回的JSON并更新文献信息
+            updateLiteratureWithAIResponse(literature, generateClassification(literature, content));
+        }
+        CancellationToken.current().throwIfCancelled();
+        Literature changes = changedFields(before, literature);
+        if (changes == null) {
+            return true;
+        }
+        // 只写入变化的列，经批量写入缓冲区与其他修改合并写入，写入完成后才返回
+        awaitWritten(writeBuffer.update(changes), id);
+        facetService.onUpdated(before, literature);
+        semanticSearchService.updateMetadata(literature);
+        suggestService.onSaved(literature);
+        return true;
+    }
+
+    private static void awaitWritten(CompletableFuture<Void> written, Long id) {
         try {
-            // 解析文件内容
-            String content = parseFileContent(literature.getFilePath());
-            
-            // 调用AI生成阅读指南
-            String readingGuide = aiService.generateReadingGuide(content);
-            literature.setReadingGuide(readingGuide);
-
-            // 使用虚拟线程异步生成分类和描述
-            CompletableFuture.runAsync(() -> {
-                try {
-                    String aiResponse = aiService.generateClassification(content);
-                    // 解析AI返回的JSON并更新文献信息
-                    updateLiteratureWithAIResponse(literature, aiResponse);
-                    updateById(literature);
-                } catch (Exception e) {
-                    log.error("AI分类生成失败: " + literature.getTitle(), e);
-                }
-            }, virtualThreadExecutor);
+            written.get();
+        } catch (ExecutionException e) {
+            log.error("写入文献字段失败: {}", id, e.getCause());
+            throw new BusinessException("保存文献失败");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("任务已取消");
+        }
+    }
 
-        } catch (Exception e) {
-            log.error("生成阅读指南失败: " + literature.getTitle(), e);
-            throw new BusinessException("AI服务调用失败");
+    /**
+     * 从近似重复的原文献复制AI生成的结果；原文献尚无阅读指南时返回 false
+     */
+    private boolean reuseAIResult(Literature literature, Long originalId) {
+        Literature original = getById(originalId);
+        if (original == null || StrUtil.isBlank(original.getReadingGuide())) {
+            return false;
         }
+        literature.setReadingGuide(original.getReadingGuide());
+        literature.setCategory(original.getCategory());
+        literature.setDescription(original.getDescription());
+        literature.setTags(original.getTags());
+        literature.setAuthor(original.getAuthor());
+        literature.setPublishYear(original.getPublishYear());
+        return true;
+    }
+
+    /**
+     * AI 生成的字段中发生变化的部分，只设置 id 和变化的字段；没有变化时返回空
+     */
+    private static Literature changedFields(Literature before, Literature after) {
+        Literature changes = new Literature();
+        boolean changed = false;
+        if (!Objects.equals(before.getReadingGuide(), after.getReadingGuide())) {
+            changes.setReadingGuide(after.getReadingGuide());
+            changed = true;
+        }
+        if (!Objects.equals(before.getCategory(), after.getCategory())) {
+            changes.setCategory(after.getCategory());
+            changed = true;
+        }
+        if (!Objects.equals(before.getDescription(), after.getDescription())) {
+            changes.setDescription(after.getDescription());
+            changed = true;
+        }
+        if (!Objects.equals(before.getTags(), after.getTags())) {
+            changes.setTags(after.getTags());
+            changed = true;
+        }
+        if (!Objects.equals(before.getAuthor(), after.getAuthor())) {
+            changes.setAuthor(after.getAuthor());
+            changed = true;
+        }
+        if (!Objects.equals(before.getPublishYear(), after.getPublishYear())) {
+            changes.setPublishYear(after.getPublishYear());
+            changed = true;
+        }
+        if (!changed) {
+            return null;
+        }
+        changes.setId(after.getId());
+        return changes;
     }
 
     private String parseFileContent(String filePath) {
-        // 实现文件内容解析逻辑
-        // 这里需要根据文件类型使用不同的解析器
-        // PDF使用PDFBox，Word使用POI，Markdown直接读取
-        return "文件内容解析占位符";
+        try {
+            return fileParser.parseFileContent(filePath);
+        } catch (CancellationException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("解析文件内容失败: " + filePath, e);
+            throw new BusinessException("文件解析失败");
+        }
     }
 
     private void updateLiteratureWithAIResponse(Literature literature, String aiResponse) {
@@ -0,0 +1,102 @@
+package com.literature.assistant.service.impl;
+
+import cn.hutool.json.JSONArray;
+import cn.hutool.json.JSONObject;
+import cn.hutool.json.JSONUtil;
+import com.literature.assistant.service.EmbeddingService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * OpenAI 兼容的 /embeddings 接口实现；测试或本地环境可将 base-url 指向桩服务
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OpenAIEmbeddingServiceImpl implements EmbeddingService {
+
+    private final OkHttpClient okHttpClient;
+
+    @Value("${ai.embedding.enabled:false}")
+    private boolean enabled;
+
+    @Value("${ai.embedding.base-url:https://api.openai.com/v1}")
+    private String baseUrl;
+
+    @Value("${ai.embedding.api-key:}")
+    private String apiKey;
+
+    @Value("${ai.embedding.model:text-embedding-3-small}")
+    private String model;
+
+    @Value("${ai.embedding.dimension:1536}")
+    private int dimension;
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public int getDimension() {
+        return dimension;
+    }
+
+    @Override
+    public float[] embed(String text) {
+        return embedBatch(List.of(text)).get(0);
+    }
+
+    @Override
+    public List<float[]> embedBatch(List<String> texts) {
+        JSONObject requestJson = JSONUtil.createObj()
+                .set("model", model)
+                .set("input", texts);
+
+        Request request = new Request.Builder()
+                .url(baseUrl + "/embeddings")
+                .header("Authorization", "Bearer " + apiKey)
+                .header("Content-Type", "application/json")
+                .post(RequestBody.create(requestJson.toString(), MediaType.get("application/json")))
+                .build();
+
+        try (Response response = okHttpClient.newCall(request).execute()) {
+            if (!response.isSuccessful()) {
+                throw new IOException("向量服务调用失败: " + response.code() + " - " + response.message());
+            }
+
+            JSONArray data = JSONUtil.parseObj(response.body().string()).getJSONArray("data");
+            List<float[]> vectors = new ArrayList<>(texts.size());
+            for (int i = 0; i < texts.size(); i++) {
+                vectors.add(null);
+            }
+            for (int i = 0; i < data.size(); i++) {
+                JSONObject item = data.getJSONObject(i);
+                JSONArray embedding = item.getJSONArray("embedding");
+                if (embedding.size() != dimension) {
+                    throw new IOException("向量维度不一致: 返回 " + embedding.size() + "，配置为 " + dimension);
+                }
+                float[] vector = new float[dimension];
+                for (int j = 0; j < dimension; j++) {
+                    vector[j] = embedding.getFloat(j);
+                }
+                vectors.set(item.getInt("index", i), vector);
+            }
+            return vectors;
+        } catch (IOException e) {
+            log.error("生成文本向量失败", e);
+            throw new RuntimeException("向量服务调用失败", e);
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package com.literature.assistant.service.impl;
+
+import com.literature.assistant.common.ResultCode;
+import com.literature.assistant.concurrent.ExecutorRegistry;
+import com.literature.assistant.entity.Literature;
+import com.literature.assistant.exception.BusinessException;
+import com.literature.assistant.metrics.LiteratureMetrics;
+import com.literature.assistant.service.PreviewService;
+import com.literature.assistant.storage.StorageBackend;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.IOUtils;
+import org.apache.pdfbox.io.RandomAccessReadBuffer;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Stream;
+
+/**
+ * PDF 页面预览图
+ * <p>
+ * 首次请求时在 CPU 线程池中生成，写入磁盘缓存目录，文件名即缓存键（内容哈希-页码-尺寸.扩展名）。
+ * 缓存总大小超过上限时按最近访问顺序淘汰；同一预览图并发请求只渲染一次。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PreviewServiceImpl implements PreviewService {
+
+    private static final Map<String, Integer> SIZES = Map.of("small", 240, "medium", 600, "large", 1200);
+    private static final Map<String, String> FORMATS = Map.of("jpeg", "jpg", "png", "png");
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    /**
+     * 渲染高度与宽度之比的上限，避免超长页面生成巨幅图片
+     */
+    private static final int MAX_ASPECT_RATIO = 4;
+
+    private final StorageBackend storageBackend;
+    private final ExecutorRegistry executorRegistry;
+    private final LiteratureMetrics metrics;
+
+    @Value("${preview.cache.path:./data/previews/}")
+    private String cachePath;
+
+    @Value("${preview.cache.max-size:1GB}")
+    private DataSize maxCacheSize;
+
+    @Value("${preview.render-timeout:30000}")
+    private long renderTimeout;
+
+    private Path cacheDir;
+
+    /**
+     * 缓存文件名 -> 字节数，按访问顺序排列，最久未访问的在前
+     */
+    private final LinkedHashMap<String, Long> cacheEntries = new LinkedHashMap<>(16, 0.75f, true);
+    private long cacheBytes;
+
+    /**
+     * 正在渲染的预览图，并发请求共享同一个结果
+     */
+    private final ConcurrentMap<String, CompletableFuture<Path>> rendering = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() throws IOException {
+        cacheDir = Paths.get(cachePath).toAbsolutePath().normalize();
+        Files.createDirectories(cacheDir);
+        loadCacheEntries();
+        log.info("预览缓存目录: {}，已缓存 {} 个文件，共 {} 字节", cacheDir, cacheEntries.size(), cacheBytes);
+    }
+
+    @Override
+    public String previewKey(Literature literature, int page, String size, String format) {
+        if (!".pdf".equalsIgnoreCase(literature.getFileType())) {
+            throw new BusinessException(ResultCode.UNSUPPORTED_MEDIA_TYPE, "仅支持PDF文献预览");
+        }
+        if (page < 1) {
+            throw new BusinessException(ResultCode.BAD_REQUEST, "页码必须大于0");
+        }
+        if (!SIZES.containsKey(size)) {
+            throw new BusinessException(ResultCode.BAD_REQUEST, "不支持的预览尺寸: " + size);
+        }
+        if (!FORMATS.containsKey(format)) {
+            throw new BusinessException(ResultCode.BAD_REQUEST, "不支持的预览格式: " + format);
+        }
+        return literature.getContentHash() + "-" + page + "-" + size + "." + FORMATS.get(format);
+    }
+
+    @Override
+    public Path getPreview(Literature literature, int page, String size, String format) {
+        String key = previewKey(literature, page, size, format);
+        Path file = cacheDir.resolve(key);
+
+        Long cached;
+        synchronized (cacheEntries) {
+            cached = cacheEntries.get(key);
+        }
+        if (cached != null) {
+            if (Files.exists(file)) {
+                metrics.recordCache("preview", true);
+                return file;
+            }
+            removeEntry(key);
+        }
+        metrics.recordCache("preview", false);
+
+        CompletableFuture<Path> future = new CompletableFuture<>();
+        CompletableFuture<Path> existing = rendering.putIfAbsent(key, future);
+        if (existing != null) {
+            future = existing;
+        } else {
+            submitRender(literature, page, SIZES.get(size), format, key, future);
+        }
+
+        try {
+            return future.get(renderTimeout, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // 渲染仍在进行，完成后照常进入缓存
+            throw new BusinessException(ResultCode.TOO_MANY_REQUESTS, "预览生成超时，请稍后再试");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException("预览生成被中断");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof BusinessException businessException) {
+                throw businessException;
+            }
+            log.error("生成预览失败: {} 第{}页", literature.getFilePath(), page, e.getCause());
+            throw new BusinessException(ResultCode.FILE_PARSE_FAILED, "预览生成失败");
+        }
+    }
+
+    private void submitRender(Literature literature, int page, int width, String format, String key,
+                              CompletableFuture<Path> future) {
+        try {
+            executorRegistry.cpu().execute(() -> {
+                try {
+                    future.complete(render(literature.getFilePath(), page, width, format, key));
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                } finally {
+                    rendering.remove(key, future);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rendering.remove(key, future);
+            future.completeExceptionally(
+                    new BusinessException(ResultCode.TOO_MANY_REQUESTS, "预览生成繁忙，请稍后再试"));
+        }
+    }
+
+    private Path render(String fileKey, int page, int width, String format, String key) throws IOException {
+        Path target = cacheDir.resolve(key);
+        if (Files.exists(target)) {
+            addEntry(key, Files.size(target));
+            return target;
+        }
+
+        BufferedImage image;
+        try (PDDocument document = loadDocument(fileKey)) {
+            if (page > document.getNumberOfPages()) {
+                throw new BusinessException(ResultCode.NOT_FOUND, "页码超出范围");
+            }
+            PDPage pdPage = document.getPage(page - 1);
+            PDRectangle box = pdPage.getCropBox();
+            boolean rotated = pdPage.getRotation() % 180 != 0;
+            float pageWidth = rotated ? box.getHeight() : box.getWidth();
+            float pageHeight = rotated ? box.getWidth() : box.getHeight();
+            float scale = Math.min(width / pageWidth, width * MAX_ASPECT_RATIO / pageHeight);
+            image = new PDFRenderer(document).renderImage(page - 1, scale, ImageType.RGB);
+        }
+
+        Path temp = Files.createTempFile(cacheDir, key, TEMP_SUFFIX);
+        try {
+            if (!ImageIO.write(image, format, temp.toFile())) {
+                throw new IOException("没有可用的图片编码器: " + format);
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        addEntry(key, Files.size(target));
+        log.debug("生成预览: {}", key);
+        return target;
+    }
+
+    /**
+     * 本地存储直接按文件随机读取，其他存储流式读入
+     */
+    private PDDocument loadDocument(String fileKey) throws IOException {
+        Path localPath = storageBackend.localPath(fileKey);
+        if (localPath != null) {
+            return Loader.loadPDF(localPath.toFile(), IOUtils.createTempFileOnlyStreamCache());
+        }
+        try (InputStream in = storageBackend.get(fileKey)) {
+            return Loader.loadPDF(new RandomAccessReadBuffer(in), null, null, null,
+                    IOUtils.createTempFileOnlyStreamCache());
+        }
+    }
+
+    /**
+     * 启动时按修改时间载入已有缓存文件，并清理渲染中断残留的临时文件
+     */
+    private void loadCacheEntries() throws IOException {
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(cacheDir)) {
+            files = stream.filter(Files::isRegularFile).toList();
+        }
+        List<Path> sorted = new ArrayList<>();
+        for (Path file : files) {
+            if (file.getFileName().toString().endsWith(TEMP_SUFFIX)) {
+                Files.deleteIfExists(file);
+            } else {
+                sorted.add(file);
+            }
+        }
+        sorted.sort(Comparator.comparingLong(file -> file.toFile().lastModified()));
+        for (Path file : sorted) {
+            addEntry(file.getFileName().toString(), Files.size(file));
+        }
+    }
+
+    private void addEntry(String key, long size) {
+        List<String> evicted = new ArrayList<>();
+        synchronized (cacheEntries) {
+            Long previous = cacheEntries.put(key, size);
+            cacheBytes += size - (previous == null ? 0 : previous);
+            Iterator<Map.Entry<String, Long>> iterator = cacheEntries.entrySet().iterator();
+            while (cacheBytes > maxCacheSize.toBytes() && iterator.hasNext()) {
+                Map.Entry<String, Long> eldest = iterator.next();
+                if (eldest.getKey().equals(key)) {
+                    continue;
+                }
+                cacheBytes -= eldest.getValue();
+                evicted.add(eldest.getKey());
+                iterator.remove();
+            }
+        }
+        for (String name : evicted) {
+            try {
+                Files.deleteIfExists(cacheDir.resolve(name));
+            } catch (IOException e) {
+                log.warn("删除预览缓存失败: {}", name);
+            }
+        }
+    }
+
+    private void removeEntry(String key) {
+        synchronized (cacheEntries) {
+            Long size = cacheEntries.remove(key);
+            if (size != null) {
+                cacheBytes -= size;
+            }
+        }
+    }
+}
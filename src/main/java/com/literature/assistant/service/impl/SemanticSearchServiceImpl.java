@@ -0,0 +1,419 @@
+package com.literature.assistant.service.impl;
+
+import cn.hutool.core.util.StrUtil;
+import com.literature.assistant.concurrent.ExecutorRegistry;
+import com.literature.assistant.dto.SemanticHit;
+import com.literature.assistant.entity.Literature;
+import com.literature.assistant.exception.BusinessException;
+import com.literature.assistant.index.HnswIndex;
+import com.literature.assistant.index.MmapVectorStore;
+import com.literature.assistant.mapper.LiteratureMapper;
+import com.literature.assistant.service.EmbeddingService;
+import com.literature.assistant.service.SemanticSearchService;
+import com.literature.assistant.util.FileParser;
+import com.literature.assistant.util.TransactionUtil;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntPredicate;
+import java.util.stream.Collectors;
+
+/**
+ * 语义检索：向量保存在内存映射文件中，HNSW 图定期写快照，启动时加载快照并只为缺失的文献补算向量
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SemanticSearchServiceImpl implements SemanticSearchService {
+
+    private static final String VECTOR_FILE = "vectors.bin";
+    private static final String SNAPSHOT_FILE = "hnsw.snapshot";
+    private static final String EXECUTOR = "index";
+
+    private final EmbeddingService embeddingService;
+    private final LiteratureMapper literatureMapper;
+    private final FileParser fileParser;
+    private final ExecutorRegistry executorRegistry;
+
+    @Value("${semantic.index.path:./data/vectors/}")
+    private String indexPath;
+
+    @Value("${semantic.index.m:16}")
+    private int m;
+
+    @Value("${semantic.index.ef-construction:200}")
+    private int efConstruction;
+
+    @Value("${semantic.index.ef-search:64}")
+    private int efSearch;
+
+    @Value("${ai.embedding.max-input-chars:8000}")
+    private int maxInputChars;
+
+    @Value("${ai.embedding.batch-size:32}")
+    private int batchSize;
+
+
+    /**
+     * 文献ID -> 过滤用元数据（分类、标签）
+     */
+    private final Map<Long, DocMeta> metadata = new ConcurrentHashMap<>();
+
+    /**
+     * 已提交、正在计算向量的文献ID；计算期间被删除的文献从中移除，算完后不再写入。
+     * 写入向量与删除都在该集合上同步，避免删除夹在检查与写入之间
+     */
+    private final Set<Long> pendingIndex = ConcurrentHashMap.newKeySet();
+
+    private volatile MmapVectorStore store;
+    private volatile HnswIndex index;
+    private volatile boolean dirty;
+
+    private record DocMeta(String category, Set<String> tags) {
+        static DocMeta of(Literature literature) {
+            return new DocMeta(literature.getCategory(), splitTags(literature.getTags()));
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (!embeddingService.isEnabled()) {
+            log.info("未启用文本向量化，跳过语义索引加载");
+            return;
+        }
+        executorRegistry.io(EXECUTOR).execute(() -> {
+            try {
+                openIndex();
+                backfill();
+                saveSnapshot();
+            } catch (Exception e) {
+                log.error("语义索引初始化失败", e);
+            }
+        });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<SemanticHit> search(String query, int k, String category, String tags) {
+        if (StrUtil.isBlank(query)) {
+            throw new BusinessException("检索内容不能为空");
+        }
+        HnswIndex current = requireIndex();
+        float[] vector = normalize(embeddingService.embed(StrUtil.subPre(query, maxInputChars)));
+        return toHits(current.search(vector, k, Math.max(efSearch, k), buildFilter(category, tags, -1)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<SemanticHit> findSimilar(Long id, int k, String category, String tags) {
+        HnswIndex current = requireIndex();
+        int slot = store.slotOf(id);
+        if (slot < 0) {
+            throw new BusinessException("该文献尚未建立向量索引");
+        }
+        float[] vector = store.read(slot);
+        return toHits(current.search(vector, k, Math.max(efSearch, k), buildFilter(category, tags, slot)));
+    }
+
+    @Override
+    public void index(Literature literature, String content) {
+        if (!embeddingService.isEnabled()) {
+            return;
+        }
+        Long id = literature.getId();
+        TransactionUtil.afterCommit(() -> {
+            pendingIndex.add(id);
+            executorRegistry.io(EXECUTOR).execute(() -> {
+                try {
+                    float[] vector = embeddingService.embed(buildEmbeddingText(literature, content));
+                    synchronized (pendingIndex) {
+                        if (pendingIndex.remove(id)) {
+                            addVector(literature, vector);
+                        }
+                    }
+                } catch (Exception e) {
+                    pendingIndex.remove(id);
+                    log.error("文献向量化失败: {}", literature.getTitle(), e);
+                }
+            });
+        });
+    }
+
+    @Override
+    public void updateMetadata(Literature literature) {
+        if (literature.getId() != null && metadata.containsKey(literature.getId())) {
+            metadata.put(literature.getId(), DocMeta.of(literature));
+        }
+    }
+
+    @Override
+    public void remove(Long id) {
+        TransactionUtil.afterCommit(() -> {
+            synchronized (pendingIndex) {
+                pendingIndex.remove(id);
+                metadata.remove(id);
+                MmapVectorStore current = store;
+                if (current != null && current.remove(id) >= 0) {
+                    dirty = true;
+                }
+            }
+        });
+    }
+
+    /**
+     * 定期保存图结构快照，使重启时无需重建索引
+     */
+    @Scheduled(fixedDelayString = "${semantic.index.snapshot-interval:300000}")
+    public void saveSnapshot() {
+        MmapVectorStore currentStore = store;
+        HnswIndex currentIndex = index;
+        if (currentStore == null || currentIndex == null || !dirty) {
+            return;
+        }
+        dirty = false;
+        Path snapshot = Paths.get(indexPath, SNAPSHOT_FILE);
+        Path temp = Paths.get(indexPath, SNAPSHOT_FILE + ".tmp");
+        try {
+            currentStore.force();
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                currentIndex.writeTo(out);
+            }
+            Files.move(temp, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.debug("语义索引快照已保存，节点数: {}", currentIndex.size());
+        } catch (IOException e) {
+            dirty = true;
+            log.error("保存语义索引快照失败", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // 等待进行中的向量化写入索引后再保存快照
+        executorRegistry.drain(EXECUTOR);
+        saveSnapshot();
+        MmapVectorStore currentStore = store;
+        if (currentStore != null) {
+            try {
+                currentStore.close();
+            } catch (IOException e) {
+                log.warn("关闭向量文件失败", e);
+            }
+        }
+    }
+
+    private void openIndex() throws IOException {
+        Path vectorFile = Paths.get(indexPath, VECTOR_FILE);
+        Path snapshot = Paths.get(indexPath, SNAPSHOT_FILE);
+        MmapVectorStore openedStore;
+        try {
+            openedStore = MmapVectorStore.open(vectorFile, embeddingService.getDimension());
+        } catch (IOException e) {
+            // 维度或格式变化（如更换了向量模型）时旧向量不可用，备份后重建
+            log.warn("向量文件不可用，将重新生成: {}", e.getMessage());
+            Files.move(vectorFile, vectorFile.resolveSibling(VECTOR_FILE + "." + System.currentTimeMillis() + ".bak"));
+            Files.deleteIfExists(snapshot);
+            openedStore = MmapVectorStore.open(vectorFile, embeddingService.getDimension());
+        }
+
+        HnswIndex loadedIndex = null;
+        if (Files.exists(snapshot)) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshot)))) {
+                loadedIndex = HnswIndex.readFrom(in, openedStore, efConstruction);
+            } catch (IOException e) {
+                log.warn("语义索引快照加载失败，将根据向量文件重建图结构", e);
+            }
+        }
+        if (loadedIndex == null) {
+            loadedIndex = new HnswIndex(openedStore, m, efConstruction);
+        }
+
+        // 快照之后追加的向量直接补入图中，无需重新向量化
+        int caughtUp = 0;
+        for (int slot = 0; slot < openedStore.size(); slot++) {
+            if (!openedStore.isDeleted(slot) && !loadedIndex.contains(slot)) {
+                loadedIndex.add(slot);
+                caughtUp++;
+            }
+        }
+        dirty = caughtUp > 0;
+        store = openedStore;
+        index = loadedIndex;
+        log.info("语义索引已加载，向量数: {}，补入图中: {}", openedStore.liveCount(), caughtUp);
+    }
+
+    /**
+     * 与数据库比对：刷新过滤元数据，为缺失向量的文献补算向量，移除已删除文献的向量
+     */
+    private void backfill() {
+        Set<Long> liveIds = new HashSet<>();
+        List<Literature> missing = new ArrayList<>();
+        literatureMapper.selectIndexSources(ctx -> {
+            Literature literature = ctx.getResultObject();
+            liveIds.add(literature.getId());
+            if (store.contains(literature.getId())) {
+                metadata.put(literature.getId(), DocMeta.of(literature));
+            } else {
+                missing.add(literature);
+            }
+        });
+
+        int removed = 0;
+        for (int slot = 0; slot < store.size(); slot++) {
+            long id = store.idAt(slot);
+            if (id >= 0 && !liveIds.contains(id)) {
+                store.remove(id);
+                metadata.remove(id);
+                removed++;
+            }
+        }
+        if (removed > 0) {
+            dirty = true;
+            log.info("已移除 {} 条失效向量", removed);
+        }
+
+        if (!missing.isEmpty()) {
+            log.info("开始为 {} 篇文献补算向量", missing.size());
+        }
+        for (int from = 0; from < missing.size(); from += batchSize) {
+            List<Literature> batch = missing.subList(from, Math.min(from + batchSize, missing.size()));
+            List<String> texts = batch.stream()
+                    .map(literature -> buildEmbeddingText(literature, readContent(literature)))
+                    .collect(Collectors.toList());
+            try {
+                List<float[]> vectors = embeddingService.embedBatch(texts);
+                for (int i = 0; i < batch.size(); i++) {
+                    addVector(batch.get(i), vectors.get(i));
+                }
+            } catch (Exception e) {
+                log.error("批量补算向量失败，跳过 {} 篇文献", batch.size(), e);
+            }
+        }
+    }
+
+    private void addVector(Literature literature, float[] vector) throws IOException {
+        MmapVectorStore currentStore = store;
+        HnswIndex currentIndex = index;
+        if (currentStore == null || currentIndex == null) {
+            return;
+        }
+        int slot = currentStore.append(literature.getId(), normalize(vector));
+        metadata.put(literature.getId(), DocMeta.of(literature));
+        currentIndex.add(slot);
+        dirty = true;
+    }
+
+    private String readContent(Literature literature) {
+        try {
+            return fileParser.parseFileContent(literature.getFilePath());
+        } catch (Exception e) {
+            log.warn("解析文献内容失败，仅使用标题和描述生成向量: {}", literature.getFilePath());
+            return "";
+        }
+    }
+
+    private String buildEmbeddingText(Literature literature, String content) {
+        StringBuilder text = new StringBuilder();
+        text.append(StrUtil.nullToEmpty(literature.getTitle())).append('\n');
+        if (StrUtil.isNotBlank(literature.getDescription())) {
+            text.append(literature.getDescription()).append('\n');
+        }
+        if (StrUtil.isNotBlank(content)) {
+            text.append(content);
+        }
+        return StrUtil.subPre(text.toString().replaceAll("\\s+", " ").trim(), maxInputChars);
+    }
+
+    private IntPredicate buildFilter(String category, String tags, int excludedSlot) {
+        Set<String> requiredTags = splitTags(tags);
+        if (StrUtil.isBlank(category) && requiredTags.isEmpty() && excludedSlot < 0) {
+            return null;
+        }
+        MmapVectorStore currentStore = store;
+        return slot -> {
+            if (slot == excludedSlot) {
+                return false;
+            }
+            if (StrUtil.isBlank(category) && requiredTags.isEmpty()) {
+                return true;
+            }
+            DocMeta meta = metadata.get(currentStore.idAt(slot));
+            return meta != null
+                    && (StrUtil.isBlank(category) || category.equals(meta.category()))
+                    && meta.tags().containsAll(requiredTags);
+        };
+    }
+
+    private List<SemanticHit> toHits(List<HnswIndex.Hit> hits) {
+        if (hits.isEmpty()) {
+            return List.of();
+        }
+        MmapVectorStore currentStore = store;
+        List<Long> ids = hits.stream().map(hit -> currentStore.idAt(hit.slot())).collect(Collectors.toList());
+        Map<Long, Literature> literatures = literatureMapper.selectBatchIds(ids).stream()
+                .collect(Collectors.toMap(Literature::getId, literature -> literature));
+
+        List<SemanticHit> result = new ArrayList<>(hits.size());
+        for (int i = 0; i < hits.size(); i++) {
+            Literature literature = literatures.get(ids.get(i));
+            if (literature != null) {
+                result.add(new SemanticHit(literature, hits.get(i).score()));
+            }
+        }
+        return result;
+    }
+
+    private HnswIndex requireIndex() {
+        if (!embeddingService.isEnabled()) {
+            throw new BusinessException("语义检索未启用");
+        }
+        HnswIndex current = index;
+        if (current == null) {
+            throw new BusinessException("语义索引正在加载，请稍后重试");
+        }
+        return current;
+    }
+
+    private static float[] normalize(float[] vector) {
+        double norm = 0;
+        for (float v : vector) {
+            norm += v * v;
+        }
+        if (norm == 0) {
+            return vector;
+        }
+        float scale = (float) (1 / Math.sqrt(norm));
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] *= scale;
+        }
+        return vector;
+    }
+
+    private static Set<String> splitTags(String tags) {
+        if (StrUtil.isBlank(tags)) {
+            return Set.of();
+        }
+        return StrUtil.split(tags, ',', true, true).stream().collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,328 @@
+package com.literature.assistant.service.impl;
+
+import cn.hutool.core.lang.Validator;
+import cn.hutool.core.util.StrUtil;
+import cn.hutool.extra.pinyin.PinyinUtil;
+import com.literature.assistant.dto.Suggestion;
+import com.literature.assistant.entity.Literature;
+import com.literature.assistant.index.SuggestionTrie;
+import com.literature.assistant.mapper.LiteratureMapper;
+import com.literature.assistant.service.SuggestService;
+import com.literature.assistant.util.TransactionUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cursor.Cursor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * 输入联想：启动时通过 MyBatis 游标流式构建内存前缀树，写入时增量更新，定期全量重建校正排名
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SuggestServiceImpl implements SuggestService {
+
+    private static final String TYPE_TITLE = "title";
+    private static final String TYPE_TAG = "tag";
+    private static final String TYPE_CATEGORY = "category";
+    private static final String TYPE_AUTHOR = "author";
+
+    /**
+     * 标题中除开头外最多再索引几个单词起始位置，便于输入标题中间的词也能命中
+     */
+    private static final int MAX_TITLE_WORD_KEYS = 4;
+
+    private final LiteratureMapper literatureMapper;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${suggest.top-k:10}")
+    private int topK;
+
+    /**
+     * 文献访问次数，重建索引时保留
+     */
+    private final Map<Long, Long> views = new ConcurrentHashMap<>();
+
+    /**
+     * 尚未合并进索引的访问次数；访问时只做计数，定时合并，避免在详情页请求上争用前缀树的锁
+     */
+    private final Map<Long, LongAdder> unmergedViews = new ConcurrentHashMap<>();
+
+    /**
+     * 重建期间发生的增量变更，重建完成后在新索引上重放
+     */
+    private final Queue<Consumer<Snapshot>> pendingChanges = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private volatile boolean pinyinAvailable = true;
+
+    private volatile Snapshot snapshot;
+
+    /**
+     * 一份完整的联想索引
+     */
+    private static class Snapshot {
+        private final SuggestionTrie trie;
+        private final Map<Long, SuggestionTrie.Entry> titles = new ConcurrentHashMap<>();
+        private final Map<String, SuggestionTrie.Entry> shared = new ConcurrentHashMap<>();
+        private final Map<Long, List<SuggestionTrie.Entry>> sharedByLiterature = new ConcurrentHashMap<>();
+
+        Snapshot(int topK) {
+            this.trie = new SuggestionTrie(topK);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.warn("构建输入联想索引失败，将在下次重建时重试", e);
+        }
+    }
+
+    /**
+     * 全量重建索引
+     */
+    @Scheduled(initialDelayString = "${suggest.rebuild-interval:1800000}",
+            fixedDelayString = "${suggest.rebuild-interval:1800000}")
+    public void rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            Snapshot fresh = new Snapshot(topK);
+            TransactionTemplate template = new TransactionTemplate(transactionManager);
+            template.setReadOnly(true);
+            template.executeWithoutResult(status -> {
+                try (Cursor<Literature> cursor = literatureMapper.selectSuggestSources()) {
+                    cursor.forEach(literature -> add(fresh, literature));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+
+            Consumer<Snapshot> change;
+            while ((change = pendingChanges.poll()) != null) {
+                change.accept(fresh);
+            }
+            snapshot = fresh;
+            log.info("输入联想索引已重建，标题数: {}，标签/分类/作者数: {}", fresh.titles.size(), fresh.shared.size());
+        } finally {
+            rebuilding.set(false);
+            // 重建结束与切换之间可能又有变更进入队列
+            Consumer<Snapshot> change;
+            while ((change = pendingChanges.poll()) != null) {
+                Snapshot current = snapshot;
+                if (current != null) {
+                    change.accept(current);
+                }
+            }
+        }
+    }
+
+    @Override
+    public List<Suggestion> suggest(String prefix, int limit) {
+        Snapshot current = snapshot;
+        String key = normalize(prefix);
+        if (current == null || key.isEmpty()) {
+            return List.of();
+        }
+        Set<String> seen = new HashSet<>();
+        List<Suggestion> result = new ArrayList<>(limit);
+        for (SuggestionTrie.Entry entry : current.trie.search(key, limit * 2)) {
+            if (result.size() >= limit) {
+                break;
+            }
+            if (seen.add(entry.getType() + ":" + entry.getText())) {
+                result.add(new Suggestion(entry.getText(), entry.getType(), entry.getLiteratureId()));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void onSaved(Literature literature) {
+        Long id = literature.getId();
+        String title = literature.getTitle();
+        String tags = literature.getTags();
+        String category = literature.getCategory();
+        String author = literature.getAuthor();
+        TransactionUtil.afterCommit(() -> apply(s -> {
+            remove(s, id);
+            Literature copy = new Literature();
+            copy.setId(id);
+            copy.setTitle(title);
+            copy.setTags(tags);
+            copy.setCategory(category);
+            copy.setAuthor(author);
+            add(s, copy);
+        }));
+    }
+
+    @Override
+    public void onDeleted(Long id) {
+        views.remove(id);
+        unmergedViews.remove(id);
+        TransactionUtil.afterCommit(() -> apply(s -> remove(s, id)));
+    }
+
+    @Override
+    public void recordView(Long id) {
+        unmergedViews.computeIfAbsent(id, key -> new LongAdder()).increment();
+    }
+
+    /**
+     * 把累计的访问次数合并进索引，每篇文献只重新插入一次索引键
+     */
+    @Scheduled(fixedDelayString = "${suggest.view-merge-interval:60000}")
+    public void mergeViews() {
+        Snapshot current = snapshot;
+        for (Long id : unmergedViews.keySet()) {
+            LongAdder adder = unmergedViews.remove(id);
+            long count = adder == null ? 0 : adder.sum();
+            if (count == 0) {
+                continue;
+            }
+            views.merge(id, count, Long::sum);
+            SuggestionTrie.Entry entry = current == null ? null : current.titles.get(id);
+            if (entry != null) {
+                entry.addWeight(count);
+                putKeys(current.trie, entry, true);
+            }
+        }
+    }
+
+    private void apply(Consumer<Snapshot> change) {
+        if (rebuilding.get()) {
+            pendingChanges.add(change);
+        }
+        Snapshot current = snapshot;
+        if (current != null) {
+            change.accept(current);
+        }
+    }
+
+    private void add(Snapshot s, Literature literature) {
+        if (StrUtil.isNotBlank(literature.getTitle())) {
+            SuggestionTrie.Entry title = new SuggestionTrie.Entry(literature.getTitle().trim(), TYPE_TITLE, literature.getId());
+            title.addWeight(1 + views.getOrDefault(literature.getId(), 0L));
+            s.titles.put(literature.getId(), title);
+            putKeys(s.trie, title, true);
+        }
+
+        List<SuggestionTrie.Entry> sharedEntries = new ArrayList<>();
+        for (String tag : splitTags(literature.getTags())) {
+            sharedEntries.add(addShared(s, TYPE_TAG, tag));
+        }
+        if (StrUtil.isNotBlank(literature.getCategory())) {
+            sharedEntries.add(addShared(s, TYPE_CATEGORY, literature.getCategory().trim()));
+        }
+        if (StrUtil.isNotBlank(literature.getAuthor())) {
+            sharedEntries.add(addShared(s, TYPE_AUTHOR, literature.getAuthor().trim()));
+        }
+        if (!sharedEntries.isEmpty()) {
+            s.sharedByLiterature.put(literature.getId(), sharedEntries);
+        }
+    }
+
+    private SuggestionTrie.Entry addShared(Snapshot s, String type, String text) {
+        SuggestionTrie.Entry entry = s.shared.computeIfAbsent(type + ":" + text,
+                key -> new SuggestionTrie.Entry(text, type, null));
+        entry.addWeight(1);
+        putKeys(s.trie, entry, false);
+        return entry;
+    }
+
+    private void remove(Snapshot s, Long id) {
+        SuggestionTrie.Entry title = s.titles.remove(id);
+        if (title != null) {
+            title.markRemoved();
+        }
+        List<SuggestionTrie.Entry> sharedEntries = s.sharedByLiterature.remove(id);
+        if (sharedEntries != null) {
+            for (SuggestionTrie.Entry entry : sharedEntries) {
+                if (entry.addWeight(-1) <= 0) {
+                    entry.markRemoved();
+                    s.shared.remove(entry.getType() + ":" + entry.getText(), entry);
+                }
+            }
+        }
+    }
+
+    /**
+     * 条目的索引键：规范化原文、中文的拼音首字母，标题另加若干单词起始位置
+     */
+    private void putKeys(SuggestionTrie trie, SuggestionTrie.Entry entry, boolean isTitle) {
+        Set<String> keys = new LinkedHashSet<>();
+        String normalized = normalize(entry.getText());
+        keys.add(normalized);
+
+        String initials = pinyinInitials(entry.getText());
+        if (initials != null) {
+            keys.add(initials);
+        }
+
+        if (isTitle) {
+            int added = 0;
+            for (int i = 1; i < normalized.length() && added < MAX_TITLE_WORD_KEYS; i++) {
+                if (normalized.charAt(i - 1) == ' ' && normalized.charAt(i) != ' ') {
+                    keys.add(normalized.substring(i));
+                    added++;
+                }
+            }
+        }
+        for (String key : keys) {
+            trie.put(key, entry);
+        }
+    }
+
+    private String pinyinInitials(String text) {
+        if (!pinyinAvailable || !Validator.hasChinese(text)) {
+            return null;
+        }
+        try {
+            String initials = PinyinUtil.getFirstLetter(text, "").toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]", "");
+            return initials.isEmpty() ? null : initials;
+        } catch (Exception e) {
+            pinyinAvailable = false;
+            log.warn("拼音引擎不可用，输入联想将不支持拼音首字母", e);
+            return null;
+        }
+    }
+
+    private static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+    }
+
+    private static Set<String> splitTags(String tags) {
+        if (StrUtil.isBlank(tags)) {
+            return Set.of();
+        }
+        return new LinkedHashSet<>(StrUtil.split(tags, ',', true, true));
+    }
+}
@@ -0,0 +1,117 @@
+package com.literature.assistant.service.impl;
+
+import com.literature.assistant.config.ReadWriteRoutingDataSource;
+import com.literature.assistant.service.VersionService;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 文献版本号存放在 Redis 哈希中，各节点共享，判断 304 时无需访问数据库
+ * <p>
+ * 版本号取写入时的毫秒时间戳（保证递增），Redis 数据丢失或回退后新版本号仍大于此前发出的任何版本，
+ * 不会与客户端缓存的旧 ETag 相同。从未写入过的文献使用初始化时记录的基准版本。
+ * 配置了从库时，写入后的一段时间内从库可能尚未同步，此时不发出 ETag，避免旧数据以新版本号被客户端缓存。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class VersionServiceImpl implements VersionService {
+
+    private static final String KEY = "literature:versions";
+    private static final String COLLECTION_FIELD = "*";
+    private static final String BASE_FIELD = "base";
+
+    /**
+     * 新版本号 = max(当前时间, 集合版本 + 1)，同时写入集合与各文献
+     */
+    private static final DefaultRedisScript<Long> BUMP_SCRIPT = new DefaultRedisScript<>("""
+            local version = tonumber(ARGV[1])
+            local current = tonumber(redis.call('HGET', KEYS[1], ARGV[2]) or '0')
+            if version <= current then version = current + 1 end
+            redis.call('HSET', KEYS[1], ARGV[2], version)
+            for i = 3, #ARGV do redis.call('HSET', KEYS[1], ARGV[i], version) end
+            return version
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final ReadWriteRoutingDataSource routingDataSource;
+
+    @Value("${datasource.replica.sticky-window:10000}")
+    private long replicaWindowMillis;
+
+    @PostConstruct
+    public void init() {
+        try {
+            initBase();
+        } catch (Exception e) {
+            log.warn("初始化文献版本号失败，暂不使用 ETag: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public String collectionTag() {
+        try {
+            String version = (String) redisTemplate.opsForHash().get(KEY, COLLECTION_FIELD);
+            if (version == null) {
+                initBase();
+                return null;
+            }
+            return tag("l", Long.parseLong(version));
+        } catch (Exception e) {
+            log.debug("读取文献集合版本失败: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public String literatureTag(Long id) {
+        try {
+            List<Object> values = redisTemplate.opsForHash().multiGet(KEY, List.of(String.valueOf(id), BASE_FIELD));
+            Object version = values.get(0) != null ? values.get(0) : values.get(1);
+            if (version == null) {
+                initBase();
+                return null;
+            }
+            return tag("d" + id + "-", Long.parseLong((String) version));
+        } catch (Exception e) {
+            log.debug("读取文献版本失败: {}, {}", id, e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public void bump(Collection<Long> ids) {
+        List<String> args = new ArrayList<>(ids.size() + 2);
+        args.add(String.valueOf(System.currentTimeMillis()));
+        args.add(COLLECTION_FIELD);
+        ids.forEach(id -> args.add(String.valueOf(id)));
+        try {
+            redisTemplate.execute(BUMP_SCRIPT, List.of(KEY), args.toArray());
+        } catch (Exception e) {
+            // 版本未更新时客户端可能继续使用旧缓存，直到下一次写入
+            log.error("更新文献版本失败: {}", ids, e);
+        }
+    }
+
+    private void initBase() {
+        String now = String.valueOf(System.currentTimeMillis());
+        redisTemplate.opsForHash().putIfAbsent(KEY, BASE_FIELD, now);
+        redisTemplate.opsForHash().putIfAbsent(KEY, COLLECTION_FIELD, now);
+    }
+
+    private String tag(String prefix, long version) {
+        if (routingDataSource.hasReplicas() && System.currentTimeMillis() - version < replicaWindowMillis) {
+            return null;
+        }
+        return "W/\"" + prefix + version + "\"";
+    }
+}
@@ -0,0 +1,11 @@
+package com.literature.assistant.sse;
+
+/**
+ * 一条 SSE 事件
+ *
+ * @param id   事件序号，客户端重连时通过 Last-Event-ID 带回；为空时不发送 id
+ * @param name 事件名
+ * @param data 事件数据，对象会序列化为 JSON
+ */
+public record SseEvent(Long id, String name, Object data) {
+}
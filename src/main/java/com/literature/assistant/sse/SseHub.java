@@ -0,0 +1,112 @@
+package com.literature.assistant.sse;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * SSE 推送中心：按主题（如导入任务ID）管理订阅连接
+ * <p>
+ * 发布只是把事件放入各连接的有界队列，立即返回，导入和生成线程不会因浏览器网络慢或连接半开而阻塞。
+ * 进度类的高频事件用 {@link #publishLatest} 发布，客户端来不及接收时只保留最新一条。
+ */
+@Slf4j
+@Component
+public class SseHub {
+
+    @Value("${sse.queue-capacity:256}")
+    private int queueCapacity;
+
+    @Value("${sse.heartbeat-interval:15000}")
+    private long heartbeatInterval;
+
+    private final ConcurrentMap<String, Set<SseSubscriber>> topics = new ConcurrentHashMap<>();
+
+    /**
+     * 订阅主题，返回的 SseEmitter 直接交给控制器返回
+     * <p>
+     * 调用方需保证取 replay 与订阅之间没有新事件发布（如在发布方的同一把锁内调用），否则会漏发或重发
+     *
+     * @param replay   订阅前已发生、需要先补发的事件
+     * @param finished 主题已结束时为 true，补发完即关闭连接
+     */
+    public SseEmitter subscribe(String topic, long timeout, List<SseEvent> replay, boolean finished) {
+        SseEmitter emitter = new SseEmitter(timeout);
+        SseSubscriber subscriber = new SseSubscriber(emitter, queueCapacity, heartbeatInterval,
+                closed -> unsubscribe(topic, closed));
+        subscriber.replay(replay);
+        if (finished) {
+            subscriber.start();
+            subscriber.finish();
+            return emitter;
+        }
+        topics.compute(topic, (key, subscribers) -> {
+            Set<SseSubscriber> set = subscribers != null ? subscribers : ConcurrentHashMap.newKeySet();
+            set.add(subscriber);
+            return set;
+        });
+        subscriber.start();
+        return emitter;
+    }
+
+    /**
+     * 发布事件，按顺序送达每个订阅者
+     */
+    public void publish(String topic, SseEvent event) {
+        Set<SseSubscriber> subscribers = topics.get(topic);
+        if (subscribers != null) {
+            subscribers.forEach(subscriber -> subscriber.offer(event));
+        }
+    }
+
+    /**
+     * 发布可合并事件：同名事件尚未发出时用新数据覆盖
+     */
+    public void publishLatest(String topic, SseEvent event) {
+        Set<SseSubscriber> subscribers = topics.get(topic);
+        if (subscribers != null) {
+            subscribers.forEach(subscriber -> subscriber.offerLatest(event));
+        }
+    }
+
+    /**
+     * 订阅者发完已发布的事件后结束连接
+     */
+    public void complete(String topic) {
+        Set<SseSubscriber> subscribers = topics.remove(topic);
+        if (subscribers != null) {
+            subscribers.forEach(SseSubscriber::finish);
+        }
+    }
+
+    /**
+     * 当前打开的订阅连接数
+     */
+    public int subscriberCount() {
+        return topics.values().stream().mapToInt(Set::size).sum();
+    }
+
+    @PreDestroy
+    public void destroy() {
+        for (Set<SseSubscriber> subscribers : new ArrayList<>(topics.values())) {
+            subscribers.forEach(subscriber -> subscriber.close(true));
+        }
+        topics.clear();
+    }
+
+    private void unsubscribe(String topic, SseSubscriber subscriber) {
+        topics.computeIfPresent(topic, (key, subscribers) -> {
+            subscribers.remove(subscriber);
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+        log.debug("SSE订阅结束: {}", topic);
+    }
+}
@@ -0,0 +1,188 @@
+package com.literature.assistant.sse;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * 一个 SSE 连接：发布方只往有界队列里放事件，由该连接自己的发送线程写出
+ * <p>
+ * 可合并的事件在队列中最多占一个位置，尚未发出前再次发布时移到队尾并替换为新事件，发出的事件 ID 保持递增，
+ * 断线重连按 Last-Event-ID 补发时不会漏掉排在它前面的事件；队列空闲超过心跳间隔时发送注释行，写失败即判定连接已断开。
+ */
+@Slf4j
+class SseSubscriber {
+
+    /**
+     * 队列中的一项；可合并事件在发出前可能被替换为更新的事件
+     */
+    private static final class Item {
+        private SseEvent event;
+        private final boolean last;
+
+        private Item(SseEvent event, boolean last) {
+            this.event = event;
+            this.last = last;
+        }
+    }
+
+    private final SseEmitter emitter;
+    private final BlockingQueue<Item> queue;
+    private final long heartbeatInterval;
+    private final Consumer<SseSubscriber> onClose;
+
+    /**
+     * 订阅前已发生、需要先补发的事件，不占用队列容量
+     */
+    private List<SseEvent> replay = List.of();
+
+    /**
+     * 事件名 -> 队列中尚未发出的可合并事件
+     */
+    private final Map<String, Item> pendingLatest = new HashMap<>();
+
+    /**
+     * 最后放入队列的一项
+     */
+    private Item tail;
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private Thread sender;
+
+    SseSubscriber(SseEmitter emitter, int queueCapacity, long heartbeatInterval, Consumer<SseSubscriber> onClose) {
+        this.emitter = emitter;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.heartbeatInterval = heartbeatInterval;
+        this.onClose = onClose;
+    }
+
+    /**
+     * 设置需要先补发的历史事件，须在 {@link #start} 之前调用
+     */
+    void replay(List<SseEvent> events) {
+        this.replay = events;
+    }
+
+    void start() {
+        emitter.onCompletion(() -> close(false));
+        emitter.onTimeout(() -> close(false));
+        emitter.onError(e -> close(false));
+        sender = Thread.ofVirtual().name("sse-sender").start(this::drain);
+    }
+
+    /**
+     * 放入事件，不阻塞；队列已满说明客户端跟不上，直接断开
+     */
+    synchronized void offer(SseEvent event) {
+        enqueue(new Item(event, false));
+    }
+
+    /**
+     * 放入可合并事件：同名事件尚未发出时只保留最新的一个，且排在队尾
+     */
+    synchronized void offerLatest(SseEvent event) {
+        Item pending = pendingLatest.get(event.name());
+        if (pending != null) {
+            if (pending == tail) {
+                // 其后没有其他事件，原位替换不会打乱 ID 顺序
+                pending.event = event;
+                return;
+            }
+            // 已被发送线程取出时移除失败，照常在队尾放入新事件
+            queue.remove(pending);
+            pendingLatest.remove(event.name());
+        }
+        Item item = new Item(event, false);
+        if (enqueue(item)) {
+            pendingLatest.put(event.name(), item);
+        }
+    }
+
+    /**
+     * 发完队列中已有的事件后结束连接
+     */
+    synchronized void finish() {
+        enqueue(new Item(null, true));
+    }
+
+    private boolean enqueue(Item item) {
+        if (closed.get()) {
+            return false;
+        }
+        if (!queue.offer(item)) {
+            log.warn("SSE客户端消费过慢，断开连接");
+            close(true);
+            return false;
+        }
+        tail = item;
+        return true;
+    }
+
+    private void drain() {
+        try {
+            for (SseEvent event : replay) {
+                send(event);
+            }
+            replay = List.of();
+            while (!closed.get()) {
+                Item item = queue.poll(heartbeatInterval, TimeUnit.MILLISECONDS);
+                if (item == null) {
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                    continue;
+                }
+                if (item.last) {
+                    break;
+                }
+                SseEvent event;
+                synchronized (this) {
+                    event = item.event;
+                    pendingLatest.remove(event.name(), item);
+                }
+                send(event);
+            }
+        } catch (InterruptedException e) {
+            // 连接已关闭
+        } catch (IOException | IllegalStateException e) {
+            log.debug("SSE连接已断开: {}", e.getMessage());
+        } finally {
+            close(true);
+        }
+    }
+
+    private void send(SseEvent event) throws IOException {
+        SseEmitter.SseEventBuilder builder = SseEmitter.event().name(event.name());
+        if (event.id() != null) {
+            builder.id(String.valueOf(event.id()));
+        }
+        // 没有 data 行的事件浏览器不会派发
+        emitter.send(builder.data(event.data() == null ? "" : event.data()));
+    }
+
+    /**
+     * @param completeEmitter 连接由服务端主动结束时为 true；由容器回调（完成、超时、出错）触发时连接已结束
+     */
+    void close(boolean completeEmitter) {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        onClose.accept(this);
+        if (sender != null && sender != Thread.currentThread()) {
+            sender.interrupt();
+        }
+        if (completeEmitter) {
+            try {
+                emitter.complete();
+            } catch (Exception ignored) {
+                // 连接已不可用
+            }
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.literature.assistant.storage;
+
+import cn.hutool.crypto.digest.DigestUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * 本地磁盘存储
+ * <p>
+ * 按键的哈希分两级目录存放（{@code ab/cd/key}，共 65536 个目录），避免单个目录文件数过多。
+ * 写入先落到同一文件系统上的临时文件并刷盘，再原子重命名到目标位置，读取方不会看到写了一半的文件。
+ * 含路径分隔符的键视为升级前保存的本地路径，直接按路径访问。
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "storage.type", havingValue = "local", matchIfMissing = true)
+public class LocalStorageBackend implements StorageBackend {
+
+    private static final Pattern KEY_PATTERN = Pattern.compile("[A-Za-z0-9][A-Za-z0-9._-]*");
+    private static final String TEMP_DIR = ".tmp";
+
+    /**
+     * 超过该时长的临时文件视为中断写入的残留，启动时清理
+     */
+    private static final long STALE_TEMP_MILLIS = 60 * 60 * 1000L;
+
+    private final Path basePath;
+    private final Path tempPath;
+
+    public LocalStorageBackend(@Value("${storage.local.path:${file.upload.path}}") String basePath) throws IOException {
+        this.basePath = Paths.get(basePath).toAbsolutePath().normalize();
+        this.tempPath = this.basePath.resolve(TEMP_DIR);
+        Files.createDirectories(tempPath);
+        cleanStaleTempFiles();
+    }
+
+    @Override
+    public StorageObject put(String key, InputStream in, long length, String contentType) throws IOException {
+        Path target = resolve(key);
+        Path temp = tempPath.resolve(UUID.randomUUID() + ".part");
+        try {
+            long written = 0;
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                ReadableByteChannel source = Channels.newChannel(in);
+                long transferred;
+                while ((transferred = channel.transferFrom(source, written, 1 << 20)) > 0) {
+                    written += transferred;
+                }
+                if (length >= 0 && written != length) {
+                    throw new IOException("写入长度不一致，期望 " + length + " 实际 " + written);
+                }
+                channel.force(true);
+            }
+            Files.createDirectories(target.getParent());
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return new StorageObject(key, written, Files.getLastModifiedTime(target).toMillis());
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public InputStream get(String key) throws IOException {
+        return Files.newInputStream(resolve(key));
+    }
+
+    @Override
+    public InputStream getRange(String key, long offset, long length) throws IOException {
+        FileChannel channel = FileChannel.open(resolve(key), StandardOpenOption.READ);
+        return new RangeInputStream(channel, offset, length);
+    }
+
+    @Override
+    public StorageObject stat(String key) throws IOException {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(resolve(key), BasicFileAttributes.class);
+            return new StorageObject(key, attributes.size(), attributes.lastModifiedTime().toMillis());
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public boolean delete(String key) throws IOException {
+        return Files.deleteIfExists(resolve(key));
+    }
+
+    @Override
+    public Path localPath(String key) {
+        return resolve(key);
+    }
+
+    private Path resolve(String key) {
+        if (key.indexOf('/') >= 0 || key.indexOf('\\') >= 0) {
+            return Paths.get(key);
+        }
+        if (!KEY_PATTERN.matcher(key).matches()) {
+            throw new IllegalArgumentException("非法的存储键: " + key);
+        }
+        String hash = DigestUtil.md5Hex(key);
+        return basePath.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(key);
+    }
+
+    private void cleanStaleTempFiles() {
+        long threshold = System.currentTimeMillis() - STALE_TEMP_MILLIS;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(tempPath)) {
+            for (Path file : files) {
+                if (Files.getLastModifiedTime(file).toMillis() < threshold) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("清理存储临时文件失败: {}", tempPath, e);
+        }
+    }
+
+    /**
+     * 以定位读方式读取文件的一段，不改变通道位置
+     */
+    private static class RangeInputStream extends InputStream {
+
+        private final FileChannel channel;
+        private long position;
+        private long remaining;
+
+        RangeInputStream(FileChannel channel, long offset, long length) {
+            this.channel = channel;
+            this.position = offset;
+            this.remaining = length;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) == 1 ? one[0] & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int n = channel.read(ByteBuffer.wrap(b, off, (int) Math.min(len, remaining)), position);
+            if (n <= 0) {
+                return -1;
+            }
+            position += n;
+            remaining -= n;
+            return n;
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.literature.assistant.storage;
+
+import cn.hutool.core.util.StrUtil;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ClientBuilder;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.NoSuchFileException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * S3 兼容对象存储（AWS S3、MinIO、阿里云 OSS 等），通过 storage.s3.endpoint 指向具体服务
+ * <p>
+ * 已知长度的内容以单次 PUT 流式上传；长度未知时改用分片上传，每次只缓冲一个分片。
+ * 范围读取直接转换为带 Range 头的 GET。
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "storage.type", havingValue = "s3")
+public class S3StorageBackend implements StorageBackend {
+
+    /**
+     * S3 要求除最后一片外每个分片不小于 5MB
+     */
+    private static final int PART_SIZE = 8 * 1024 * 1024;
+
+    private final S3Client client;
+    private final String bucket;
+    private final String prefix;
+
+    public S3StorageBackend(@Value("${storage.s3.endpoint:}") String endpoint,
+                            @Value("${storage.s3.region:us-east-1}") String region,
+                            @Value("${storage.s3.bucket}") String bucket,
+                            @Value("${storage.s3.prefix:}") String prefix,
+                            @Value("${storage.s3.access-key:}") String accessKey,
+                            @Value("${storage.s3.secret-key:}") String secretKey,
+                            @Value("${storage.s3.path-style-access:true}") boolean pathStyleAccess) {
+        AwsCredentialsProvider credentials = StrUtil.isNotBlank(accessKey)
+                ? StaticCredentialsProvider.create(AwsBasicCredentials.create(accessKey, secretKey))
+                : DefaultCredentialsProvider.create();
+        S3ClientBuilder builder = S3Client.builder()
+                .region(Region.of(region))
+                .credentialsProvider(credentials)
+                .forcePathStyle(pathStyleAccess);
+        if (StrUtil.isNotBlank(endpoint)) {
+            builder.endpointOverride(URI.create(endpoint));
+        }
+        this.client = builder.build();
+        this.bucket = bucket;
+        this.prefix = StrUtil.isBlank(prefix) ? "" : StrUtil.addSuffixIfNot(prefix, "/");
+    }
+
+    @Override
+    public StorageObject put(String key, InputStream in, long length, String contentType) throws IOException {
+        String objectKey = prefix + key;
+        try {
+            if (length >= 0) {
+                client.putObject(b -> b.bucket(bucket).key(objectKey).contentType(contentType).contentLength(length),
+                        RequestBody.fromInputStream(in, length));
+            } else {
+                multipartUpload(objectKey, in, contentType);
+            }
+        } catch (S3Exception e) {
+            throw new IOException("上传对象失败: " + objectKey, e);
+        }
+        StorageObject stored = stat(key);
+        if (stored == null) {
+            throw new IOException("上传后对象不存在: " + objectKey);
+        }
+        return stored;
+    }
+
+    @Override
+    public InputStream get(String key) throws IOException {
+        return getObject(GetObjectRequest.builder().bucket(bucket).key(prefix + key).build());
+    }
+
+    @Override
+    public InputStream getRange(String key, long offset, long length) throws IOException {
+        if (length <= 0) {
+            return InputStream.nullInputStream();
+        }
+        return getObject(GetObjectRequest.builder().bucket(bucket).key(prefix + key)
+                .range("bytes=" + offset + "-" + (offset + length - 1)).build());
+    }
+
+    @Override
+    public StorageObject stat(String key) throws IOException {
+        try {
+            HeadObjectResponse head = client.headObject(b -> b.bucket(bucket).key(prefix + key));
+            Instant lastModified = head.lastModified();
+            return new StorageObject(key, head.contentLength(), lastModified == null ? 0 : lastModified.toEpochMilli());
+        } catch (NoSuchKeyException e) {
+            return null;
+        } catch (S3Exception e) {
+            if (e.statusCode() == 404) {
+                return null;
+            }
+            throw new IOException("查询对象失败: " + prefix + key, e);
+        }
+    }
+
+    @Override
+    public boolean delete(String key) throws IOException {
+        if (stat(key) == null) {
+            return false;
+        }
+        try {
+            client.deleteObject(b -> b.bucket(bucket).key(prefix + key));
+            return true;
+        } catch (S3Exception e) {
+            throw new IOException("删除对象失败: " + prefix + key, e);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        client.close();
+    }
+
+    private InputStream getObject(GetObjectRequest request) throws IOException {
+        try {
+            return client.getObject(request);
+        } catch (NoSuchKeyException e) {
+            throw new NoSuchFileException(request.key());
+        } catch (S3Exception e) {
+            throw new IOException("读取对象失败: " + request.key(), e);
+        }
+    }
+
+    private void multipartUpload(String objectKey, InputStream in, String contentType) throws IOException {
+        String uploadId = client.createMultipartUpload(b -> b.bucket(bucket).key(objectKey).contentType(contentType))
+                .uploadId();
+        try {
+            List<CompletedPart> parts = new ArrayList<>();
+            byte[] buffer = new byte[PART_SIZE];
+            int read;
+            while ((read = in.readNBytes(buffer, 0, PART_SIZE)) > 0 || parts.isEmpty()) {
+                int partNumber = parts.size() + 1;
+                int size = read;
+                String etag = client.uploadPart(b -> b.bucket(bucket).key(objectKey).uploadId(uploadId)
+                                .partNumber(partNumber).contentLength((long) size),
+                        RequestBody.fromInputStream(new ByteArrayInputStream(buffer, 0, size), size)).eTag();
+                parts.add(CompletedPart.builder().partNumber(partNumber).eTag(etag).build());
+                if (read < PART_SIZE) {
+                    break;
+                }
+            }
+            client.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                    .bucket(bucket).key(objectKey).uploadId(uploadId)
+                    .multipartUpload(CompletedMultipartUpload.builder().parts(parts).build())
+                    .build());
+        } catch (IOException | RuntimeException e) {
+            try {
+                client.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                        .bucket(bucket).key(objectKey).uploadId(uploadId).build());
+            } catch (S3Exception abortError) {
+                log.warn("取消分片上传失败: {}", objectKey, abortError);
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.literature.assistant.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+
+/**
+ * 文件存储后端
+ * <p>
+ * 对象以与后端无关的键标识（数据库中保存的即为该键），读取均为流式，不在内存中整体缓冲文件内容。
+ */
+public interface StorageBackend {
+
+    /**
+     * 写入对象；写入完成前对读取不可见，同名键会被覆盖
+     *
+     * @param length 内容长度，未知时传 -1
+     */
+    StorageObject put(String key, InputStream in, long length, String contentType) throws IOException;
+
+    /**
+     * 读取整个对象；对象不存在时抛出 {@link java.nio.file.NoSuchFileException}
+     */
+    InputStream get(String key) throws IOException;
+
+    /**
+     * 读取对象中从 offset 开始的 length 个字节
+     */
+    InputStream getRange(String key, long offset, long length) throws IOException;
+
+    /**
+     * 查询对象元数据；对象不存在时返回 null
+     */
+    StorageObject stat(String key) throws IOException;
+
+    /**
+     * 删除对象；对象不存在时返回 false
+     */
+    boolean delete(String key) throws IOException;
+
+    /**
+     * 对象在本地文件系统上的路径，供 sendfile 等零拷贝场景使用；非本地存储返回 null
+     */
+    default Path localPath(String key) {
+        return null;
+    }
+}
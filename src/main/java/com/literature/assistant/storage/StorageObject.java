@@ -0,0 +1,24 @@
+package com.literature.assistant.storage;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * 存储对象元数据
+ */
+@Data
+@AllArgsConstructor
+public class StorageObject {
+
+    private String key;
+
+    /**
+     * 字节数
+     */
+    private long size;
+
+    /**
+     * 最后修改时间（毫秒）
+     */
+    private long lastModified;
+}
@@ -0,0 +1,134 @@
+package com.literature.assistant.util;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * 长文本压缩，格式与 MySQL COMPRESS() 相同：4 字节小端原文长度 + zlib 数据流
+ * <p>
+ * 与数据库函数兼容，SQL 中可直接用 UNCOMPRESS() 检索、UNCOMPRESSED_LENGTH() 读取原文长度；
+ * 去掉长度头后即为 HTTP Content-Encoding: deflate 的响应体，可不经解压直接发送。
+ * 不符合该格式的数据视为未压缩的 UTF-8 文本，兼容升级前的数据。
+ */
+public final class CompressUtil {
+
+    private static final int HEADER_LENGTH = 4;
+
+    /**
+     * deflate 的最大压缩比约为 1032:1，声明的原文长度超过它的数据不可能是压缩结果
+     */
+    private static final int MAX_RATIO = 1032;
+
+    private CompressUtil() {
+    }
+
+    public static byte[] compress(String text) {
+        if (text.isEmpty()) {
+            // 与 COMPRESS('') 一致
+            return new byte[0];
+        }
+        byte[] input = text.getBytes(StandardCharsets.UTF_8);
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(input);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(input.length / 3 + 64);
+            out.write(input.length);
+            out.write(input.length >>> 8);
+            out.write(input.length >>> 16);
+            out.write(input.length >>> 24);
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    public static String decompress(byte[] data) {
+        if (!isCompressed(data)) {
+            return new String(data, StandardCharsets.UTF_8);
+        }
+        // isCompressed 已按压缩比限制了声明的长度，不会因形似长度头的旧文本分配过大的缓冲区
+        byte[] output = new byte[uncompressedLength(data)];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data, HEADER_LENGTH, data.length - HEADER_LENGTH);
+            int length = 0;
+            while (length < output.length && !inflater.finished()) {
+                int n = inflater.inflate(output, length, output.length - length);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                length += n;
+            }
+            if (length != output.length) {
+                // 头部恰好形似压缩格式的旧文本
+                return new String(data, StandardCharsets.UTF_8);
+            }
+            return new String(output, StandardCharsets.UTF_8);
+        } catch (DataFormatException e) {
+            return new String(data, StandardCharsets.UTF_8);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * 去掉长度头的 zlib 数据流，即 HTTP deflate 编码的内容
+     * <p>
+     * MySQL COMPRESS() 在压缩结果以空格结尾时会追加一个 '.'，此时需去掉
+     */
+    public static byte[] deflateStream(byte[] data) {
+        int end = data.length;
+        if (end >= HEADER_LENGTH + 2 && data[end - 1] == '.' && data[end - 2] == ' ' && trailingBytes(data) == 1) {
+            end--;
+        }
+        return Arrays.copyOfRange(data, HEADER_LENGTH, end);
+    }
+
+    /**
+     * zlib 数据流结束后剩余的字节数
+     */
+    private static int trailingBytes(byte[] data) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data, HEADER_LENGTH, data.length - HEADER_LENGTH);
+            byte[] buffer = new byte[8192];
+            while (!inflater.finished() && inflater.inflate(buffer) > 0) {
+                // 只需找到数据流的结尾
+            }
+            return inflater.finished() ? inflater.getRemaining() : 0;
+        } catch (DataFormatException e) {
+            return 0;
+        } finally {
+            inflater.end();
+        }
+    }
+
+    public static int uncompressedLength(byte[] data) {
+        return (data[0] & 0xff) | (data[1] & 0xff) << 8 | (data[2] & 0xff) << 16 | (data[3] & 0x3f) << 24;
+    }
+
+    /**
+     * 长度头之后是否为合法的 zlib 头（deflate 方法，头部校验和为 31 的倍数），且声明的原文长度不超过最大压缩比
+     */
+    public static boolean isCompressed(byte[] data) {
+        if (data == null || data.length < HEADER_LENGTH + 2) {
+            return false;
+        }
+        int cmf = data[HEADER_LENGTH] & 0xff;
+        int flg = data[HEADER_LENGTH + 1] & 0xff;
+        if ((cmf & 0x0f) != 8 || (cmf >>> 4) > 7 || ((cmf << 8) | flg) % 31 != 0 || (flg & 0x20) != 0) {
+            return false;
+        }
+        int length = uncompressedLength(data);
+        return length > 0 && length <= (long) (data.length - HEADER_LENGTH) * MAX_RATIO;
+    }
+}
@@ -0,0 +1,233 @@
+package com.literature.assistant.util;
+
+import cn.hutool.core.util.StrUtil;
+import com.literature.assistant.storage.StorageBackend;
+import com.literature.assistant.storage.StorageObject;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 文件下载：支持 ETag / Last-Modified 条件请求与 HTTP Range（含多段）。
+ * <p>
+ * 本地存储的文件内容不经过堆内存：单段或整文件在 Tomcat 支持时交给 sendfile 由内核直接发送，
+ * 否则通过 {@link FileChannel#transferTo} 写出；其他存储按请求的范围流式读取后转发。
+ */
+public class DownloadUtil {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    /**
+     * 单次请求允许的最大分段数，防止恶意的大量小分段请求
+     */
+    private static final int MAX_RANGES = 16;
+
+    /**
+     * 发送文件；文件不存在时抛出 {@link NoSuchFileException}
+     *
+     * @param contentHash 内容哈希，用作强 ETag
+     * @param fileName    下载文件名
+     * @return 响应体中文件内容的字节数（304、416 与 HEAD 请求为 0）；交给 Tomcat sendfile 的部分在返回后才实际发送
+     */
+    public static long sendFile(HttpServletRequest request, HttpServletResponse response, StorageBackend storage,
+                                String key, String contentHash, String contentType, String fileName)
+            throws IOException {
+        StorageObject object = storage.stat(key);
+        if (object == null) {
+            throw new NoSuchFileException(key);
+        }
+        long length = object.getSize();
+        long lastModified = object.getLastModified() / 1000 * 1000;
+        Path file = storage.localPath(key);
+        String etag = "\"" + contentHash + "\"";
+
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, lastModified);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+
+        if (isNotModified(request, etag, lastModified)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return 0;
+        }
+
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(fileName, StandardCharsets.UTF_8).build().toString());
+
+        List<HttpRange> ranges = parseRanges(request, etag, lastModified, length);
+        if (ranges == null) {
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+            response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+            return 0;
+        }
+        boolean head = "HEAD".equalsIgnoreCase(request.getMethod());
+
+        if (ranges.isEmpty()) {
+            response.setStatus(HttpServletResponse.SC_OK);
+            response.setContentType(contentType);
+            response.setContentLengthLong(length);
+            if (head) {
+                return 0;
+            }
+            writeRange(request, response, storage, key, file, 0, length);
+            return length;
+        }
+
+        response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+        if (ranges.size() == 1) {
+            long start = ranges.get(0).getRangeStart(length);
+            long end = ranges.get(0).getRangeEnd(length);
+            response.setContentType(contentType);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            response.setContentLengthLong(end - start + 1);
+            if (head) {
+                return 0;
+            }
+            writeRange(request, response, storage, key, file, start, end - start + 1);
+            return end - start + 1;
+        }
+
+        String boundary = UUID.randomUUID().toString().replace("-", "");
+        response.setContentType("multipart/byteranges; boundary=" + boundary);
+        if (head) {
+            return 0;
+        }
+        long sent = 0;
+        OutputStream out = response.getOutputStream();
+        try (FileChannel channel = file == null ? null : FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(out);
+            for (HttpRange range : ranges) {
+                long start = range.getRangeStart(length);
+                long end = range.getRangeEnd(length);
+                String partHeader = "\r\n--" + boundary + "\r\n"
+                        + HttpHeaders.CONTENT_TYPE + ": " + contentType + "\r\n"
+                        + HttpHeaders.CONTENT_RANGE + ": bytes " + start + "-" + end + "/" + length + "\r\n\r\n";
+                out.write(partHeader.getBytes(StandardCharsets.US_ASCII));
+                if (channel != null) {
+                    transfer(channel, start, end - start + 1, target);
+                } else {
+                    try (InputStream in = storage.getRange(key, start, end - start + 1)) {
+                        in.transferTo(out);
+                    }
+                }
+                sent += end - start + 1;
+            }
+            out.write(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII));
+        }
+        return sent;
+    }
+
+    /**
+     * If-None-Match 优先于 If-Modified-Since（RFC 9110 13.2.2）
+     */
+    private static boolean isNotModified(HttpServletRequest request, String etag, long lastModified) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            return matchesEtag(ifNoneMatch, etag);
+        }
+        long ifModifiedSince = parseDate(request, HttpHeaders.IF_MODIFIED_SINCE);
+        return ifModifiedSince >= 0 && lastModified <= ifModifiedSince;
+    }
+
+    /**
+     * 解析 Range 请求头；返回空列表表示发送整个文件，返回 null 表示范围无法满足
+     */
+    private static List<HttpRange> parseRanges(HttpServletRequest request, String etag, long lastModified,
+                                               long length) {
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (StrUtil.isBlank(rangeHeader)) {
+            return List.of();
+        }
+        // If-Range 不匹配时说明客户端缓存的是旧内容，应返回整个文件
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange != null) {
+            boolean matches = ifRange.startsWith("\"") || ifRange.startsWith("W/")
+                    ? ifRange.equals(etag)
+                    : parseDate(request, HttpHeaders.IF_RANGE) == lastModified;
+            if (!matches) {
+                return List.of();
+            }
+        }
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(rangeHeader);
+            if (ranges.size() > MAX_RANGES) {
+                return List.of();
+            }
+            for (HttpRange range : ranges) {
+                // 起点越界时抛出 IllegalArgumentException
+                range.getRangeStart(length);
+                range.getRangeEnd(length);
+            }
+            return ranges;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static boolean matchesEtag(String header, String etag) {
+        for (String candidate : StrUtil.splitTrim(header, ',')) {
+            if ("*".equals(candidate) || candidate.equals(etag) || candidate.equals("W/" + etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long parseDate(HttpServletRequest request, String header) {
+        try {
+            return request.getDateHeader(header);
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    private static void writeRange(HttpServletRequest request, HttpServletResponse response, StorageBackend storage,
+                                   String key, Path file, long start, long count) throws IOException {
+        if (file == null) {
+            try (InputStream in = storage.getRange(key, start, count)) {
+                in.transferTo(response.getOutputStream());
+            }
+            return;
+        }
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // 由 Tomcat 在请求处理结束后使用 sendfile 发送，数据不经过用户态
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, start + count);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            transfer(channel, start, count, Channels.newChannel(response.getOutputStream()));
+        }
+    }
+
+    private static void transfer(FileChannel channel, long position, long count, WritableByteChannel target)
+            throws IOException {
+        long end = position + count;
+        while (position < end) {
+            long transferred = channel.transferTo(position, end - position, target);
+            if (transferred <= 0) {
+                break;
+            }
+            position += transferred;
+        }
+    }
+}
@@ -1,60 +1,116 @@
 package com.literature.assistant.util;
 
+import com.literature.assistant.concurrent.ExecutorRegistry;
+import com.literature.assistant.metrics.LiteratureMetrics;
+import com.literature.assistant.storage.StorageBackend;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.RandomAccessReadBuffer;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.text.PDFTextStripper;
 import org.apache.poi.xwpf.usermodel.XWPFDocument;
 import org.apache.poi.xwpf.usermodel.XWPFParagraph;
 import org.springframework.stereotype.Component;
 
-import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutionException;
 
 @Slf4j
 @Component
+@RequiredArgsConstructor
 public class FileParser {
 
+    private final StorageBackend storageBackend;
+    private final ExecutorRegistry executorRegistry;
+    private final LiteratureMetrics metrics;
+
     /**
-     * 解析文件内容
+     * 解析文件内容；解析是 CPU 密集操作，在 CPU 线程池中执行，避免大量并发的虚拟线程同时解析
+     *
+     * @param fileKey 文件存储键
      */
-    public String parseFileContent(String filePath) throws IOException {
-        String fileType = FileUtil.getFileExtension(filePath).toLowerCase();
-        
-        switch (fileType) {
-            case ".pdf":
-                return parsePdfFile(filePath);
-            case ".doc":
-            case ".docx":
-                return parseWordFile(filePath);
-            case ".md":
-            case ".txt":
-                return parseTextFile(filePath);
-            default:
-                throw new IllegalArgumentException("不支持的文件类型: " + fileType);
+    public String parseFileContent(String fileKey) throws IOException {
+        return metrics.stage(LiteratureMetrics.STAGE_PARSE, fileKey, () -> parseOnCpu(fileKey));
+    }
+
+    private String parseOnCpu(String fileKey) throws IOException {
+        try {
+            return executorRegistry.callOnCpu(() -> parse(fileKey));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("文件解析被中断");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException ioException) {
+                throw ioException;
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IOException("文件解析失败", cause);
+        }
+    }
+
+    private String parse(String fileKey) throws IOException {
+        String fileType = FileUtil.getFileExtension(fileKey).toLowerCase();
+        ParseStats stats = new ParseStats();
+        String outcome = LiteratureMetrics.OUTCOME_FAILURE;
+        try {
+            String content = switch (fileType) {
+                case ".pdf" -> parsePdfFile(fileKey, stats);
+                case ".doc", ".docx" -> parseWordFile(fileKey, stats);
+                case ".md", ".txt" -> parseTextFile(fileKey, stats);
+                default -> throw new IllegalArgumentException("不支持的文件类型: " + fileType);
+            };
+            outcome = LiteratureMetrics.OUTCOME_SUCCESS;
+            return content;
+        } catch (IOException | RuntimeException e) {
+            outcome = LiteratureMetrics.outcome(e);
+            throw e;
+        } finally {
+            metrics.recordParsed(fileType, outcome, stats.bytes, stats.pages);
         }
     }
 
     /**
-     * 解析PDF文件
+     * 解析PDF文件；本地存储直接按文件随机读取，其他存储流式读入
      */
-    private String parsePdfFile(String filePath) throws IOException {
-        try (PDDocument document = Loader.loadPDF(new File(filePath))) {
-            PDFTextStripper stripper = new PDFTextStripper();
-            return stripper.getText(document);
+    private String parsePdfFile(String fileKey, ParseStats stats) throws IOException {
+        Path localPath = storageBackend.localPath(fileKey);
+        if (localPath != null) {
+            stats.bytes = Files.size(localPath);
+            try (PDDocument document = Loader.loadPDF(localPath.toFile())) {
+                stats.pages = document.getNumberOfPages();
+                return new PDFTextStripper().getText(document);
+            }
+        }
+        try (InputStream in = storageBackend.get(fileKey);
+             RandomAccessReadBuffer buffer = new RandomAccessReadBuffer(in);
+             PDDocument document = Loader.loadPDF(buffer)) {
+            stats.bytes = buffer.length();
+            stats.pages = document.getNumberOfPages();
+            return new PDFTextStripper().getText(document);
         }
     }
 
     /**
      * 解析Word文件
      */
-    private String parseWordFile(String filePath) throws IOException {
-        try (FileInputStream fis = new FileInputStream(filePath);
-             XWPFDocument document = new XWPFDocument(fis)) {
-            
+    private String parseWordFile(String fileKey, ParseStats stats) throws IOException {
+        try (LimitedInputStream in = new LimitedInputStream(storageBackend.get(fileKey), Long.MAX_VALUE);
+             XWPFDocument document = new XWPFDocument(in)) {
+            stats.bytes = in.getCount();
+            stats.pages = document.getProperties().getExtendedProperties().getPages();
+
             StringBuilder content = new StringBuilder();
             for (XWPFParagraph paragraph : document.getParagraphs()) {
                 String text = paragraph.getText();
@@ -69,8 +125,20 @@ public class FileParser {
     /**
      * 解析文本文件
      */
-    private String parseTextFile(String filePath) throws IOException {
-        return new String(Files.readAllBytes(new File(filePath).toPath()), StandardCharsets.UTF_8);
+    private String parseTextFile(String fileKey, ParseStats stats) throws IOException {
+        try (InputStream in = storageBackend.get(fileKey)) {
+            byte[] data = in.readAllBytes();
+            stats.bytes = data.length;
+            return new String(data, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * 一次解析读取的字节数与页数（文档未记录页数时为 0）
+     */
+    private static final class ParseStats {
+        private long bytes;
+        private int pages;
     }
 
     /**
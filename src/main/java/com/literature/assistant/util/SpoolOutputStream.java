@@ -0,0 +1,75 @@
+package com.literature.assistant.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * 先写内存、超过阈值后转存临时文件的输出流，用于暂存大小未知的中间数据。
+ * 写完后调用 {@link #close()}，再通过 {@link #openInputStream()} 读回；用完调用 {@link #discard()} 删除临时文件。
+ */
+public class SpoolOutputStream extends OutputStream {
+
+    private final int threshold;
+    private ByteArrayOutputStream memory;
+    private OutputStream fileOut;
+    private Path file;
+    private long size;
+
+    public SpoolOutputStream(int threshold) {
+        this.threshold = threshold;
+        this.memory = new ByteArrayOutputStream(Math.min(threshold, 8192));
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if (memory != null && memory.size() + len > threshold) {
+            file = Files.createTempFile("spool-", ".tmp");
+            fileOut = Files.newOutputStream(file);
+            memory.writeTo(fileOut);
+            memory = null;
+        }
+        if (memory != null) {
+            memory.write(b, off, len);
+        } else {
+            fileOut.write(b, off, len);
+        }
+        size += len;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (fileOut != null) {
+            fileOut.close();
+        }
+    }
+
+    public InputStream openInputStream() throws IOException {
+        return memory != null ? new ByteArrayInputStream(memory.toByteArray()) : Files.newInputStream(file);
+    }
+
+    public void discard() {
+        memory = null;
+        if (file != null) {
+            try {
+                close();
+                Files.deleteIfExists(file);
+            } catch (IOException ignored) {
+                // 临时文件删除失败不影响主流程
+            }
+        }
+    }
+}
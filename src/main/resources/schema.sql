@@ -11,21 +11,89 @@ CREATE TABLE IF NOT EXISTS literature (
     original_file_name VARCHAR(255) NOT NULL COMMENT '原始文件名',
     file_size BIGINT NOT NULL COMMENT '文件大小（字节）',
     file_type VARCHAR(10) NOT NULL COMMENT '文件类型',
+    content_hash CHAR(64) COMMENT '文件内容SHA-256',
     tags VARCHAR(500) COMMENT '标签，多个用逗号分隔',
     description TEXT COMMENT '文献描述',
-    reading_guide LONGTEXT COMMENT '阅读指南',
+    reading_guide LONGBLOB COMMENT '阅读指南（MySQL COMPRESS 格式压缩存储）',
     category VARCHAR(100) COMMENT '分类',
     author VARCHAR(200) COMMENT '作者',
     publish_year INT COMMENT '出版年份',
+    content_signature VARBINARY(512) COMMENT '内容MinHash签名',
+    duplicate_of BIGINT COMMENT '近似重复的原文献ID',
     create_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
     update_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
     deleted TINYINT NOT NULL DEFAULT 0 COMMENT '逻辑删除标志（0-未删除，1-已删除）',
     INDEX idx_category (category),
+    INDEX idx_content_hash (content_hash),
     INDEX idx_tags (tags(255)),
     INDEX idx_create_time (create_time),
     INDEX idx_deleted (deleted)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='文献表';
 
+-- 导入任务表
+CREATE TABLE IF NOT EXISTS ingestion_job (
+    id VARCHAR(36) PRIMARY KEY COMMENT '任务ID',
+    type VARCHAR(20) NOT NULL COMMENT '任务类型（BATCH/ARCHIVE）',
+    status VARCHAR(20) NOT NULL COMMENT '任务状态（RUNNING/COMPLETED/CANCELLED）',
+    total INT COMMENT '文件总数，压缩包未读取完时为空',
+    succeeded INT COMMENT '成功入库的文件数',
+    failed INT COMMENT '失败的文件数',
+    create_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    update_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    INDEX idx_status_update_time (status, update_time)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='导入任务表';
+
+-- 入库子任务表
+CREATE TABLE IF NOT EXISTS ingestion_task (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT COMMENT '主键ID',
+    job_id VARCHAR(36) COMMENT '所属导入任务ID，分类任务为空',
+    type VARCHAR(20) NOT NULL COMMENT '任务类型（INGEST/CLASSIFY）',
+    status VARCHAR(20) NOT NULL COMMENT '任务状态（PENDING/RUNNING/SUCCEEDED/FAILED）',
+    file_name VARCHAR(255) COMMENT '原始文件名',
+    file_path VARCHAR(500) COMMENT '文件存储键',
+    file_size BIGINT COMMENT '文件大小（字节）',
+    content_hash CHAR(64) COMMENT '文件内容SHA-256',
+    literature_id BIGINT COMMENT '文献ID',
+    attempts INT NOT NULL DEFAULT 0 COMMENT '已执行次数',
+    lease_owner VARCHAR(100) COMMENT '持有租约的节点',
+    lease_expire_time DATETIME COMMENT '租约到期时间',
+    next_run_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '最早可执行时间',
+    dispatch_time DATETIME COMMENT '最近一次投递到消息流的时间',
+    last_error VARCHAR(1000) COMMENT '最近一次失败原因',
+    create_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    update_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    INDEX idx_status_next_run (status, next_run_time),
+    INDEX idx_status_lease (status, lease_expire_time),
+    INDEX idx_job_id (job_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='入库子任务表';
+
+-- 批量重处理任务表
+CREATE TABLE IF NOT EXISTS backfill_job (
+    id VARCHAR(36) PRIMARY KEY COMMENT '任务ID',
+    operation VARCHAR(20) NOT NULL COMMENT '处理内容（GUIDE/CLASSIFY/ALL）',
+    status VARCHAR(20) NOT NULL COMMENT '任务状态（RUNNING/PAUSED/COMPLETED/CANCELLED）',
+    category VARCHAR(100) COMMENT '筛选条件：分类',
+    description VARCHAR(255) COMMENT '筛选条件：描述关键词',
+    tags VARCHAR(255) COMMENT '筛选条件：标签',
+    rate DOUBLE NOT NULL COMMENT '每秒最多处理的文献数',
+    last_id BIGINT NOT NULL DEFAULT 0 COMMENT '检查点：已处理到的文献ID',
+    processed INT NOT NULL DEFAULT 0 COMMENT '处理成功的文献数',
+    failed INT NOT NULL DEFAULT 0 COMMENT '处理失败的文献数',
+    last_error VARCHAR(1000) COMMENT '最近一次失败原因',
+    lease_owner VARCHAR(100) COMMENT '执行节点',
+    lease_expire_time DATETIME COMMENT '租约到期时间',
+    create_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    update_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    INDEX idx_status_lease (status, lease_expire_time)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='批量重处理任务表';
+
+-- 升级已有数据库
+-- ALTER TABLE literature ADD COLUMN content_hash CHAR(64) COMMENT '文件内容SHA-256' AFTER file_type, ADD INDEX idx_content_hash (content_hash);
+-- ALTER TABLE literature ADD COLUMN content_signature VARBINARY(512) COMMENT '内容MinHash签名' AFTER publish_year;
+-- ALTER TABLE literature ADD COLUMN duplicate_of BIGINT COMMENT '近似重复的原文献ID' AFTER content_signature;
+-- ALTER TABLE literature MODIFY reading_guide LONGBLOB COMMENT '阅读指南（MySQL COMPRESS 格式压缩存储）';
+-- UPDATE literature SET reading_guide = COMPRESS(reading_guide) WHERE reading_guide IS NOT NULL;
+
 -- 插入示例数据
 INSERT INTO literature (title, file_path, original_file_name, file_size, file_type, tags, description, category, author, publish_year) VALUES
 ('人工智能研究综述', '/uploads/ai_research.pdf', 'ai_research.pdf', 1048576, '.pdf', '人工智能,机器学习,综述', '关于人工智能领域最新研究的综述文章', '计算机科学', '张三', 2023),
@@ -0,0 +1,136 @@
+package com.literature.assistant.storage;
+
+import com.adobe.testing.s3mock.junit5.S3MockExtension;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 在本地 S3 替身（S3Mock）上验证 S3 存储后端的读写、范围读取与分片上传
+ */
+class S3StorageBackendTest {
+
+    private static final String BUCKET = "literature-test";
+
+    /**
+     * S3Mock 在同一进程内以 Spring Boot 应用启动；只让它读取自带的 application.properties，
+     * 不加载本项目的 application.yml（context-path、dev 配置等）
+     */
+    private static final String CONFIG_LOCATION = "spring.config.location";
+
+    static {
+        System.setProperty(CONFIG_LOCATION, "classpath:/application.properties");
+    }
+
+    @RegisterExtension
+    static final S3MockExtension S3_MOCK = S3MockExtension.builder()
+            .silent()
+            // 本项目依赖带来的自动配置与 S3Mock 无关，数据源未配置时会启动失败
+            .withProperty("spring.autoconfigure.exclude",
+                    "org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration,"
+                            + "com.baomidou.mybatisplus.autoconfigure.MybatisPlusAutoConfiguration")
+            .withSecureConnection(false)
+            .withInitialBuckets(BUCKET)
+            .build();
+
+    private S3StorageBackend storage;
+
+    @AfterAll
+    static void clearConfigLocation() {
+        System.clearProperty(CONFIG_LOCATION);
+    }
+
+    @BeforeEach
+    void setUp() {
+        storage = new S3StorageBackend(S3_MOCK.getServiceEndpoint(), "us-east-1", BUCKET, "files",
+                "access", "secret", true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        storage.close();
+    }
+
+    @Test
+    void putThenGetStatAndDelete() throws IOException {
+        byte[] content = "hello literature".getBytes(StandardCharsets.UTF_8);
+
+        StorageObject stored = storage.put("a/hello.txt", new ByteArrayInputStream(content), content.length,
+                "text/plain");
+
+        assertThat(stored.getKey()).isEqualTo("a/hello.txt");
+        assertThat(stored.getSize()).isEqualTo(content.length);
+        assertThat(stored.getLastModified()).isPositive();
+        try (InputStream in = storage.get("a/hello.txt")) {
+            assertThat(in.readAllBytes()).isEqualTo(content);
+        }
+
+        assertThat(storage.delete("a/hello.txt")).isTrue();
+        assertThat(storage.stat("a/hello.txt")).isNull();
+        assertThat(storage.delete("a/hello.txt")).isFalse();
+    }
+
+    @Test
+    void getRangeReturnsRequestedBytes() throws IOException {
+        byte[] content = randomBytes(4096);
+        storage.put("range.bin", new ByteArrayInputStream(content), content.length, null);
+
+        try (InputStream in = storage.getRange("range.bin", 100, 200)) {
+            assertThat(in.readAllBytes()).isEqualTo(Arrays.copyOfRange(content, 100, 300));
+        }
+        try (InputStream in = storage.getRange("range.bin", 4000, 96)) {
+            assertThat(in.readAllBytes()).isEqualTo(Arrays.copyOfRange(content, 4000, 4096));
+        }
+        try (InputStream in = storage.getRange("range.bin", 0, 0)) {
+            assertThat(in.readAllBytes()).isEmpty();
+        }
+    }
+
+    @Test
+    void missingObject() throws IOException {
+        assertThat(storage.stat("missing.pdf")).isNull();
+        assertThatThrownBy(() -> storage.get("missing.pdf")).isInstanceOf(NoSuchFileException.class);
+    }
+
+    @Test
+    void unknownLengthUsesMultipartUpload() throws IOException {
+        // 超过一个分片（8MB），最后一片不足分片大小
+        byte[] content = randomBytes(9 * 1024 * 1024 + 123);
+
+        StorageObject stored = storage.put("large.pdf", new ByteArrayInputStream(content), -1, "application/pdf");
+
+        assertThat(stored.getSize()).isEqualTo(content.length);
+        try (InputStream in = storage.get("large.pdf")) {
+            assertThat(in.readAllBytes()).isEqualTo(content);
+        }
+    }
+
+    @Test
+    void unknownLengthEmptyContent() throws IOException {
+        StorageObject stored = storage.put("empty.txt", InputStream.nullInputStream(), -1, "text/plain");
+
+        assertThat(stored.getSize()).isZero();
+        try (InputStream in = storage.get("empty.txt")) {
+            assertThat(in.readAllBytes()).isEmpty();
+        }
+    }
+
+    private static byte[] randomBytes(int size) {
+        byte[] bytes = new byte[size];
+        new Random(size).nextBytes(bytes);
+        return bytes;
+    }
+}